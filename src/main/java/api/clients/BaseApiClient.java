@@ -12,6 +12,8 @@ import io.restassured.filter.log.LogDetail;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import utils.HttpExchangeRecorder;
+import utils.ImpactTracer;
 import utils.LoggingUtil;
 
 import java.util.HashMap;
@@ -94,7 +96,7 @@ public abstract class BaseApiClient {
             
             this.requestSpec = builder.build();
             
-            LoggingUtil.logInfo("RestAssured initialized with base URL: " + baseUrl);
+            LoggingUtil.logInfo("RestAssured initialized with base URL: {}", baseUrl);
             
         } catch (Exception e) {
             String errorMsg = "Failed to initialize RestAssured configuration: " + e.getMessage();
@@ -122,7 +124,7 @@ public abstract class BaseApiClient {
      */
     public void authenticate(String username, String password) throws FrameworkException {
         try {
-            LoggingUtil.logInfo("Attempting authentication for user: " + username);
+            LoggingUtil.logInfo("Attempting authentication for user: {}", username);
             
             Map<String, String> credentials = new HashMap<>();
             credentials.put("username", username);
@@ -144,7 +146,7 @@ public abstract class BaseApiClient {
                 
                 if (this.authToken != null) {
                     defaultHeaders.put("Authorization", "Bearer " + this.authToken);
-                    LoggingUtil.logInfo("Authentication successful for user: " + username);
+                    LoggingUtil.logInfo("Authentication successful for user: {}", username);
                 } else {
                     throw new FrameworkException("Authentication response does not contain token");
                 }
@@ -203,14 +205,16 @@ public abstract class BaseApiClient {
     private Response executeRequest(String method, String endpoint, Object body, Map<String, String> pathParams) 
             throws FrameworkException {
         
+        ImpactTracer.touch(getClass());
         int attempts = 0;
         int maxAttempts = configManager.getMaxRetryAttempts();
         Exception lastException = null;
         
         while (attempts < maxAttempts) {
+            long requestStart = System.currentTimeMillis();
             try {
                 attempts++;
-                LoggingUtil.logInfo("Executing " + method + " request to " + endpoint + " (attempt " + attempts + ")");
+                LoggingUtil.logInfo("Executing {} request to {} (attempt {})", method, endpoint, attempts);
                 
                 RequestSpecification spec = RestAssured.given(requestSpec).headers(defaultHeaders);
                 
@@ -242,25 +246,28 @@ public abstract class BaseApiClient {
                         throw new FrameworkException("Unsupported HTTP method: " + method);
                 }
                 
+                long responseTime = response.getTime();
+                HttpExchangeRecorder.record(method, endpoint, response.getStatusCode(), responseTime);
+                
                 // Log response details
-                LoggingUtil.logInfo("Response status: " + response.getStatusCode());
-                LoggingUtil.logInfo("Response time: " + response.getTime() + "ms");
+                LoggingUtil.logInfo("Response status: {}, time: {}ms", response.getStatusCode(), responseTime);
                 
                 // Validate response time
-                if (response.getTime() > configManager.getMaxResponseTime()) {
-                    LoggingUtil.logWarning("Response time (" + response.getTime() + "ms) exceeded threshold (" + 
-                                         configManager.getMaxResponseTime() + "ms)");
+                long maxResponseTime = configManager.getMaxResponseTime();
+                if (responseTime > maxResponseTime) {
+                    LoggingUtil.logWarning("Response time ({}ms) exceeded threshold ({}ms)", responseTime, maxResponseTime);
                 }
                 
                 return response;
                 
             } catch (Exception e) {
                 lastException = e;
-                LoggingUtil.logError("Request attempt " + attempts + " failed: " + e.getMessage(), e);
+                HttpExchangeRecorder.recordFailure(method, endpoint, System.currentTimeMillis() - requestStart, e.getMessage());
+                LoggingUtil.logError("Request attempt {} failed: {}", attempts, e.getMessage(), e);
                 
                 if (attempts < maxAttempts) {
                     int delay = configManager.getRetryDelay() * (int) Math.pow(2, attempts - 1);
-                    LoggingUtil.logInfo("Retrying in " + delay + "ms...");
+                    LoggingUtil.logInfo("Retrying in {}ms...", delay);
                     
                     try {
                         Thread.sleep(delay);
@@ -292,8 +299,7 @@ public abstract class BaseApiClient {
     protected <T> ApiResponse<T> parseResponse(Response response, Class<T> dataType) throws FrameworkException {
         try {
             if (response.getContentType().contains("application/json")) {
-                String responseBody = response.getBody().asString();
-                LoggingUtil.logInfo("Parsing response body to ApiResponse");
+                LoggingUtil.logDebug("Parsing response body to ApiResponse");
                 
                 // Try to parse as ApiResponse first
                 try {
@@ -328,7 +334,7 @@ public abstract class BaseApiClient {
      */
     public void addHeader(String name, String value) {
         defaultHeaders.put(name, value);
-        LoggingUtil.logInfo("Added custom header: " + name + " = " + value);
+        LoggingUtil.logInfo("Added custom header: {} = {}", name, value);
     }
     
     /**
@@ -336,7 +342,7 @@ public abstract class BaseApiClient {
      */
     public void removeHeader(String name) {
         defaultHeaders.remove(name);
-        LoggingUtil.logInfo("Removed header: " + name);
+        LoggingUtil.logInfo("Removed header: {}", name);
     }
     
     /**
@@ -375,7 +381,7 @@ public abstract class BaseApiClient {
     public void setBaseUrl(String baseUrl) {
         this.baseUrl = baseUrl;
         RestAssured.baseURI = baseUrl;
-        LoggingUtil.logInfo("Base URL updated to: " + baseUrl);
+        LoggingUtil.logInfo("Base URL updated to: {}", baseUrl);
     }
     
     /**
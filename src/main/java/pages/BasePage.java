@@ -4,17 +4,21 @@ import exceptions.PageException;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import utils.ConfigReader;
+import utils.EnhancedPageFactory;
 import utils.ErrorHandler;
+import utils.ImpactTracer;
+import utils.InteractionPipeline;
 import utils.LoggingUtil;
+import utils.TableSnapshot;
 import utils.WebDriverUtil;
 import utils.WaitUtil;
 
 import java.time.Duration;
+import java.util.List;
 
 public class BasePage {
     protected WebDriver driver;
@@ -34,11 +38,7 @@ public class BasePage {
         long timeout = initializeTimeout();
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
         
-        try {
-            PageFactory.initElements(driver, this); // Initialize WebElements annotated with @FindBy
-        } catch (Exception e) {
-            ErrorHandler.handlePageError(pageName, "PageFactory.initElements", "WebElement initialization", e);
-        }
+        initializePageElements(); // Initialize WebElements annotated with @FindBy
         
         // Initialize ConfigReader with error handling
         initializeConfigReader();
@@ -59,11 +59,7 @@ public class BasePage {
         long timeout = initializeTimeout();
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
         
-        try {
-            PageFactory.initElements(driver, this);
-        } catch (Exception e) {
-            ErrorHandler.handlePageError(pageName, "PageFactory.initElements", "WebElement initialization", e);
-        }
+        initializePageElements();
         
         initializeConfigReader();
         
@@ -84,6 +80,17 @@ public class BasePage {
         return timeout;
     }
 
+    private void initializePageElements() {
+        ImpactTracer.touch(getClass());
+        boolean cacheLocators = Boolean.parseBoolean(ConfigReader.getAppProperty("locator.cache.enabled", "true"));
+        String language = System.getProperty("language", "en");
+        try {
+            EnhancedPageFactory.initPageElements(driver, this, language, cacheLocators);
+        } catch (Exception e) {
+            ErrorHandler.handlePageError(pageName, "PageFactory.initElements", "WebElement initialization", e);
+        }
+    }
+
     private void initializeConfigReader() {
         try {
             String currentLanguage = System.getProperty("language", "en");
@@ -107,15 +114,11 @@ public class BasePage {
         String elementInfo = getElementInfo(element);
         
         try {
-            // Validate element first
-            ErrorHandler.validateElement(element, elementInfo);
-            
-            // Use enhanced wait strategy for clicking with retry
-            ErrorHandler.executeVoidWithRetry(() -> {
-                WaitUtil.waitForElementClickable(element);
+            // Wait, click and retry transient failures within one interaction deadline
+            InteractionPipeline.runVoid("click", elementInfo, element, InteractionPipeline.Readiness.CLICKABLE, target -> {
                 LoggingUtil.logElementInteraction("click", elementInfo, null);
-                element.click();
-            }, "clickElement_" + elementInfo, 2, 1000);
+                target.click();
+            });
             
             logger.debug("Successfully clicked element: {}", elementInfo);
         } catch (Exception e) {
@@ -128,16 +131,12 @@ public class BasePage {
         String elementInfo = getElementInfo(element);
         
         try {
-            // Validate element first
-            ErrorHandler.validateElement(element, elementInfo);
-            
-            // Use enhanced wait strategy for typing with retry
-            ErrorHandler.executeVoidWithRetry(() -> {
-                WaitUtil.waitForElementVisible(element);
+            // Wait, type and retry transient failures within one interaction deadline
+            InteractionPipeline.runVoid("type", elementInfo, element, InteractionPipeline.Readiness.VISIBLE, target -> {
                 LoggingUtil.logElementInteraction("type", elementInfo, text);
-                element.clear();
-                element.sendKeys(text);
-            }, "typeText_" + elementInfo, 2, 1000);
+                target.clear();
+                target.sendKeys(text);
+            });
             
             logger.debug("Successfully typed text into element: {}", elementInfo);
         } catch (Exception e) {
@@ -149,14 +148,11 @@ public class BasePage {
         String elementInfo = getElementInfo(element);
         
         try {
-            ErrorHandler.validateElement(element, elementInfo);
-            
-            return ErrorHandler.executeWithRetry(() -> {
-                WaitUtil.waitForElementVisible(element);
-                String text = element.getText();
+            return InteractionPipeline.run("getText", elementInfo, element, InteractionPipeline.Readiness.VISIBLE, target -> {
+                String text = target.getText();
                 logger.debug("Retrieved text '{}' from element: {}", text, elementInfo);
                 return text;
-            }, "getElementText_" + elementInfo);
+            });
             
         } catch (Exception e) {
             ErrorHandler.handlePageError(pageName, "getText", elementInfo, e);
@@ -250,6 +246,25 @@ public class BasePage {
         return WaitUtil.smartWait(locator, timeoutInSeconds);
     }
 
+    // Bulk table reads - one script evaluation instead of per-row/per-cell round-trips
+    protected TableSnapshot captureTable(WebElement table) {
+        try {
+            return TableSnapshot.capture(driver, table);
+        } catch (Exception e) {
+            ErrorHandler.handlePageError(pageName, "captureTable", getElementInfo(table), e);
+            return TableSnapshot.empty(); // This line won't be reached due to exception, but satisfies compiler
+        }
+    }
+
+    protected TableSnapshot captureRows(List<WebElement> rows) {
+        try {
+            return TableSnapshot.captureRows(driver, rows);
+        } catch (Exception e) {
+            ErrorHandler.handlePageError(pageName, "captureRows", "row list", e);
+            return TableSnapshot.empty(); // This line won't be reached due to exception, but satisfies compiler
+        }
+    }
+
     protected String getLocalizedString(String key) {
         try {
             ErrorHandler.validateNotEmpty(key, "localization key");
@@ -4,11 +4,12 @@ import io.qameta.allure.Step;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import utils.LocalizedFindBy;
 
 public class DashboardPage extends BasePage {
 
     // --- Locators --- 
-    @FindBy(xpath = "//h1[contains(text(),'Dashboard')] | //h1[contains(text(),'Panel')]" ) // Example: Welcome message or header
+    @LocalizedFindBy(tag = "h1", key = "dashboard.header", match = LocalizedFindBy.Match.CONTAINS) // Example: Welcome message or header
     private WebElement dashboardHeader;
     
     @FindBy(linkText = "Policies") // Assuming a link to the policy list
@@ -5,6 +5,7 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.Select;
+import utils.LocalizedFindBy;
 import utils.LoggingUtil;
 
 import java.util.List;
@@ -17,7 +18,7 @@ import java.util.stream.Collectors;
 public class EditPolicyPage extends BasePage {
 
     // --- Form Elements ---
-    @FindBy(xpath = "//h1[contains(text(), 'Edit Policy')] | //h1[contains(text(), 'Editar Póliza')]")
+    @LocalizedFindBy(tag = "h1", key = "policy.edit.header", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement editPolicyHeader;
 
     @FindBy(id = "policyNumberEdit")
@@ -45,13 +46,13 @@ public class EditPolicyPage extends BasePage {
     private WebElement policyTypeSelect;
 
     // --- Action Buttons ---
-    @FindBy(xpath = "//button[contains(text(), 'Save Changes')] | //button[contains(text(), 'Guardar Cambios')]")
+    @LocalizedFindBy(tag = "button", key = "policy.edit.save", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement saveChangesButton;
 
-    @FindBy(xpath = "//button[contains(text(), 'Cancel')] | //button[contains(text(), 'Cancelar')]")
+    @LocalizedFindBy(tag = "button", key = "common.actions.cancel", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement cancelButton;
 
-    @FindBy(xpath = "//button[contains(text(), 'Reset Form')] | //button[contains(text(), 'Restablecer')]")
+    @LocalizedFindBy(tag = "button", key = "policy.edit.reset", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement resetFormButton;
 
     // --- Validation Messages ---
@@ -6,7 +6,9 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.Select;
+import utils.LocalizedFindBy;
 import utils.LoggingUtil;
+import utils.TableSnapshot;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -21,7 +23,8 @@ public class PolicyDetailsPage extends BasePage {
     // --- Enhanced Locators --- 
     
     // Main Policy Information Section
-    @FindBy(xpath = "//h1[contains(@class, 'policy-header')] | //h1[contains(text(), 'Policy Details')] | //h1[contains(text(), 'Detalles de la Póliza')]")
+    @LocalizedFindBy(tag = "h1", key = "policy.details.header", match = LocalizedFindBy.Match.CONTAINS,
+                     orClass = "policy-header")
     private WebElement policyDetailsHeader;
 
     @FindBy(css = ".policy-info-container")
@@ -78,19 +81,19 @@ public class PolicyDetailsPage extends BasePage {
     private WebElement createdDateField;
 
     // Policy Actions
-    @FindBy(xpath = "//button[contains(text(), 'Edit')] | //button[contains(text(), 'Editar')]")
+    @LocalizedFindBy(tag = "button", key = "common.actions.edit", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement editPolicyButton;
 
-    @FindBy(xpath = "//button[contains(text(), 'Download')] | //button[contains(text(), 'Descargar')]")
+    @LocalizedFindBy(tag = "button", key = "common.actions.download", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement downloadPolicyButton;
 
-    @FindBy(xpath = "//button[contains(text(), 'Print')] | //button[contains(text(), 'Imprimir')]")
+    @LocalizedFindBy(tag = "button", key = "policy.actions.print", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement printPolicyButton;
 
-    @FindBy(xpath = "//button[contains(text(), 'Share')] | //button[contains(text(), 'Compartir')]")
+    @LocalizedFindBy(tag = "button", key = "policy.actions.share", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement sharePolicyButton;
 
-    @FindBy(xpath = "//a[contains(text(), 'Back to Policies')] | //a[contains(text(), 'Volver a Pólizas')]")
+    @LocalizedFindBy(tag = "a", key = "policy.actions.back", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement backToPoliciesLink;
 
     // Policy Documents Section
@@ -103,7 +106,7 @@ public class PolicyDetailsPage extends BasePage {
     @FindBy(css = ".document-item")
     private List<WebElement> documentItems;
 
-    @FindBy(xpath = "//button[contains(text(), 'Upload Document')]")
+    @LocalizedFindBy(tag = "button", key = "policy.documents.upload", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement uploadDocumentButton;
 
     @FindBy(css = ".document-download-link")
@@ -122,7 +125,7 @@ public class PolicyDetailsPage extends BasePage {
     @FindBy(css = ".claims-table-header")
     private WebElement claimsTableHeader;
 
-    @FindBy(xpath = "//button[contains(text(), 'Submit New Claim')]")
+    @LocalizedFindBy(tag = "button", key = "policy.claims.submit", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement submitNewClaimButton;
 
     @FindBy(id = "claimsStatusFilter")
@@ -141,7 +144,7 @@ public class PolicyDetailsPage extends BasePage {
     @FindBy(css = ".beneficiary-item")
     private List<WebElement> beneficiaryItems;
 
-    @FindBy(xpath = "//button[contains(text(), 'Add Beneficiary')]")
+    @LocalizedFindBy(tag = "button", key = "policy.beneficiaries.add", match = LocalizedFindBy.Match.CONTAINS)
     private WebElement addBeneficiaryButton;
 
     // Payment History Section
@@ -468,14 +471,22 @@ public class PolicyDetailsPage extends BasePage {
         return claimsSection;
     }
 
+    @Step("Capture claims table snapshot")
+    public TableSnapshot getClaimsTableSnapshot() {
+        if (!isClaimsTableDisplayed()) {
+            return TableSnapshot.empty();
+        }
+        return captureTable(claimsTable);
+    }
+
     @Step("Get list of claims")
     public List<String> getClaims() {
         if (!isClaimsTableDisplayed()) {
             return new ArrayList<>();
         }
         
-        return claimRows.stream()
-                .map(this::getElementText)
+        return captureRows(claimRows).getRows().stream()
+                .map(TableSnapshot.Row::getText)
                 .collect(Collectors.toList());
     }
 
@@ -518,14 +529,12 @@ public class PolicyDetailsPage extends BasePage {
             throw new RuntimeException("Claims table not displayed");
         }
         
-        for (WebElement claimRow : claimRows) {
-            if (getElementText(claimRow).contains(claimId)) {
-                clickElement(claimRow);
-                LoggingUtil.logPageAction("PolicyDetailsPage", "click", "claim:" + claimId);
-                return;
-            }
-        }
-        throw new RuntimeException("Claim not found: " + claimId);
+        TableSnapshot.Row claim = captureRows(claimRows)
+                .findRow(row -> row.getText().contains(claimId))
+                .orElseThrow(() -> new RuntimeException("Claim not found: " + claimId));
+        
+        clickElement(claimRows.get(claim.getDomIndex()));
+        LoggingUtil.logPageAction("PolicyDetailsPage", "click", "claim:" + claimId);
     }
 
     @Step("Click Submit New Claim button")
@@ -547,7 +556,10 @@ public class PolicyDetailsPage extends BasePage {
         }
         
         try {
-            String headerText = getElementText(claimsTableHeader).toLowerCase();
+            List<String> headers = getClaimsTableSnapshot().getHeaders();
+            String headerText = headers.isEmpty()
+                    ? getElementText(claimsTableHeader).toLowerCase()
+                    : String.join(" ", headers).toLowerCase();
             return headerText.contains("claim") && 
                    headerText.contains("date") && 
                    headerText.contains("status") && 
@@ -569,6 +581,26 @@ public class PolicyDetailsPage extends BasePage {
         return true;
     }
 
+    // --- Payment History Methods ---
+
+    @Step("Check if payment history section is displayed")
+    public boolean isPaymentHistoryDisplayed() {
+        return isElementDisplayed(paymentHistorySection);
+    }
+
+    @Step("Capture payment history snapshot")
+    public TableSnapshot getPaymentHistorySnapshot() {
+        if (!isPaymentHistoryDisplayed()) {
+            return TableSnapshot.empty();
+        }
+        return captureRows(paymentHistoryRows);
+    }
+
+    @Step("Get payment history count")
+    public int getPaymentHistoryCount() {
+        return getPaymentHistorySnapshot().size();
+    }
+
     // --- Verification Methods ---
     
     @Step("Verify policy details are displayed for policy ID: {expectedPolicyId}")
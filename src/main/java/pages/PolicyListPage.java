@@ -6,9 +6,9 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.Select;
+import utils.TableSnapshot;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class PolicyListPage extends BasePage {
 
@@ -16,13 +16,16 @@ public class PolicyListPage extends BasePage {
     @FindBy(id = "policyStatusFilter") // Assuming a dropdown filter for policy status
     private WebElement statusFilterDropdown;
 
+    @FindBy(id = "policyTable")
+    private WebElement policyTable;
+
     @FindBy(xpath = "//table[@id='policyTable']/tbody/tr") // Assuming policies are in a table
     private List<WebElement> policyRows;
 
     // Assuming each row has a cell for status and a cell for policy ID (e.g., with a link)
-    // These XPaths are relative to each policyRow
-    private String policyStatusCellRelativeXpath = ".//td[3]"; // Example: 3rd cell is status
-    private String policyIdLinkRelativeXpath = ".//td[1]/a"; // Example: 1st cell has a link with Policy ID
+    private static final int POLICY_ID_COLUMN = 0; // Example: 1st cell has a link with Policy ID
+    private static final int POLICY_STATUS_COLUMN = 2; // Example: 3rd cell is status
+    private String policyIdLinkRelativeXpath = ".//td[1]/a"; // Relative to a policy row
 
     // --- Constructor --- 
     public PolicyListPage(WebDriver driver) {
@@ -44,25 +47,27 @@ public class PolicyListPage extends BasePage {
         statusSelect.selectByVisibleText(localizedStatus);
     }
 
+    @Step("Capture policy table snapshot")
+    public TableSnapshot getPolicyTableSnapshot() {
+        waitForElementToBeVisible(policyRows.get(0)); // Wait for at least one row to be visible
+        return captureTable(policyTable);
+    }
+
     @Step("Get displayed policy statuses")
     public List<String> getDisplayedPolicyStatuses() {
-        waitForElementToBeVisible(policyRows.get(0)); // Wait for at least one row to be visible
-        return policyRows.stream()
-                .map(row -> row.findElement(By.xpath(policyStatusCellRelativeXpath)).getText())
-                .collect(Collectors.toList());
+        return getPolicyTableSnapshot().getColumn(POLICY_STATUS_COLUMN);
     }
 
     @Step("Click policy by ID: {policyId}")
     public PolicyDetailsPage clickPolicyById(String policyId) {
-        waitForElementToBeVisible(policyRows.get(0)); // Wait for rows
-        for (WebElement row : policyRows) {
-            WebElement idLink = row.findElement(By.xpath(policyIdLinkRelativeXpath));
-            if (getElementText(idLink).equals(policyId)) {
-                clickElement(idLink);
-                return new PolicyDetailsPage(driver);
-            }
-        }
-        throw new RuntimeException("Policy with ID " + policyId + " not found in the list.");
+        TableSnapshot snapshot = getPolicyTableSnapshot();
+        TableSnapshot.Row row = snapshot.findRowByCell(POLICY_ID_COLUMN, policyId)
+                .orElseThrow(() -> new RuntimeException("Policy with ID " + policyId + " not found in the list."));
+
+        WebElement idLink = TableSnapshot.getRowElement(driver, policyTable, row)
+                .findElement(By.xpath(policyIdLinkRelativeXpath));
+        clickElement(idLink);
+        return new PolicyDetailsPage(driver);
     }
     
     @Step("Check if Policy List page is displayed")
@@ -3,13 +3,21 @@ package testdata;
 import testdata.providers.TestDataManager;
 import testdata.providers.UserDataProvider;
 import testdata.providers.PolicyDataProvider;
+import testdata.providers.PolicyColumnStore;
 import testdata.factories.TestDataFactory;
 import testdata.models.UserModel;
 import testdata.models.PolicyModel;
+import exceptions.TestDataException;
+import utils.ConfigReader;
 import utils.ErrorHandler;
 import utils.LoggingUtil;
 import org.slf4j.Logger;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 /**
  * Centralized test data utility providing easy access to all test data functionality
  * This is the main entry point for test data operations in the framework
@@ -55,11 +63,9 @@ public class TestDataUtil {
             // Load from JSON files if they exist
             loadTestDataFromFiles();
             
-            // Initialize default data (already done in providers constructors)
-            logger.info("Default test data initialized by providers");
-            
-            // Log statistics
+            // Log statistics (adds the providers' default data for any type not accessed yet)
             logTestDataStatistics();
+            logger.info("Default test data initialization times (ms): {}", dataManager.getInitializationTimes());
             
             isInitialized = true;
             logger.info("Test data initialization completed successfully");
@@ -75,19 +81,14 @@ public class TestDataUtil {
      */
     private void loadTestDataFromFiles() {
         try {
-            // Load users from JSON
-            userProvider.loadFromJson("testdata/users.json");
-            logger.debug("Loaded users from JSON file");
-        } catch (Exception e) {
-            logger.warn("Could not load users from JSON file: {}", e.getMessage());
-        }
-        
-        try {
-            // Load policies from JSON
-            policyProvider.loadFromJson("testdata/policies.json");
-            logger.debug("Loaded policies from JSON file");
+            // Users and policies load on separate threads; a missing file does not stop the other
+            int threads = Integer.parseInt(ConfigReader.getSetting("testdata.load.threads", "2"));
+            dataManager.loadFromJson(Arrays.asList(
+                userProvider.jsonSource(ConfigReader.getSetting("testdata.users.file", "testdata/users.json")),
+                policyProvider.jsonSource(ConfigReader.getSetting("testdata.policies.file", "testdata/policies.json"))), threads);
+            logger.debug("Loaded users and policies from JSON files");
         } catch (Exception e) {
-            logger.warn("Could not load policies from JSON file: {}", e.getMessage());
+            logger.warn("Could not load test data from JSON files: {}", e.getMessage());
         }
     }
     
@@ -118,16 +119,12 @@ public class TestDataUtil {
     }
     
     /**
-     * Quick access methods for common user operations
+     * Quick access methods for common user operations. getValidUser leases a valid non-admin user to the
+     * current scenario, generating one when all of them are leased to parallel scenarios
      */
     public UserModel getValidUser() {
-        UserModel user = userProvider.getRandomValidUser();
-        if (user == null) {
-            logger.warn("No valid users available, generating one");
-            user = TestDataFactory.generateValidUser();
-            userProvider.updateUser(user);
-        }
-        return user;
+        return userProvider.leaseUser(userProvider::getValidUsers, user -> !user.isAdmin(),
+                                      TestDataFactory::generateValidUser).getItem();
     }
     
     public UserModel getInvalidUser() {
@@ -135,7 +132,7 @@ public class TestDataUtil {
         if (user == null) {
             logger.warn("No invalid users available, generating one");
             user = TestDataFactory.generateInvalidUser();
-            userProvider.updateUser(user);
+            userProvider.addUser(user);
         }
         return user;
     }
@@ -147,7 +144,7 @@ public class TestDataUtil {
                 .orElseGet(() -> {
                     logger.warn("No admin users available, generating one");
                     UserModel admin = TestDataFactory.generateAdminUser();
-                    userProvider.updateUser(admin);
+                    userProvider.addUser(admin);
                     return admin;
                 });
     }
@@ -158,7 +155,7 @@ public class TestDataUtil {
                 .orElseGet(() -> {
                     logger.warn("No locked users available, generating one");
                     UserModel locked = TestDataFactory.generateLockedUser();
-                    userProvider.updateUser(locked);
+                    userProvider.addUser(locked);
                     return locked;
                 });
     }
@@ -169,7 +166,7 @@ public class TestDataUtil {
     
     public UserModel createTestUser(String role, boolean isValid) {
         UserModel user = TestDataFactory.generateUserWithConstraints(isValid, "ADMIN".equals(role), false);
-        userProvider.updateUser(user);
+        userProvider.addUser(user);
         return user;
     }
     
@@ -183,16 +180,12 @@ public class TestDataUtil {
     }
     
     /**
-     * Quick access methods for common policy operations
+     * Quick access methods for common policy operations. getActivePolicy and getPolicyByType lease the
+     * policy to the current scenario, generating one when all matches are leased to parallel scenarios
      */
     public PolicyModel getActivePolicy() {
-        PolicyModel policy = policyProvider.getRandomActivePolicy();
-        if (policy == null) {
-            logger.warn("No active policies available, generating one");
-            policy = TestDataFactory.generateActivePolicy();
-            policyProvider.updatePolicy(policy);
-        }
-        return policy;
+        return policyProvider.leasePolicy(policyProvider::getActivePolicies, policy -> true,
+                                          TestDataFactory::generateActivePolicy).getItem();
     }
     
     public PolicyModel getExpiredPolicy() {
@@ -201,7 +194,7 @@ public class TestDataUtil {
                 .orElseGet(() -> {
                     logger.warn("No expired policies available, generating one");
                     PolicyModel expired = TestDataFactory.generateExpiredPolicy();
-                    policyProvider.updatePolicy(expired);
+                    policyProvider.addPolicy(expired);
                     return expired;
                 });
     }
@@ -212,7 +205,7 @@ public class TestDataUtil {
                 .orElseGet(() -> {
                     logger.warn("No pending policies available, generating one");
                     PolicyModel pending = TestDataFactory.generatePendingPolicy();
-                    policyProvider.updatePolicy(pending);
+                    policyProvider.addPolicy(pending);
                     return pending;
                 });
     }
@@ -222,13 +215,16 @@ public class TestDataUtil {
     }
     
     public PolicyModel getPolicyByType(String type) {
-        PolicyModel policy = policyProvider.getRandomPolicyByType(type);
-        if (policy == null) {
-            logger.warn("No {} policies available, generating one", type);
-            policy = TestDataFactory.generateRandomPolicy(type);
-            policyProvider.updatePolicy(policy);
-        }
-        return policy;
+        return policyProvider.leasePolicy(() -> policyProvider.getPoliciesByType(type), policy -> true,
+                                          () -> TestDataFactory.generateRandomPolicy(type)).getItem();
+    }
+    
+    /**
+     * Lease an active policy of the given type, e.g. an active Auto Insurance policy
+     */
+    public PolicyModel getActivePolicyByType(String type) {
+        return policyProvider.leasePolicy(() -> policyProvider.getPoliciesByType(type), PolicyModel::isActive,
+                                          () -> TestDataFactory.generatePolicyWithConstraints(type, "ACTIVE", null, null)).getItem();
     }
     
     public PolicyModel getAutoPolicy() {
@@ -255,14 +251,14 @@ public class TestDataUtil {
                     PolicyModel policy = TestDataFactory.generateActivePolicy();
                     policy.addClaimId("CLM_TEST_001");
                     policy.addClaimId("CLM_TEST_002");
-                    policyProvider.updatePolicy(policy);
+                    policyProvider.addPolicy(policy);
                     return policy;
                 });
     }
     
     public PolicyModel createTestPolicy(String type, String status) {
         PolicyModel policy = TestDataFactory.generatePolicyWithConstraints(type, status, null, null);
-        policyProvider.updatePolicy(policy);
+        policyProvider.addPolicy(policy);
         return policy;
     }
     
@@ -276,15 +272,27 @@ public class TestDataUtil {
             logger.info("Generating bulk test data - Users: {}, Policies: {}", userCount, policyCount);
             
             // Generate users
-            UserModel[] users = TestDataFactory.generateMultipleUsers(userCount);
-            for (UserModel user : users) {
-                userProvider.updateUser(user);
-            }
+            userProvider.addUsers(Arrays.asList(TestDataFactory.generateMultipleUsers(userCount)));
             
-            // Generate policies
-            PolicyModel[] policies = TestDataFactory.generateMultiplePolicies(policyCount);
-            for (PolicyModel policy : policies) {
-                policyProvider.updatePolicy(policy);
+            // Load policies from the snapshot of an earlier run, or generate them and write the snapshot;
+            // a scenario keeps its bulk policies in its own data, so the shared snapshot is not used there
+            boolean columnar = Boolean.parseBoolean(ConfigReader.getSetting("testdata.bulk.columnar", "true"));
+            String snapshotSetting = ConfigReader.getSetting("testdata.snapshot.file", "");
+            Path snapshot = columnar && !snapshotSetting.isEmpty() && !dataManager.isScenarioActive()
+                ? Paths.get(snapshotSetting) : null;
+            if (snapshot == null || !loadPolicySnapshot(snapshot, policyCount)) {
+                // Generate in parallel chunks so only a few chunks exist as PolicyModel objects at a time
+                int chunkSize = Math.max(1, Integer.parseInt(ConfigReader.getSetting("testdata.bulk.chunk.size", "10000")));
+                TestDataFactory.generateBulkPolicies(policyCount, chunkSize, policies -> {
+                    if (columnar) {
+                        policyProvider.addBulkPolicies(policies);
+                    } else {
+                        policyProvider.addPolicies(policies);
+                    }
+                });
+                if (snapshot != null) {
+                    policyProvider.writeBulkSnapshot(snapshot);
+                }
             }
             
             logger.info("Bulk test data generation completed");
@@ -297,6 +305,29 @@ public class TestDataUtil {
         }
     }
     
+    /**
+     * Load the policy snapshot if it holds the requested number of policies and no bulk policies exist yet
+     */
+    private boolean loadPolicySnapshot(Path snapshot, int policyCount) {
+        if (!Files.isRegularFile(snapshot) || policyProvider.getBulkPolicyCount() > 0) {
+            return false;
+        }
+        try {
+            int snapshotPolicies = PolicyColumnStore.snapshotSize(snapshot);
+            if (snapshotPolicies != policyCount) {
+                logger.info("Policy snapshot {} holds {} policies, {} requested; regenerating", 
+                           snapshot, snapshotPolicies, policyCount);
+                return false;
+            }
+            policyProvider.loadBulkSnapshot(snapshot, Boolean.parseBoolean(ConfigReader.getSetting("testdata.snapshot.verify", "true")));
+            TestDataFactory.reserveBulkPolicyIds(snapshotPolicies);
+            return true;
+        } catch (TestDataException e) {
+            logger.warn("Ignoring policy snapshot, regenerating: {}", e.getMessage());
+            return false;
+        }
+    }
+        
     /**
      * Generate test data for specific scenario
      */
@@ -334,21 +365,21 @@ public class TestDataUtil {
     
     private void generateLoginTestingData() {
         // Generate users for login testing
-        userProvider.updateUser(TestDataFactory.generateValidUser());
-        userProvider.updateUser(TestDataFactory.generateInvalidUser());
-        userProvider.updateUser(TestDataFactory.generateLockedUser());
-        userProvider.updateUser(TestDataFactory.generateAdminUser());
+        userProvider.addUser(TestDataFactory.generateValidUser());
+        userProvider.addUser(TestDataFactory.generateInvalidUser());
+        userProvider.addUser(TestDataFactory.generateLockedUser());
+        userProvider.addUser(TestDataFactory.generateAdminUser());
         
         logger.debug("Generated login testing data");
     }
     
     private void generatePolicyManagementData() {
         // Generate policies for management testing
-        policyProvider.updatePolicy(TestDataFactory.generateActivePolicy());
-        policyProvider.updatePolicy(TestDataFactory.generateExpiredPolicy());
-        policyProvider.updatePolicy(TestDataFactory.generatePendingPolicy());
-        policyProvider.updatePolicy(TestDataFactory.generateAutoPolicy());
-        policyProvider.updatePolicy(TestDataFactory.generateHomePolicy());
+        policyProvider.addPolicy(TestDataFactory.generateActivePolicy());
+        policyProvider.addPolicy(TestDataFactory.generateExpiredPolicy());
+        policyProvider.addPolicy(TestDataFactory.generatePendingPolicy());
+        policyProvider.addPolicy(TestDataFactory.generateAutoPolicy());
+        policyProvider.addPolicy(TestDataFactory.generateHomePolicy());
         
         logger.debug("Generated policy management data");
     }
@@ -357,7 +388,7 @@ public class TestDataUtil {
         // Generate users with different roles
         UserModel[] users = TestDataFactory.generateUsersWithRoles(5, 2);
         for (UserModel user : users) {
-            userProvider.updateUser(user);
+            userProvider.addUser(user);
         }
         
         logger.debug("Generated user role testing data");
@@ -365,13 +396,13 @@ public class TestDataUtil {
     
     private void generatePolicyLifecycleData() {
         // Generate policies in different states
-        policyProvider.updatePolicy(TestDataFactory.generatePendingPolicy());
-        policyProvider.updatePolicy(TestDataFactory.generateActivePolicy());
-        policyProvider.updatePolicy(TestDataFactory.generateExpiredPolicy());
+        policyProvider.addPolicy(TestDataFactory.generatePendingPolicy());
+        policyProvider.addPolicy(TestDataFactory.generateActivePolicy());
+        policyProvider.addPolicy(TestDataFactory.generateExpiredPolicy());
         
         PolicyModel cancelled = TestDataFactory.generateRandomPolicy();
         cancelled.setStatus("CANCELLED");
-        policyProvider.updatePolicy(cancelled);
+        policyProvider.addPolicy(cancelled);
         
         logger.debug("Generated policy lifecycle data");
     }
@@ -390,6 +421,10 @@ public class TestDataUtil {
         try {
             logger.info("Clearing all test data...");
             dataManager.clearAllTestData();
+            // Under a scenario the bulk policies are hidden with the rest of its data
+            if (!dataManager.isScenarioActive()) {
+                policyProvider.clearBulkPolicies();
+            }
             isInitialized = false;
             logger.info("All test data cleared");
         } catch (Exception e) {
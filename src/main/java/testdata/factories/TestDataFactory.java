@@ -2,24 +2,67 @@ package testdata.factories;
 
 import testdata.models.UserModel;
 import testdata.models.PolicyModel;
+import utils.ConfigReader;
 import utils.ErrorHandler;
 import utils.LoggingUtil;
+import exceptions.TestDataException;
 import org.slf4j.Logger;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Random;
-import java.util.UUID;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Factory for generating dynamic test data
  * Provides methods to create realistic test data with random variations
+ *
+ * All randomness derives from one seed, logged at startup and set with testdata.seed to reproduce a run.
+ * A scenario draws from a stream derived from the seed and its scenario ID (beginScenario), so it gets
+ * the same data whichever worker or shard runs it; other threads draw from their own SplittableRandom
+ * split off the seed, so threads never contend. Bulk generation splits one stream per batch in call order,
+ * so its output does not depend on which worker runs a batch. IDs are sequential base-36 numbers, tagged
+ * with testdata.id.run (by default the shard) so the JVMs of one run never hand out the same ID
  */
 public class TestDataFactory {
     
     private static final Logger logger = LoggingUtil.getLogger(TestDataFactory.class);
-    private static final Random random = new Random();
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    
+    // Items per batch in generateMultiple*; each batch has its own random stream and ID range
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int ID_DIGITS = 8;
+    
+    private static final AtomicLong USER_SEQUENCE = new AtomicLong();
+    private static final AtomicLong POLICY_SEQUENCE = new AtomicLong();
+    // Policies for the bulk store get IDs of their own (POL_B...), see generateBulkPolicies
+    private static final AtomicLong BULK_POLICY_SEQUENCE = new AtomicLong();
+    private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<>();
+    // Inserted after the ID prefix, e.g. POL_S1-0000002S on shard 1; empty for a single JVM
+    private static final String RUN_TAG = runTag();
+    
+    private static volatile long seed;
+    private static volatile int epoch;
+    private static SplittableRandom threadRoot;
+    private static SplittableRandom batchRoot;
+    
+    static {
+        String configuredSeed = ConfigReader.getSetting("testdata.seed", "");
+        reseed(configuredSeed.isEmpty() ? new SplittableRandom().nextLong() : Long.parseLong(configuredSeed));
+    }
     
     // Data arrays for generating realistic test data
     private static final String[] FIRST_NAMES = {
@@ -41,6 +84,11 @@ public class TestDataFactory {
         "Business Insurance", "Travel Insurance", "Pet Insurance", "Renters Insurance"
     };
     
+    private static final String[] PASSWORDS = {
+        "Password123!", "SecurePass1!", "TestPass99!", "MyPass456!",
+        "StrongPwd1!", "SafeCode123!", "TestUser1!", "ValidPass9!"
+    };
+    
     private static final String[] POLICY_STATUSES = {
         "ACTIVE", "EXPIRED", "PENDING", "CANCELLED"
     };
@@ -77,15 +125,17 @@ public class TestDataFactory {
         String username = generateUsername(firstName, lastName);
         String email = generateEmail(firstName, lastName);
         String password = generatePassword();
-        String userId = "USER_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String userId = nextId("USER_", USER_SEQUENCE);
         
         UserModel user = new UserModel(userId, username, password, firstName, lastName, email);
         user.setRole(role != null ? role : getRandomRole());
-        user.setValid(random.nextBoolean() || role != null); // Bias towards valid users when role is specified
-        user.setLocked(random.nextDouble() < 0.1); // 10% chance of being locked
+        user.setValid(random().nextBoolean() || role != null); // Bias towards valid users when role is specified
+        user.setLocked(random().nextDouble() < 0.1); // 10% chance of being locked
         user.setDescription("Randomly generated test user");
         
-        logger.debug("Generated random user: {}", user.getSummary());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Generated random user: {}", user.getSummary());
+        }
         return user;
     }
     
@@ -136,7 +186,7 @@ public class TestDataFactory {
      */
     public static PolicyModel generateRandomPolicy(String type) {
         String policyType = type != null ? type : getRandomPolicyType();
-        String policyId = "POL_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String policyId = nextId("POL_", POLICY_SEQUENCE);
         String policyNumber = generatePolicyNumber(policyType);
         String status = getRandomPolicyStatus();
         
@@ -154,32 +204,32 @@ public class TestDataFactory {
         // Generate dates
         LocalDate effectiveDate = generateEffectiveDate();
         LocalDate expirationDate = effectiveDate.plusYears(1);
-        policy.setEffectiveDate(effectiveDate.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
-        policy.setExpirationDate(expirationDate.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
+        policy.setEffectiveDate(effectiveDate.format(DATE_FORMAT));
+        policy.setExpirationDate(expirationDate.format(DATE_FORMAT));
         
         // Generate insured name
         policy.setInsuredName(getRandomFirstName() + " " + getRandomLastName());
         
         // Set agent ID
-        policy.setAgentId("AGT" + String.format("%03d", random.nextInt(999) + 1));
+        policy.setAgentId(padded("AGT", random().nextInt(999) + 1, 3));
         
         // Set auto renewal (80% chance)
-        policy.setAutoRenewal(random.nextDouble() < 0.8);
+        policy.setAutoRenewal(random().nextDouble() < 0.8);
         
         policy.setDescription("Randomly generated test policy");
         
         // Add some claims and documents for variety
-        if (random.nextDouble() < 0.3) { // 30% chance of having claims
-            int numClaims = random.nextInt(3) + 1;
+        if (random().nextDouble() < 0.3) { // 30% chance of having claims
+            int numClaims = random().nextInt(3) + 1;
             for (int i = 0; i < numClaims; i++) {
-                policy.addClaimId("CLM_" + UUID.randomUUID().toString().substring(0, 6).toUpperCase());
+                policy.addClaimId("CLM_" + idSuffix(policyId) + "_" + (i + 1));
             }
         }
         
         // Always add at least one document
-        int numDocs = random.nextInt(3) + 1;
+        int numDocs = random().nextInt(3) + 1;
         for (int i = 0; i < numDocs; i++) {
-            policy.addDocumentId("DOC_" + UUID.randomUUID().toString().substring(0, 6).toUpperCase());
+            policy.addDocumentId("DOC_" + idSuffix(policyId) + "_" + (i + 1));
         }
         
         // Add beneficiaries for life insurance
@@ -188,7 +238,9 @@ public class TestDataFactory {
             policy.addBeneficiary(getRandomFirstName() + " " + getRandomLastName() + " (Child) - 40%");
         }
         
-        logger.debug("Generated random policy: {}", policy.getSummary());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Generated random policy: {}", policy.getSummary());
+        }
         return policy;
     }
     
@@ -209,8 +261,8 @@ public class TestDataFactory {
         // Set dates in the past
         LocalDate effectiveDate = LocalDate.now().minusYears(2);
         LocalDate expirationDate = LocalDate.now().minusYears(1);
-        policy.setEffectiveDate(effectiveDate.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
-        policy.setExpirationDate(expirationDate.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
+        policy.setEffectiveDate(effectiveDate.format(DATE_FORMAT));
+        policy.setExpirationDate(expirationDate.format(DATE_FORMAT));
         
         policy.setDescription("Generated expired policy for testing");
         return policy;
@@ -221,10 +273,10 @@ public class TestDataFactory {
         policy.setStatus("PENDING");
         
         // Set future effective date
-        LocalDate effectiveDate = LocalDate.now().plusDays(random.nextInt(30) + 1);
+        LocalDate effectiveDate = LocalDate.now().plusDays(random().nextInt(30) + 1);
         LocalDate expirationDate = effectiveDate.plusYears(1);
-        policy.setEffectiveDate(effectiveDate.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
-        policy.setExpirationDate(expirationDate.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
+        policy.setEffectiveDate(effectiveDate.format(DATE_FORMAT));
+        policy.setExpirationDate(expirationDate.format(DATE_FORMAT));
         
         policy.setDescription("Generated pending policy for testing");
         return policy;
@@ -256,42 +308,38 @@ public class TestDataFactory {
     
     // Utility methods for data generation
     private static String getRandomFirstName() {
-        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        return FIRST_NAMES[random().nextInt(FIRST_NAMES.length)];
     }
     
     private static String getRandomLastName() {
-        return LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return LAST_NAMES[random().nextInt(LAST_NAMES.length)];
     }
     
     private static String generateUsername(String firstName, String lastName) {
-        return (firstName.toLowerCase() + "." + lastName.toLowerCase() + random.nextInt(100))
-            .replaceAll("[^a-zA-Z0-9.]", "");
+        // Names come from the fixed arrays above and contain letters only
+        return firstName.toLowerCase(Locale.ROOT) + "." + lastName.toLowerCase(Locale.ROOT) + random().nextInt(100);
     }
     
     private static String generateEmail(String firstName, String lastName) {
-        String domain = EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)];
+        String domain = EMAIL_DOMAINS[random().nextInt(EMAIL_DOMAINS.length)];
         return generateUsername(firstName, lastName) + "@" + domain;
     }
     
     private static String generatePassword() {
-        String[] passwords = {
-            "Password123!", "SecurePass1!", "TestPass99!", "MyPass456!",
-            "StrongPwd1!", "SafeCode123!", "TestUser1!", "ValidPass9!"
-        };
-        return passwords[random.nextInt(passwords.length)];
+        return PASSWORDS[random().nextInt(PASSWORDS.length)];
     }
     
     private static String getRandomRole() {
-        return random.nextDouble() < 0.1 ? "ADMIN" : "USER"; // 10% chance of admin
+        return random().nextDouble() < 0.1 ? "ADMIN" : "USER"; // 10% chance of admin
     }
     
     private static String getRandomPolicyType() {
-        return POLICY_TYPES[random.nextInt(POLICY_TYPES.length)];
+        return POLICY_TYPES[random().nextInt(POLICY_TYPES.length)];
     }
     
     private static String getRandomPolicyStatus() {
         // Bias towards active policies
-        double rand = random.nextDouble();
+        double rand = random().nextDouble();
         if (rand < 0.6) return "ACTIVE";
         if (rand < 0.8) return "EXPIRED";
         if (rand < 0.95) return "PENDING";
@@ -301,20 +349,20 @@ public class TestDataFactory {
     private static String generatePolicyNumber(String policyType) {
         String prefix = policyType.substring(0, Math.min(4, policyType.length())).toUpperCase().replaceAll("[^A-Z]", "");
         int year = LocalDate.now().getYear();
-        int number = random.nextInt(999) + 1;
-        return String.format("%s-%d-%03d", prefix, year, number);
+        int number = random().nextInt(999) + 1;
+        return padded(prefix + "-" + year + "-", number, 3);
     }
     
     private static String getCategoryForType(String policyType) {
         switch (policyType) {
             case "Auto Insurance":
-                return AUTO_CATEGORIES[random.nextInt(AUTO_CATEGORIES.length)];
+                return AUTO_CATEGORIES[random().nextInt(AUTO_CATEGORIES.length)];
             case "Home Insurance":
-                return HOME_CATEGORIES[random.nextInt(HOME_CATEGORIES.length)];
+                return HOME_CATEGORIES[random().nextInt(HOME_CATEGORIES.length)];
             case "Life Insurance":
-                return LIFE_CATEGORIES[random.nextInt(LIFE_CATEGORIES.length)];
+                return LIFE_CATEGORIES[random().nextInt(LIFE_CATEGORIES.length)];
             case "Health Insurance":
-                return HEALTH_CATEGORIES[random.nextInt(HEALTH_CATEGORIES.length)];
+                return HEALTH_CATEGORIES[random().nextInt(HEALTH_CATEGORIES.length)];
             default:
                 return "Standard";
         }
@@ -324,33 +372,33 @@ public class TestDataFactory {
         switch (policyType) {
             case "Auto Insurance":
                 return new PolicyAmounts(
-                    new BigDecimal(800 + random.nextInt(1200)), // Premium: $800-2000
-                    new BigDecimal(25000 + random.nextInt(75000)), // Coverage: $25k-100k
-                    new BigDecimal(250 + random.nextInt(1750)) // Deductible: $250-2000
+                    new BigDecimal(800 + random().nextInt(1200)), // Premium: $800-2000
+                    new BigDecimal(25000 + random().nextInt(75000)), // Coverage: $25k-100k
+                    new BigDecimal(250 + random().nextInt(1750)) // Deductible: $250-2000
                 );
             case "Home Insurance":
                 return new PolicyAmounts(
-                    new BigDecimal(600 + random.nextInt(1400)), // Premium: $600-2000
-                    new BigDecimal(100000 + random.nextInt(400000)), // Coverage: $100k-500k
-                    new BigDecimal(500 + random.nextInt(2500)) // Deductible: $500-3000
+                    new BigDecimal(600 + random().nextInt(1400)), // Premium: $600-2000
+                    new BigDecimal(100000 + random().nextInt(400000)), // Coverage: $100k-500k
+                    new BigDecimal(500 + random().nextInt(2500)) // Deductible: $500-3000
                 );
             case "Life Insurance":
                 return new PolicyAmounts(
-                    new BigDecimal(1200 + random.nextInt(3800)), // Premium: $1200-5000
-                    new BigDecimal(100000 + random.nextInt(900000)), // Coverage: $100k-1M
+                    new BigDecimal(1200 + random().nextInt(3800)), // Premium: $1200-5000
+                    new BigDecimal(100000 + random().nextInt(900000)), // Coverage: $100k-1M
                     BigDecimal.ZERO // No deductible for life insurance
                 );
             case "Health Insurance":
                 return new PolicyAmounts(
-                    new BigDecimal(2400 + random.nextInt(4800)), // Premium: $2400-7200
-                    new BigDecimal(50000 + random.nextInt(150000)), // Coverage: $50k-200k
-                    new BigDecimal(1000 + random.nextInt(4000)) // Deductible: $1000-5000
+                    new BigDecimal(2400 + random().nextInt(4800)), // Premium: $2400-7200
+                    new BigDecimal(50000 + random().nextInt(150000)), // Coverage: $50k-200k
+                    new BigDecimal(1000 + random().nextInt(4000)) // Deductible: $1000-5000
                 );
             default:
                 return new PolicyAmounts(
-                    new BigDecimal(500 + random.nextInt(2000)), // Premium: $500-2500
-                    new BigDecimal(10000 + random.nextInt(90000)), // Coverage: $10k-100k
-                    new BigDecimal(250 + random.nextInt(1250)) // Deductible: $250-1500
+                    new BigDecimal(500 + random().nextInt(2000)), // Premium: $500-2500
+                    new BigDecimal(10000 + random().nextInt(90000)), // Coverage: $10k-100k
+                    new BigDecimal(250 + random().nextInt(1250)) // Deductible: $250-1500
                 );
         }
     }
@@ -358,7 +406,7 @@ public class TestDataFactory {
     private static LocalDate generateEffectiveDate() {
         // Generate date within last 2 years to current date + 6 months
         int daysRange = 365 * 2 + 180; // 2.5 years range
-        int daysFromNow = random.nextInt(daysRange) - (365 * 2); // Can be negative (past) or positive (future)
+        int daysFromNow = random().nextInt(daysRange) - (365 * 2); // Can be negative (past) or positive (future)
         return LocalDate.now().plusDays(daysFromNow);
     }
     
@@ -371,13 +419,12 @@ public class TestDataFactory {
             throw new IllegalArgumentException("Count must be positive");
         }
         
-        UserModel[] users = new UserModel[count];
-        for (int i = 0; i < count; i++) {
-            users[i] = generateRandomUser();
-        }
+        long start = System.nanoTime();
+        List<UserModel> users = new ArrayList<>(count);
+        generateInBatches(count, DEFAULT_BATCH_SIZE, USER_SEQUENCE, "", TestDataFactory::generateRandomUser, users::addAll);
         
-        logger.info("Generated {} random users", count);
-        return users;
+        logger.info("Generated {} random users in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        return users.toArray(new UserModel[0]);
     }
     
     public static PolicyModel[] generateMultiplePolicies(int count) {
@@ -386,13 +433,77 @@ public class TestDataFactory {
             throw new IllegalArgumentException("Count must be positive");
         }
         
-        PolicyModel[] policies = new PolicyModel[count];
-        for (int i = 0; i < count; i++) {
-            policies[i] = generateRandomPolicy();
+        long start = System.nanoTime();
+        List<PolicyModel> policies = new ArrayList<>(count);
+        generateInBatches(count, DEFAULT_BATCH_SIZE, POLICY_SEQUENCE, "", TestDataFactory::generateRandomPolicy, policies::addAll);
+        
+        logger.info("Generated {} random policies in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        return policies.toArray(new PolicyModel[0]);
+    }
+    
+    /**
+     * Generate policies for the bulk store, handing them to the sink one batch at a time (in order, on the
+     * calling thread) so only a few batches exist as objects at once. Their IDs (POL_B...) come from a
+     * sequence of their own, which a loaded snapshot of bulk policies advances with reserveBulkPolicyIds
+     */
+    public static void generateBulkPolicies(int count, int batchSize, Consumer<List<PolicyModel>> sink) {
+        ErrorHandler.validateNotNull(sink, "sink");
+        if (count < 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Count must not be negative and batch size must be positive");
         }
         
-        logger.info("Generated {} random policies", count);
-        return policies;
+        long start = System.nanoTime();
+        generateInBatches(count, batchSize, BULK_POLICY_SEQUENCE, "B", TestDataFactory::generateRandomPolicy, sink);
+        
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        logger.info("Generated {} bulk policies in {} ms ({} policies/s, seed {})", 
+                   count, elapsedNanos / 1_000_000, count * 1_000_000_000L / elapsedNanos, seed);
+    }
+    
+    /**
+     * Skip the bulk policy IDs held by a snapshot loaded instead of generating, so later bulk policies
+     * do not reuse them
+     */
+    public static void reserveBulkPolicyIds(int count) {
+        BULK_POLICY_SEQUENCE.accumulateAndGet(count, Math::max);
+    }
+    
+    /**
+     * Seed all test data randomness derives from; rerun with -Dtestdata.seed=&lt;seed&gt; to get the same data
+     */
+    public static long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Restart all random streams from a seed. IDs continue from their sequences so they stay unique;
+     * a new JVM with the same seed reproduces IDs as well, when it generates in the same order
+     */
+    public static synchronized void reseed(long newSeed) {
+        SplittableRandom root = new SplittableRandom(newSeed);
+        seed = newSeed;
+        threadRoot = root.split();
+        batchRoot = root.split();
+        epoch++;
+        logger.info("Test data seed: {} (set testdata.seed={} to reproduce this data)", newSeed, newSeed);
+    }
+    
+    /**
+     * Draw the current thread's data from a stream derived from the seed and a stable scenario ID
+     * (e.g. "features/login.feature:12") until endScenario, so rerunning the scenario alone with the
+     * logged seed gives it the same values; IDs still come from the run's sequences
+     */
+    public static void beginScenario(String scenarioId) {
+        ErrorHandler.validateNotEmpty(scenarioId, "scenario id");
+        CONTEXT.set(scenarioContext(scenarioId));
+        logger.debug("Test data for {} derived from seed {}", scenarioId, seed);
+    }
+    
+    /**
+     * Go back to the thread's own stream at scenario teardown
+     */
+    public static void endScenario() {
+        CONTEXT.remove();
     }
     
     public static UserModel[] generateUsersWithRoles(int userCount, int adminCount) {
@@ -428,13 +539,11 @@ public class TestDataFactory {
             throw new IllegalArgumentException("Count must be positive");
         }
         
-        PolicyModel[] policies = new PolicyModel[count];
-        for (int i = 0; i < count; i++) {
-            policies[i] = generateRandomPolicy(policyType);
-        }
+        List<PolicyModel> policies = new ArrayList<>(count);
+        generateInBatches(count, DEFAULT_BATCH_SIZE, POLICY_SEQUENCE, "", () -> generateRandomPolicy(policyType), policies::addAll);
         
         logger.info("Generated {} {} policies", count, policyType);
-        return policies;
+        return policies.toArray(new PolicyModel[0]);
     }
     
     /**
@@ -475,11 +584,191 @@ public class TestDataFactory {
         
         if (minPremium != null && maxPremium != null) {
             BigDecimal range = maxPremium.subtract(minPremium);
-            BigDecimal randomAmount = minPremium.add(range.multiply(new BigDecimal(random.nextDouble())));
+            BigDecimal randomAmount = minPremium.add(range.multiply(new BigDecimal(random().nextDouble())));
             policy.setPremiumAmount(randomAmount);
         }
         
         policy.setDescription("Generated policy with specific constraints");
         return policy;
     }
+    
+    /**
+     * Generate count items in batches on up to testdata.generate.threads workers (0 = one per core) and
+     * hand each batch to the sink in order, on the calling thread. ID ranges and random streams are
+     * assigned to the batches up front, so the result for a seed does not depend on scheduling; at most
+     * two batches per worker are held at a time
+     */
+    private static <T> void generateInBatches(int count, int batchSize, AtomicLong sequence, String idMarker,
+                                              Supplier<T> generator, Consumer<List<T>> sink) {
+        int batches = (int) ((count + (long) batchSize - 1) / batchSize);
+        long firstId = sequence.getAndAdd(count) + 1;
+        SplittableRandom[] randoms = new SplittableRandom[batches];
+        synchronized (TestDataFactory.class) {
+            for (int i = 0; i < batches; i++) {
+                randoms[i] = batchRoot.split();
+            }
+        }
+        
+        int threads = generatorThreads(batches);
+        if (threads == 1) {
+            for (int i = 0; i < batches; i++) {
+                sink.accept(generateBatch(i, count, batchSize, firstId, idMarker, randoms[i], generator));
+            }
+            return;
+        }
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "testdata-generator-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<List<T>>> pending = new ArrayDeque<>();
+            int submitted = 0;
+            while (submitted < batches || !pending.isEmpty()) {
+                while (submitted < batches && pending.size() < threads * 2) {
+                    int batch = submitted++;
+                    pending.add(workers.submit(() -> 
+                        generateBatch(batch, count, batchSize, firstId, idMarker, randoms[batch], generator)));
+                }
+                sink.accept(pending.poll().get());
+            }
+        } catch (ExecutionException e) {
+            throw new TestDataException("Failed to generate test data batch", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TestDataException("Interrupted while generating test data");
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+    
+    private static <T> List<T> generateBatch(int batch, int count, int batchSize, long firstId, String idMarker,
+                                             SplittableRandom batchRandom, Supplier<T> generator) {
+        int from = batch * batchSize;
+        int size = Math.min(batchSize, count - from);
+        Context previous = CONTEXT.get();
+        CONTEXT.set(new Context(batchRandom, epoch, idMarker, firstId + from, null));
+        try {
+            List<T> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(generator.get());
+            }
+            return items;
+        } finally {
+            if (previous != null) {
+                CONTEXT.set(previous);
+            } else {
+                CONTEXT.remove();
+            }
+        }
+    }
+    
+    private static int generatorThreads(int batches) {
+        String configured = ConfigReader.getSetting("testdata.generate.threads", "0");
+        int threads = Integer.parseInt(configured);
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(1, Math.min(threads, batches));
+    }
+    
+    /**
+     * Random stream of the current batch or scenario, or of the current thread (split off the seed on first use)
+     */
+    private static SplittableRandom random() {
+        return context().random;
+    }
+    
+    private static Context context() {
+        Context context = CONTEXT.get();
+        if (context == null || (context.nextId < 0 && context.epoch != epoch)) {
+            if (context != null && context.scenarioId != null) {
+                context = scenarioContext(context.scenarioId);
+            } else {
+                synchronized (TestDataFactory.class) {
+                    context = new Context(threadRoot.split(), epoch, "", -1, null);
+                }
+            }
+            CONTEXT.set(context);
+        }
+        return context;
+    }
+    
+    /**
+     * Stream of a scenario: the seed mixed with a 64-bit FNV-1a hash of the scenario ID (String.hashCode
+     * has only 32 bits), then split so nearby seeds do not give overlapping streams
+     */
+    private static synchronized Context scenarioContext(String scenarioId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < scenarioId.length(); i++) {
+            hash ^= scenarioId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return new Context(new SplittableRandom(seed ^ hash).split(), epoch, "", -1, scenarioId);
+    }
+    
+    /**
+     * Next ID of a sequence, e.g. POL_0000002S; within a batch from the batch's range
+     */
+    private static String nextId(String prefix, AtomicLong sequence) {
+        Context context = context();
+        long number = context.nextId >= 0 ? context.nextId++ : sequence.incrementAndGet();
+        return padded(prefix + RUN_TAG + context.idMarker, number, ID_DIGITS, 36);
+    }
+    
+    /**
+     * testdata.id.run, or "S" and the shard index on a shard, as an ID prefix ("S1-")
+     */
+    private static String runTag() {
+        String tag = ConfigReader.getSetting("testdata.id.run", "");
+        if (tag.isEmpty()) {
+            String shardIndex = System.getProperty("shard.index", "").trim();
+            tag = shardIndex.isEmpty() ? "" : "S" + shardIndex;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (!Character.isLetterOrDigit(tag.charAt(i))) {
+                throw new TestDataException("Invalid testdata.id.run '" + tag + "': use letters and digits only");
+            }
+        }
+        return tag.isEmpty() ? "" : tag.toUpperCase(Locale.ROOT) + "-";
+    }
+    
+    private static String idSuffix(String id) {
+        return id.substring(id.indexOf('_') + 1);
+    }
+    
+    private static String padded(String prefix, long number, int width) {
+        return padded(prefix, number, width, 10);
+    }
+    
+    private static String padded(String prefix, long number, int width, int radix) {
+        String digits = Long.toString(number, radix).toUpperCase(Locale.ROOT);
+        StringBuilder text = new StringBuilder(prefix.length() + Math.max(width, digits.length())).append(prefix);
+        for (int i = digits.length(); i < width; i++) {
+            text.append('0');
+        }
+        return text.append(digits).toString();
+    }
+    
+    /**
+     * Random stream and ID source of one thread, scenario or batch; nextId is -1 when IDs come from the
+     * shared sequences, scenarioId is null outside a scenario
+     */
+    private static final class Context {
+        final SplittableRandom random;
+        final int epoch;
+        final String idMarker;
+        final String scenarioId;
+        long nextId;
+        
+        Context(SplittableRandom random, int epoch, String idMarker, long nextId, String scenarioId) {
+            this.random = random;
+            this.epoch = epoch;
+            this.idMarker = idMarker;
+            this.nextId = nextId;
+            this.scenarioId = scenarioId;
+        }
+    }
 }
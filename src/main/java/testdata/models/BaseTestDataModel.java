@@ -1,12 +1,18 @@
 package testdata.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import exceptions.TestDataException;
 import utils.ErrorHandler;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Base model class for all test data entities
@@ -14,6 +20,8 @@ import java.util.Objects;
  */
 public abstract class BaseTestDataModel {
     
+    private static volatile CurrentDate currentDate = new CurrentDate(LocalDate.now());
+    
     @JsonProperty("id")
     protected String id;
     
@@ -29,6 +37,17 @@ public abstract class BaseTestDataModel {
     @JsonProperty("description")
     protected String description;
     
+    // Bumped by every change, so a validation result is reused until the model changes
+    @JsonIgnore
+    private transient volatile int version;
+    
+    @JsonIgnore
+    private transient volatile ValidationResult validation;
+    
+    // Told about every change while the model is held in the TestDataManager cache, so its indexes follow
+    @JsonIgnore
+    private transient volatile Consumer<BaseTestDataModel> changeListener;
+    
     public BaseTestDataModel() {
         this.createdDate = getCurrentDate();
         this.modifiedDate = getCurrentDate();
@@ -47,7 +66,7 @@ public abstract class BaseTestDataModel {
     public void setId(String id) {
         ErrorHandler.validateNotEmpty(id, "ID");
         this.id = id;
-        this.modifiedDate = getCurrentDate();
+        setModifiedDate(getCurrentDate());
     }
     
     public String getCreatedDate() {
@@ -64,6 +83,20 @@ public abstract class BaseTestDataModel {
     
     public void setModifiedDate(String modifiedDate) {
         this.modifiedDate = modifiedDate;
+        version++;
+        Consumer<BaseTestDataModel> listener = changeListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+    
+    /**
+     * Listener called after every change of this model, null to remove; set by TestDataManager while
+     * the model is cached
+     */
+    @JsonIgnore
+    public void setChangeListener(Consumer<BaseTestDataModel> changeListener) {
+        this.changeListener = changeListener;
     }
     
     public boolean isActive() {
@@ -72,7 +105,7 @@ public abstract class BaseTestDataModel {
     
     public void setActive(boolean active) {
         isActive = active;
-        this.modifiedDate = getCurrentDate();
+        setModifiedDate(getCurrentDate());
     }
     
     public String getDescription() {
@@ -81,18 +114,72 @@ public abstract class BaseTestDataModel {
     
     public void setDescription(String description) {
         this.description = description;
-        this.modifiedDate = getCurrentDate();
+        setModifiedDate(getCurrentDate());
     }
     
     // Utility methods
     protected String getCurrentDate() {
-        return LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        // Every setter stamps the modified date; format once per day instead of per call
+        CurrentDate current = currentDate;
+        if (System.currentTimeMillis() >= current.nextDayMillis) {
+            current = new CurrentDate(LocalDate.now());
+            currentDate = current;
+        }
+        return current.formatted;
+    }
+    
+    private static final class CurrentDate {
+        final String formatted;
+        final long nextDayMillis;
+        
+        CurrentDate(LocalDate date) {
+            this.formatted = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
+            this.nextDayMillis = date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+    
+    /**
+     * Validate the model, reporting all of its errors rather than the first
+     */
+    public void validate() throws TestDataException {
+        List<String> errors = validationErrors();
+        if (!errors.isEmpty()) {
+            throw new TestDataException(getClass().getSimpleName().replace("Model", ""), "validation",
+                                        String.join("; ", errors));
+        }
     }
     
     /**
-     * Validate the model - to be implemented by subclasses
+     * All validation errors of the model, empty when it is valid. The result is kept until the model
+     * changes, so validating unchanged data again (bulk adds, then validateTestData) costs nothing
      */
-    public abstract void validate() throws TestDataException;
+    public List<String> validationErrors() {
+        int current = version;
+        ValidationResult result = validation;
+        if (result == null || result.version != current) {
+            List<String> errors = new ArrayList<>();
+            collectValidationErrors(errors);
+            result = new ValidationResult(current, errors.isEmpty() ? Collections.<String>emptyList()
+                                                                    : Collections.unmodifiableList(errors));
+            validation = result;
+        }
+        return result.errors;
+    }
+    
+    /**
+     * Add a message for each invalid field - to be implemented by subclasses
+     */
+    protected abstract void collectValidationErrors(List<String> errors);
+    
+    private static final class ValidationResult {
+        final int version;
+        final List<String> errors;
+        
+        ValidationResult(int version, List<String> errors) {
+            this.version = version;
+            this.errors = errors;
+        }
+    }
     
     /**
      * Get a summary of the model for logging purposes
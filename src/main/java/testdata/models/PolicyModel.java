@@ -15,6 +15,8 @@ import java.util.List;
  */
 public class PolicyModel extends BaseTestDataModel {
     
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    
     @JsonProperty("policyNumber")
     private String policyNumber;
     
@@ -316,7 +318,7 @@ public class PolicyModel extends BaseTestDataModel {
     private void updateExpiryWarning() {
         if (expirationDate != null && !expirationDate.trim().isEmpty()) {
             try {
-                LocalDate expiry = LocalDate.parse(expirationDate, DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+                LocalDate expiry = LocalDate.parse(expirationDate, DATE_FORMAT);
                 LocalDate warningDate = LocalDate.now().plusDays(30);
                 this.hasExpiryWarning = expiry.isBefore(warningDate);
             } catch (Exception e) {
@@ -327,33 +329,33 @@ public class PolicyModel extends BaseTestDataModel {
     }
     
     @Override
-    public void validate() throws TestDataException {
+    protected void collectValidationErrors(List<String> errors) {
         if (policyNumber == null || policyNumber.trim().isEmpty()) {
-            throw new TestDataException("Policy", "validation", "Policy number is required");
+            errors.add("Policy number is required");
         }
         
         if (status == null || status.trim().isEmpty()) {
-            throw new TestDataException("Policy", "validation", "Policy status is required");
+            errors.add("Policy status is required");
         }
         
         if (type == null || type.trim().isEmpty()) {
-            throw new TestDataException("Policy", "validation", "Policy type is required");
+            errors.add("Policy type is required");
         }
         
         if (insuredName == null || insuredName.trim().isEmpty()) {
-            throw new TestDataException("Policy", "validation", "Insured name is required");
+            errors.add("Insured name is required");
         }
         
         if (premiumAmount != null && premiumAmount.compareTo(BigDecimal.ZERO) < 0) {
-            throw new TestDataException("Policy", "validation", "Premium amount cannot be negative");
+            errors.add("Premium amount cannot be negative");
         }
         
         if (coverageAmount != null && coverageAmount.compareTo(BigDecimal.ZERO) < 0) {
-            throw new TestDataException("Policy", "validation", "Coverage amount cannot be negative");
+            errors.add("Coverage amount cannot be negative");
         }
         
         if (deductible != null && deductible.compareTo(BigDecimal.ZERO) < 0) {
-            throw new TestDataException("Policy", "validation", "Deductible cannot be negative");
+            errors.add("Deductible cannot be negative");
         }
     }
     
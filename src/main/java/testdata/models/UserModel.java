@@ -1,9 +1,10 @@
 package testdata.models;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import exceptions.TestDataException;
 import utils.ErrorHandler;
 
+import java.util.List;
+
 /**
  * User test data model for authentication and user management testing
  */
@@ -184,21 +185,21 @@ public class UserModel extends BaseTestDataModel {
     }
     
     @Override
-    public void validate() throws TestDataException {
+    protected void collectValidationErrors(List<String> errors) {
         if (username == null || username.trim().isEmpty()) {
-            throw new TestDataException("User", "validation", "Username is required");
+            errors.add("Username is required");
         }
         
         if (password == null || password.trim().isEmpty()) {
-            throw new TestDataException("User", "validation", "Password is required");
+            errors.add("Password is required");
         }
         
         if (email != null && !email.trim().isEmpty() && !isValidEmail(email)) {
-            throw new TestDataException("User", "validation", "Invalid email format: " + email);
+            errors.add("Invalid email format: " + email);
         }
         
         if (role == null || role.trim().isEmpty()) {
-            throw new TestDataException("User", "validation", "Role is required");
+            errors.add("Role is required");
         }
     }
     
@@ -0,0 +1,1156 @@
+package testdata.providers;
+
+import exceptions.TestDataException;
+import testdata.models.PolicyModel;
+import utils.ErrorHandler;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Column-oriented store for bulk policy data: one primitive array per field instead of one PolicyModel
+ * (with BigDecimals, date strings and three ArrayLists) per policy
+ *
+ * Amounts are stored as long cents, dates as epoch days, repeating strings (status, type, category,
+ * insured name, agent) as int codes into per-column dictionaries, and claim/document/beneficiary lists
+ * as one joined string per row. Queries scan the arrays and only build PolicyModel objects for matches;
+ * {@link Row} is a flyweight view for custom filters. Amounts are rounded to cents
+ */
+public class PolicyColumnStore {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final long NULL_AMOUNT = Long.MIN_VALUE;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final int NULL_CODE = -1;
+    private static final char LIST_SEPARATOR = '\u001F';
+
+    // Snapshot header: magic, format version, rows, reserved, created millis, payload length, CRC32C
+    private static final int SNAPSHOT_MAGIC = 0x504F4C53;
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int SNAPSHOT_HEADER_SIZE = 40;
+
+    private static final byte AUTO_RENEWAL = 1;
+    private static final byte EXPIRY_WARNING = 2;
+    private static final byte REMOVED = 4;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Rows added since the last snapshot load; snapshot rows are found in snapshotRowsById
+    private final Map<String, Integer> rowsById = new HashMap<>();
+    // Snapshot rows ordered by ID, read from the mapping and binary-searched; null without a snapshot
+    private IntBuffer snapshotRowsById;
+
+    private final Dictionary statuses = new Dictionary();
+    private final Dictionary types = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary insuredNames = new Dictionary();
+    private final Dictionary agents = new Dictionary();
+    private final Dictionary descriptions = new Dictionary();
+    private final Dictionary auditDates = new Dictionary();
+    // Dates that are not MM/dd/yyyy, kept verbatim by row
+    private final Map<Integer, String> rawEffectiveDates = new HashMap<>();
+    private final Map<Integer, String> rawExpirationDates = new HashMap<>();
+
+    private int size;
+    private int removed;
+    private final StringColumn ids = new StringColumn();
+    private final StringColumn policyNumbers = new StringColumn();
+    private int[] status = new int[0];
+    private int[] type = new int[0];
+    private int[] category = new int[0];
+    private int[] insuredName = new int[0];
+    private int[] agent = new int[0];
+    private int[] description = new int[0];
+    private int[] createdDate = new int[0];
+    private int[] modifiedDate = new int[0];
+    private long[] premiumCents = new long[0];
+    private long[] coverageCents = new long[0];
+    private long[] deductibleCents = new long[0];
+    private int[] effectiveDay = new int[0];
+    private int[] expirationDay = new int[0];
+    private byte[] flags = new byte[0];
+    private final StringColumn claimIds = new StringColumn();
+    private final StringColumn documentIds = new StringColumn();
+    private final StringColumn beneficiaries = new StringColumn();
+
+    /**
+     * Add a policy; a policy with the same ID is replaced
+     */
+    public void add(PolicyModel policy) {
+        addAll(Collections.singletonList(policy));
+    }
+
+    public void addAll(Collection<PolicyModel> policies) {
+        ErrorHandler.validateNotNull(policies, "policies");
+        // Validate before taking the write lock, so queries are not blocked while the batch is checked
+        for (PolicyModel policy : policies) {
+            ErrorHandler.validateNotNull(policy, "policy");
+            policy.validate();
+        }
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(size + policies.size());
+            for (PolicyModel policy : policies) {
+                Integer row = rowOf(policy.getId());
+                if (row == null) {
+                    row = size++;
+                    rowsById.put(policy.getId(), row);
+                }
+                write(row, policy);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace a stored policy; returns false if the ID is not in this store
+     */
+    public boolean update(PolicyModel policy) {
+        ErrorHandler.validateNotNull(policy, "policy");
+        policy.validate();
+        lock.writeLock().lock();
+        try {
+            Integer row = rowOf(policy.getId());
+            if (row == null) {
+                return false;
+            }
+            write(row, policy);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mark a policy as removed; its row is skipped by all queries
+     */
+    public boolean remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowOf(id);
+            if (row == null) {
+                return false;
+            }
+            rowsById.remove(id);
+            flags[row] |= REMOVED;
+            removed++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rowsById.clear();
+            snapshotRowsById = null;
+            rawEffectiveDates.clear();
+            rawExpirationDates.clear();
+            for (Dictionary dictionary : dictionaries()) {
+                dictionary.clear();
+            }
+            size = 0;
+            removed = 0;
+            ensureCapacity(0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String id) {
+        lock.readLock().lock();
+        try {
+            return rowOf(id) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a policy as a new PolicyModel; changes to it are stored with {@link #update}
+     */
+    public PolicyModel get(String id) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowOf(id);
+            return row != null ? toModel(row) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<PolicyModel> getAll() {
+        return findWhere(row -> true);
+    }
+
+    public List<PolicyModel> findByStatus(String value) {
+        return findByCode(() -> status, statuses, value);
+    }
+
+    public List<PolicyModel> findByType(String value) {
+        return findByCode(() -> type, types, value);
+    }
+
+    public List<PolicyModel> findByCategory(String value) {
+        return findByCode(() -> category, categories, value);
+    }
+
+    public List<PolicyModel> findByInsuredName(String value) {
+        return findByCode(() -> insuredName, insuredNames, value);
+    }
+
+    public List<PolicyModel> findByAgentId(String value) {
+        return findByCode(() -> agent, agents, value);
+    }
+
+    /**
+     * Policies with min &lt;= premium &lt;= max (inclusive, compared in cents)
+     */
+    public List<PolicyModel> findByPremiumRange(BigDecimal min, BigDecimal max) {
+        long minCents = toCents(min);
+        long maxCents = toCents(max);
+        lock.readLock().lock();
+        try {
+            List<PolicyModel> result = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                long premium = premiumCents[row];
+                if (premium != NULL_AMOUNT && premium >= minCents && premium <= maxCents && isLive(row)) {
+                    result.add(toModel(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Policies whose row matches the filter; the Row passed to the filter is reused for every row
+     */
+    public List<PolicyModel> findWhere(Predicate<Row> filter) {
+        lock.readLock().lock();
+        try {
+            List<PolicyModel> result = new ArrayList<>();
+            Row cursor = new Row();
+            for (int row = 0; row < size; row++) {
+                if (isLive(row) && filter.test(cursor.moveTo(row))) {
+                    result.add(toModel(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every policy through one reused Row, e.g. to aggregate without building models
+     */
+    public void forEachRow(Consumer<Row> action) {
+        lock.readLock().lock();
+        try {
+            Row cursor = new Row();
+            for (int row = 0; row < size; row++) {
+                if (isLive(row)) {
+                    action.accept(cursor.moveTo(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts and premium total in one pass over the status, flag and premium columns
+     */
+    public PolicyDataProvider.PolicyStatistics getStatistics() {
+        lock.readLock().lock();
+        try {
+            boolean[] active = statuses.matching("ACTIVE");
+            boolean[] expired = statuses.matching("EXPIRED");
+            boolean[] pending = statuses.matching("PENDING");
+            boolean[] cancelled = statuses.matching("CANCELLED");
+            long activeCount = 0;
+            long expiredCount = 0;
+            long pendingCount = 0;
+            long cancelledCount = 0;
+            long withClaimsCount = 0;
+            long autoRenewalCount = 0;
+            long totalCents = 0;
+            for (int row = 0; row < size; row++) {
+                byte rowFlags = flags[row];
+                if ((rowFlags & REMOVED) != 0) {
+                    continue;
+                }
+                int code = status[row];
+                if (active[code]) {
+                    activeCount++;
+                } else if (expired[code]) {
+                    expiredCount++;
+                } else if (pending[code]) {
+                    pendingCount++;
+                } else if (cancelled[code]) {
+                    cancelledCount++;
+                }
+                if (!claimIds.isNull(row)) {
+                    withClaimsCount++;
+                }
+                if ((rowFlags & AUTO_RENEWAL) != 0) {
+                    autoRenewalCount++;
+                }
+                if (premiumCents[row] != NULL_AMOUNT) {
+                    totalCents += premiumCents[row];
+                }
+            }
+            return new PolicyDataProvider.PolicyStatistics(size - removed, activeCount, expiredCount, pendingCount,
+                cancelledCount, withClaimsCount, autoRenewalCount, BigDecimal.valueOf(totalCents, 2));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the live rows to a binary snapshot for {@link #loadSnapshot}; the file is written under a
+     * temporary name and moved into place, so forks reading an older snapshot are not disturbed
+     */
+    public void writeSnapshot(Path file) {
+        ErrorHandler.validateNotNull(file, "snapshot file");
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = null;
+        lock.readLock().lock();
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            int[] live = liveRows();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                SnapshotWriter out = new SnapshotWriter(channel);
+                for (Dictionary dictionary : dictionaries()) {
+                    out.putInt(dictionary.values.size());
+                    for (String value : dictionary.values) {
+                        out.putString(value);
+                    }
+                }
+                writeRawDates(out, rawEffectiveDates, live);
+                writeRawDates(out, rawExpirationDates, live);
+                // Column order must match loadSnapshot
+                for (int[] column : new int[][] {status, type, category, insuredName, agent, description,
+                                                 createdDate, modifiedDate, effectiveDay, expirationDay}) {
+                    out.align();
+                    for (int row : live) {
+                        out.putInt(column[row]);
+                    }
+                }
+                for (long[] column : new long[][] {premiumCents, coverageCents, deductibleCents}) {
+                    out.align();
+                    for (int row : live) {
+                        out.putLong(column[row]);
+                    }
+                }
+                out.align();
+                for (int row : live) {
+                    out.putByte(flags[row]);
+                }
+                for (StringColumn column : stringColumns()) {
+                    writeStrings(out, column, live);
+                }
+                out.align();
+                for (int snapshotRow : sortedById(live)) {
+                    out.putInt(snapshotRow);
+                }
+                long payloadLength = out.finish();
+                if (payloadLength > Integer.MAX_VALUE - SNAPSHOT_HEADER_SIZE) {
+                    throw new TestDataException("Policy", "writeSnapshot", "Snapshot exceeds 2 GB: " + file);
+                }
+                ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(live.length).putInt(0)
+                      .putLong(System.currentTimeMillis()).putLong(payloadLength).putLong(out.checksum());
+                header.flip();
+                channel.write(header, 0);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new TestDataException("Policy", "writeSnapshot", file + ": " + e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * Replace the contents with a snapshot written by {@link #writeSnapshot}. Fixed-width columns are
+     * copied out of the memory-mapped file in bulk; string columns stay in the mapping and are decoded
+     * on access, and lookups by ID binary-search the row order by ID stored in the snapshot
+     *
+     * @param verifyChecksum false skips the CRC32C pass over the whole file
+     * @return number of policies loaded
+     */
+    public int loadSnapshot(Path file, boolean verifyChecksum) {
+        ErrorHandler.validateNotNull(file, "snapshot file");
+        lock.writeLock().lock();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new TestDataException("Policy", "loadSnapshot", "Snapshot exceeds 2 GB: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            int rows = readHeader(file, buffer, channel.size());
+            long expectedChecksum = buffer.getLong(SNAPSHOT_HEADER_SIZE - Long.BYTES);
+            if (verifyChecksum && checksum(buffer) != expectedChecksum) {
+                throw new TestDataException("Policy", "loadSnapshot", "Checksum mismatch, snapshot is corrupt: " + file);
+            }
+            
+            clear();
+            buffer.position(SNAPSHOT_HEADER_SIZE);
+            for (Dictionary dictionary : dictionaries()) {
+                int count = buffer.getInt();
+                for (int code = 0; code < count; code++) {
+                    dictionary.encode(readString(buffer));
+                }
+            }
+            readRawDates(buffer, rawEffectiveDates);
+            readRawDates(buffer, rawExpirationDates);
+            status = readInts(buffer, rows);
+            type = readInts(buffer, rows);
+            category = readInts(buffer, rows);
+            insuredName = readInts(buffer, rows);
+            agent = readInts(buffer, rows);
+            description = readInts(buffer, rows);
+            createdDate = readInts(buffer, rows);
+            modifiedDate = readInts(buffer, rows);
+            effectiveDay = readInts(buffer, rows);
+            expirationDay = readInts(buffer, rows);
+            premiumCents = readLongs(buffer, rows);
+            coverageCents = readLongs(buffer, rows);
+            deductibleCents = readLongs(buffer, rows);
+            align(buffer);
+            flags = new byte[rows];
+            buffer.get(flags);
+            for (StringColumn column : stringColumns()) {
+                readStrings(buffer, column, rows);
+            }
+            align(buffer);
+            snapshotRowsById = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            snapshotRowsById.limit(rows);
+            size = rows;
+            return rows;
+        } catch (IOException e) {
+            throw new TestDataException("Policy", "loadSnapshot", file + ": " + e.getMessage());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                 | ArithmeticException | NegativeArraySizeException e) {
+            clear();
+            throw new TestDataException("Policy", "loadSnapshot", "Snapshot is truncated or corrupt: " + file);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of policies in a snapshot, from its header only
+     */
+    public static int snapshotSize(Path file) {
+        ErrorHandler.validateNotNull(file, "snapshot file");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read the whole header
+            }
+            header.flip();
+            return readHeader(file, header, channel.size());
+        } catch (IOException e) {
+            throw new TestDataException("Policy", "snapshotSize", file + ": " + e.getMessage());
+        }
+    }
+
+    private List<PolicyModel> findByCode(Supplier<int[]> columnRef, Dictionary dictionary, String value) {
+        ErrorHandler.validateNotEmpty(value, "value");
+        lock.readLock().lock();
+        try {
+            // Columns are replaced when they grow, so read the reference under the lock
+            int[] column = columnRef.get();
+            boolean[] matches = dictionary.matching(value);
+            List<PolicyModel> result = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                int code = column[row];
+                if (code != NULL_CODE && matches[code] && isLive(row)) {
+                    result.add(toModel(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isLive(int row) {
+        return (flags[row] & REMOVED) == 0;
+    }
+
+    /**
+     * Live row of an ID, or null; caller holds the lock. A row keeps its ID, so the snapshot order stays valid
+     */
+    private Integer rowOf(String id) {
+        Integer row = rowsById.get(id);
+        if (row != null || id == null || snapshotRowsById == null) {
+            return row;
+        }
+        int low = 0;
+        int high = snapshotRowsById.limit() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int candidate = snapshotRowsById.get(middle);
+            int comparison = ids.get(candidate).compareTo(id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return isLive(candidate) ? candidate : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Snapshot rows (positions in live) ordered by ID, for rowOf after loading
+     */
+    private int[] sortedById(int[] live) {
+        String[] liveIds = new String[live.length];
+        for (int i = 0; i < live.length; i++) {
+            liveIds[i] = ids.get(live[i]);
+        }
+        return IntStream.range(0, live.length).boxed()
+                        .sorted(Comparator.comparing(snapshotRow -> liveIds[snapshotRow]))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+    }
+
+    private Dictionary[] dictionaries() {
+        return new Dictionary[] {statuses, types, categories, insuredNames, agents, descriptions, auditDates};
+    }
+
+    private int[] liveRows() {
+        int[] live = new int[size - removed];
+        int next = 0;
+        for (int row = 0; row < size; row++) {
+            if (isLive(row)) {
+                live[next++] = row;
+            }
+        }
+        return live;
+    }
+
+    private StringColumn[] stringColumns() {
+        return new StringColumn[] {ids, policyNumbers, claimIds, documentIds, beneficiaries};
+    }
+
+    private static void writeRawDates(SnapshotWriter out, Map<Integer, String> rawDates, int[] live) throws IOException {
+        out.putInt(rawDates.size());
+        for (int snapshotRow = 0; snapshotRow < live.length && !rawDates.isEmpty(); snapshotRow++) {
+            String date = rawDates.get(live[snapshotRow]);
+            if (date != null) {
+                out.putInt(snapshotRow);
+                out.putString(date);
+            }
+        }
+    }
+
+    private void writeStrings(SnapshotWriter out, StringColumn column, int[] live) throws IOException {
+        byte[][] encoded = new byte[live.length][];
+        long byteCount = 0;
+        for (int i = 0; i < live.length; i++) {
+            String value = column.get(live[i]);
+            if (value != null) {
+                encoded[i] = value.getBytes(StandardCharsets.UTF_8);
+                byteCount += encoded[i].length;
+            }
+        }
+        out.align();
+        out.putLong(byteCount);
+        for (byte[] value : encoded) {
+            out.putInt(value != null ? value.length : -1);
+        }
+        for (byte[] value : encoded) {
+            if (value != null) {
+                out.putBytes(value);
+            }
+        }
+    }
+
+    private static int readHeader(Path file, ByteBuffer buffer, long fileSize) {
+        if (fileSize < SNAPSHOT_HEADER_SIZE || buffer.getInt(0) != SNAPSHOT_MAGIC) {
+            throw new TestDataException("Policy", "loadSnapshot", "Not a policy snapshot: " + file);
+        }
+        int version = buffer.getInt(4);
+        if (version != SNAPSHOT_VERSION) {
+            throw new TestDataException("Policy", "loadSnapshot", String.format(
+                "Snapshot format version %d, expected %d; regenerate %s", version, SNAPSHOT_VERSION, file));
+        }
+        long payloadLength = buffer.getLong(24);
+        if (payloadLength != fileSize - SNAPSHOT_HEADER_SIZE) {
+            throw new TestDataException("Policy", "loadSnapshot", "Snapshot is truncated: " + file);
+        }
+        return buffer.getInt(8);
+    }
+
+    private static long checksum(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(SNAPSHOT_HEADER_SIZE);
+        crc.update(payload);
+        return crc.getValue();
+    }
+
+    private static void readRawDates(ByteBuffer buffer, Map<Integer, String> rawDates) {
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            int row = buffer.getInt();
+            rawDates.put(row, readString(buffer));
+        }
+    }
+
+    private static void readStrings(ByteBuffer buffer, StringColumn column, int rows) {
+        align(buffer);
+        long byteCount = buffer.getLong();
+        IntBuffer lengths = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        lengths.limit(rows);
+        buffer.position(buffer.position() + rows * Integer.BYTES);
+        ByteBuffer bytes = buffer.slice();
+        bytes.limit(Math.toIntExact(byteCount));
+        buffer.position(buffer.position() + bytes.limit());
+        column.attach(rows, lengths, bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] utf8 = new byte[buffer.getInt()];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int rows) {
+        align(buffer);
+        int[] column = new int[rows];
+        buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(column);
+        buffer.position(buffer.position() + rows * Integer.BYTES);
+        return column;
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int rows) {
+        align(buffer);
+        long[] column = new long[rows];
+        buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(column);
+        buffer.position(buffer.position() + rows * Long.BYTES);
+        return column;
+    }
+
+    private static void align(ByteBuffer buffer) {
+        buffer.position((buffer.position() + 7) & ~7);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Left-over temporary file, harmless
+            }
+        }
+    }
+
+    private void write(int row, PolicyModel policy) {
+        ids.set(row, policy.getId());
+        policyNumbers.set(row, policy.getPolicyNumber());
+        status[row] = statuses.encode(policy.getStatus());
+        type[row] = types.encode(policy.getType());
+        category[row] = categories.encode(policy.getCategory());
+        insuredName[row] = insuredNames.encode(policy.getInsuredName());
+        agent[row] = agents.encode(policy.getAgentId());
+        description[row] = descriptions.encode(policy.getDescription());
+        createdDate[row] = auditDates.encode(policy.getCreatedDate());
+        modifiedDate[row] = auditDates.encode(policy.getModifiedDate());
+        premiumCents[row] = toCents(policy.getPremiumAmount());
+        coverageCents[row] = toCents(policy.getCoverageAmount());
+        deductibleCents[row] = toCents(policy.getDeductible());
+        effectiveDay[row] = toEpochDay(policy.getEffectiveDate(), row, rawEffectiveDates);
+        expirationDay[row] = toEpochDay(policy.getExpirationDate(), row, rawExpirationDates);
+        flags[row] = (byte) ((policy.isAutoRenewal() ? AUTO_RENEWAL : 0) | (policy.hasExpiryWarning() ? EXPIRY_WARNING : 0));
+        claimIds.set(row, join(policy.getClaimIds()));
+        documentIds.set(row, join(policy.getDocumentIds()));
+        beneficiaries.set(row, join(policy.getBeneficiaries()));
+    }
+
+    private PolicyModel toModel(int row) {
+        PolicyModel policy = new PolicyModel(ids.get(row), policyNumbers.get(row), statuses.decode(status[row]), types.decode(type[row]));
+        policy.setCategory(categories.decode(category[row]));
+        policy.setInsuredName(insuredNames.decode(insuredName[row]));
+        policy.setAgentId(agents.decode(agent[row]));
+        policy.setPremiumAmount(toAmount(premiumCents[row]));
+        policy.setCoverageAmount(toAmount(coverageCents[row]));
+        policy.setDeductible(toAmount(deductibleCents[row]));
+        policy.setEffectiveDate(toDate(effectiveDay[row], row, rawEffectiveDates));
+        policy.setExpirationDate(toDate(expirationDay[row], row, rawExpirationDates));
+        policy.setAutoRenewal((flags[row] & AUTO_RENEWAL) != 0);
+        policy.setDescription(descriptions.decode(description[row]));
+        split(claimIds.get(row), policy::addClaimId);
+        split(documentIds.get(row), policy::addDocumentId);
+        split(beneficiaries.get(row), policy::addBeneficiary);
+        // Setters above recompute these, restore the stored values last
+        policy.setHasExpiryWarning((flags[row] & EXPIRY_WARNING) != 0);
+        policy.setCreatedDate(auditDates.decode(createdDate[row]));
+        policy.setModifiedDate(auditDates.decode(modifiedDate[row]));
+        return policy;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity == 0) {
+            ids.reset();
+            policyNumbers.reset();
+            status = new int[0];
+            type = new int[0];
+            category = new int[0];
+            insuredName = new int[0];
+            agent = new int[0];
+            description = new int[0];
+            createdDate = new int[0];
+            modifiedDate = new int[0];
+            premiumCents = new long[0];
+            coverageCents = new long[0];
+            deductibleCents = new long[0];
+            effectiveDay = new int[0];
+            expirationDay = new int[0];
+            flags = new byte[0];
+            claimIds.reset();
+            documentIds.reset();
+            beneficiaries.reset();
+            return;
+        }
+        if (capacity <= flags.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, flags.length + (flags.length >> 1) + 16);
+        ids.grow(newCapacity);
+        policyNumbers.grow(newCapacity);
+        status = Arrays.copyOf(status, newCapacity);
+        type = Arrays.copyOf(type, newCapacity);
+        category = Arrays.copyOf(category, newCapacity);
+        insuredName = Arrays.copyOf(insuredName, newCapacity);
+        agent = Arrays.copyOf(agent, newCapacity);
+        description = Arrays.copyOf(description, newCapacity);
+        createdDate = Arrays.copyOf(createdDate, newCapacity);
+        modifiedDate = Arrays.copyOf(modifiedDate, newCapacity);
+        premiumCents = Arrays.copyOf(premiumCents, newCapacity);
+        coverageCents = Arrays.copyOf(coverageCents, newCapacity);
+        deductibleCents = Arrays.copyOf(deductibleCents, newCapacity);
+        effectiveDay = Arrays.copyOf(effectiveDay, newCapacity);
+        expirationDay = Arrays.copyOf(expirationDay, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+        claimIds.grow(newCapacity);
+        documentIds.grow(newCapacity);
+        beneficiaries.grow(newCapacity);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return NULL_AMOUNT;
+        }
+        try {
+            return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new TestDataException("Policy", "columnStore", "Amount out of range: " + amount);
+        }
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return cents == NULL_AMOUNT ? null : BigDecimal.valueOf(cents, 2);
+    }
+
+    private static int toEpochDay(String date, int row, Map<Integer, String> rawDates) {
+        rawDates.remove(row);
+        if (date == null) {
+            return NULL_DATE;
+        }
+        try {
+            return (int) LocalDate.parse(date, DATE_FORMAT).toEpochDay();
+        } catch (Exception e) {
+            rawDates.put(row, date);
+            return NULL_DATE;
+        }
+    }
+
+    private static String toDate(int epochDay, int row, Map<Integer, String> rawDates) {
+        return epochDay == NULL_DATE ? rawDates.get(row) : LocalDate.ofEpochDay(epochDay).format(DATE_FORMAT);
+    }
+
+    private static String join(List<String> values) {
+        return values.isEmpty() ? null : String.join(String.valueOf(LIST_SEPARATOR), values);
+    }
+
+    private static void split(String joined, Consumer<String> target) {
+        if (joined == null) {
+            return;
+        }
+        int start = 0;
+        int end;
+        while ((end = joined.indexOf(LIST_SEPARATOR, start)) >= 0) {
+            target.accept(joined.substring(start, end));
+            start = end + 1;
+        }
+        target.accept(joined.substring(start));
+    }
+
+    /**
+     * Flyweight view of one row, moved along by the store's scans; only valid inside the callback
+     */
+    public final class Row {
+        private int row;
+
+        private Row moveTo(int row) {
+            this.row = row;
+            return this;
+        }
+
+        public String getId() {
+            return ids.get(row);
+        }
+
+        public String getPolicyNumber() {
+            return policyNumbers.get(row);
+        }
+
+        public String getStatus() {
+            return statuses.decode(status[row]);
+        }
+
+        public String getType() {
+            return types.decode(type[row]);
+        }
+
+        public String getCategory() {
+            return categories.decode(category[row]);
+        }
+
+        public String getInsuredName() {
+            return insuredNames.decode(insuredName[row]);
+        }
+
+        public String getAgentId() {
+            return agents.decode(agent[row]);
+        }
+
+        /**
+         * Premium in cents, or Long.MIN_VALUE when not set
+         */
+        public long getPremiumCents() {
+            return premiumCents[row];
+        }
+
+        public long getCoverageCents() {
+            return coverageCents[row];
+        }
+
+        public long getDeductibleCents() {
+            return deductibleCents[row];
+        }
+
+        public BigDecimal getPremiumAmount() {
+            return toAmount(premiumCents[row]);
+        }
+
+        /**
+         * Effective date as epoch day, or Integer.MIN_VALUE when not set
+         */
+        public int getEffectiveEpochDay() {
+            return effectiveDay[row];
+        }
+
+        public int getExpirationEpochDay() {
+            return expirationDay[row];
+        }
+
+        public boolean isActive() {
+            return "ACTIVE".equalsIgnoreCase(getStatus());
+        }
+
+        public boolean isExpired() {
+            return "EXPIRED".equalsIgnoreCase(getStatus());
+        }
+
+        public boolean isPending() {
+            return "PENDING".equalsIgnoreCase(getStatus());
+        }
+
+        public boolean isCancelled() {
+            return "CANCELLED".equalsIgnoreCase(getStatus());
+        }
+
+        public boolean hasClaimsHistory() {
+            return !claimIds.isNull(row);
+        }
+
+        public boolean hasDocuments() {
+            return !documentIds.isNull(row);
+        }
+
+        public boolean hasBeneficiaries() {
+            return !beneficiaries.isNull(row);
+        }
+
+        public boolean hasExpiryWarning() {
+            return (flags[row] & EXPIRY_WARNING) != 0;
+        }
+
+        public boolean isAutoRenewal() {
+            return (flags[row] & AUTO_RENEWAL) != 0;
+        }
+
+        /**
+         * Build a PolicyModel for the current row
+         */
+        public PolicyModel toModel() {
+            return PolicyColumnStore.this.toModel(row);
+        }
+    }
+
+    /**
+     * One string per row. Rows loaded from a snapshot are decoded from the mapped file on each access
+     * until they are overwritten; offsets into the mapped bytes are computed on first use
+     */
+    private static final class StringColumn {
+        private String[] values = new String[0];
+        private int snapshotRows;
+        private IntBuffer snapshotLengths;
+        private ByteBuffer snapshotBytes;
+        private BitSet overwritten;
+        private volatile int[] snapshotOffsets;
+
+        String get(int row) {
+            return inSnapshot(row) ? decode(row) : values[row];
+        }
+
+        boolean isNull(int row) {
+            return inSnapshot(row) ? snapshotLengths.get(row) < 0 : values[row] == null;
+        }
+
+        void set(int row, String value) {
+            values[row] = value;
+            if (row < snapshotRows) {
+                overwritten.set(row);
+            }
+        }
+
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        void reset() {
+            values = new String[0];
+            snapshotRows = 0;
+            snapshotLengths = null;
+            snapshotBytes = null;
+            overwritten = null;
+            snapshotOffsets = null;
+        }
+
+        void attach(int rows, IntBuffer lengths, ByteBuffer bytes) {
+            values = new String[rows];
+            snapshotRows = rows;
+            snapshotLengths = lengths;
+            snapshotBytes = bytes;
+            overwritten = new BitSet();
+            snapshotOffsets = null;
+        }
+
+        private boolean inSnapshot(int row) {
+            return row < snapshotRows && !overwritten.get(row);
+        }
+
+        private String decode(int row) {
+            int length = snapshotLengths.get(row);
+            if (length < 0) {
+                return null;
+            }
+            int offset = offsets()[row];
+            byte[] utf8 = new byte[length];
+            for (int i = 0; i < length; i++) {
+                utf8[i] = snapshotBytes.get(offset + i);
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        private int[] offsets() {
+            int[] offsets = snapshotOffsets;
+            if (offsets == null) {
+                synchronized (this) {
+                    offsets = snapshotOffsets;
+                    if (offsets == null) {
+                        offsets = new int[snapshotRows];
+                        int next = 0;
+                        for (int row = 0; row < snapshotRows; row++) {
+                            offsets[row] = next;
+                            next += Math.max(0, snapshotLengths.get(row));
+                        }
+                        snapshotOffsets = offsets;
+                    }
+                }
+            }
+            return offsets;
+        }
+    }
+
+    /**
+     * Buffered little-endian writer for the snapshot payload, computing its CRC32C on the way
+     */
+    private static final class SnapshotWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+        private long written;
+
+        SnapshotWriter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            channel.position(SNAPSHOT_HEADER_SIZE);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        void putBytes(byte[] value) throws IOException {
+            int offset = 0;
+            while (offset < value.length) {
+                ensure(1);
+                int chunk = Math.min(buffer.remaining(), value.length - offset);
+                buffer.put(value, offset, chunk);
+                offset += chunk;
+            }
+        }
+
+        void putString(String value) throws IOException {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putInt(utf8.length);
+            putBytes(utf8);
+        }
+
+        /**
+         * Pad to 8 bytes so fixed-width columns can be viewed in place
+         */
+        void align() throws IOException {
+            while ((written + buffer.position()) % 8 != 0) {
+                putByte((byte) 0);
+            }
+        }
+
+        long finish() throws IOException {
+            flush();
+            return written;
+        }
+
+        long checksum() {
+            return crc.getValue();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            written += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Distinct values of one string column; codes index into the value list
+     */
+    private static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        int encode(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return code == NULL_CODE ? null : values.get(code);
+        }
+
+        void clear() {
+            values.clear();
+            codes.clear();
+        }
+
+        /**
+         * Per code: does the value equal the given one ignoring case
+         */
+        boolean[] matching(String value) {
+            boolean[] matches = new boolean[values.size()];
+            for (int code = 0; code < matches.length; code++) {
+                matches[code] = values.get(code).equalsIgnoreCase(value);
+            }
+            return matches;
+        }
+    }
+}
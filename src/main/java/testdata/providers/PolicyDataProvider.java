@@ -1,13 +1,21 @@
 package testdata.providers;
 
+import exceptions.TestDataException;
 import testdata.models.PolicyModel;
 import utils.ErrorHandler;
 import utils.LoggingUtil;
 import org.slf4j.Logger;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Policy-specific test data provider with convenience methods
@@ -16,15 +24,49 @@ public class PolicyDataProvider {
     
     private static final Logger logger = LoggingUtil.getLogger(PolicyDataProvider.class);
     private static final String DATA_TYPE = "policies";
+    private static final String STATUS_INDEX = "status";
+    private static final String TYPE_INDEX = "type";
+    private static final String CATEGORY_INDEX = "category";
+    private static final String INSURED_NAME_INDEX = "insuredName";
+    private static final String AGENT_INDEX = "agentId";
+    private static final String PREMIUM_INDEX = "premiumAmount";
+    private static final String STATISTICS = "policyStatistics";
+    // Statistics counters, one flag bit each
+    private static final int ACTIVE = 0;
+    private static final int EXPIRED = 1;
+    private static final int PENDING = 2;
+    private static final int CANCELLED = 3;
+    private static final int WITH_CLAIMS = 4;
+    private static final int AUTO_RENEWAL = 5;
+    private static final int PREMIUM = 0;
+    // Bulk-loaded policies in columnar form (addBulkPolicies); queries cover both stores. Scenarios never
+    // change it: their updates and removals of bulk policies go to the scenario overlay, which hides the rows
+    private static final PolicyColumnStore bulkPolicies = new PolicyColumnStore();
     private final TestDataManager dataManager;
     
     public PolicyDataProvider() {
         this.dataManager = TestDataManager.getInstance();
-        initializeDefaultPolicies();
+        defineIndexes();
+        dataManager.defineStatistics(DATA_TYPE, PolicyModel.class, STATISTICS, AUTO_RENEWAL + 1,
+                                     PolicyDataProvider::statisticFlags,
+                                     Collections.singletonList(PolicyModel::getPremiumAmount));
+        dataManager.registerInitializer(DATA_TYPE, this::initializeDefaultPolicies);
     }
     
     /**
-     * Initialize default policy test data
+     * Indexes behind the lookup methods below; defining an existing index again is a no-op
+     */
+    private void defineIndexes() {
+        dataManager.defineIndex(DATA_TYPE, PolicyModel.class, STATUS_INDEX, PolicyModel::getStatus);
+        dataManager.defineIndex(DATA_TYPE, PolicyModel.class, TYPE_INDEX, PolicyModel::getType);
+        dataManager.defineIndex(DATA_TYPE, PolicyModel.class, CATEGORY_INDEX, PolicyModel::getCategory);
+        dataManager.defineIndex(DATA_TYPE, PolicyModel.class, INSURED_NAME_INDEX, PolicyModel::getInsuredName);
+        dataManager.defineIndex(DATA_TYPE, PolicyModel.class, AGENT_INDEX, PolicyModel::getAgentId);
+        dataManager.defineSortedIndex(DATA_TYPE, PolicyModel.class, PREMIUM_INDEX, PolicyModel::getPremiumAmount);
+    }
+    
+    /**
+     * Initialize default policy test data, on first access to policies
      */
     private void initializeDefaultPolicies() {
         try {
@@ -127,6 +169,9 @@ public class PolicyDataProvider {
      * Get policy by ID
      */
     public PolicyModel getPolicy(String policyId) {
+        if (isVisibleBulkPolicy(policyId)) {
+            return bulkPolicies.get(policyId);
+        }
         return dataManager.getTestData(DATA_TYPE, policyId, PolicyModel.class);
     }
     
@@ -134,35 +179,35 @@ public class PolicyDataProvider {
      * Get all policies
      */
     public List<PolicyModel> getAllPolicies() {
-        return dataManager.getAllTestData(DATA_TYPE, PolicyModel.class);
+        return withBulk(dataManager.getAllTestData(DATA_TYPE, PolicyModel.class), PolicyColumnStore::getAll);
     }
     
     /**
      * Get active policies only
      */
     public List<PolicyModel> getActivePolicies() {
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::isActive);
+        return getPoliciesByStatus("ACTIVE");
     }
     
     /**
      * Get expired policies only
      */
     public List<PolicyModel> getExpiredPolicies() {
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::isExpired);
+        return getPoliciesByStatus("EXPIRED");
     }
     
     /**
      * Get pending policies only
      */
     public List<PolicyModel> getPendingPolicies() {
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::isPending);
+        return getPoliciesByStatus("PENDING");
     }
     
     /**
      * Get cancelled policies only
      */
     public List<PolicyModel> getCancelledPolicies() {
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::isCancelled);
+        return getPoliciesByStatus("CANCELLED");
     }
     
     /**
@@ -170,8 +215,8 @@ public class PolicyDataProvider {
      */
     public List<PolicyModel> getPoliciesByStatus(String status) {
         ErrorHandler.validateNotEmpty(status, "status");
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, 
-            policy -> status.equalsIgnoreCase(policy.getStatus()));
+        return withBulk(dataManager.getTestDataByIndex(DATA_TYPE, PolicyModel.class, STATUS_INDEX, status),
+                        store -> store.findByStatus(status));
     }
     
     /**
@@ -179,8 +224,8 @@ public class PolicyDataProvider {
      */
     public List<PolicyModel> getPoliciesByType(String type) {
         ErrorHandler.validateNotEmpty(type, "type");
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, 
-            policy -> type.equalsIgnoreCase(policy.getType()));
+        return withBulk(dataManager.getTestDataByIndex(DATA_TYPE, PolicyModel.class, TYPE_INDEX, type),
+                        store -> store.findByType(type));
     }
     
     /**
@@ -188,8 +233,8 @@ public class PolicyDataProvider {
      */
     public List<PolicyModel> getPoliciesByCategory(String category) {
         ErrorHandler.validateNotEmpty(category, "category");
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, 
-            policy -> category.equalsIgnoreCase(policy.getCategory()));
+        return withBulk(dataManager.getTestDataByIndex(DATA_TYPE, PolicyModel.class, CATEGORY_INDEX, category),
+                        store -> store.findByCategory(category));
     }
     
     /**
@@ -197,51 +242,63 @@ public class PolicyDataProvider {
      */
     public List<PolicyModel> getPoliciesByInsuredName(String insuredName) {
         ErrorHandler.validateNotEmpty(insuredName, "insured name");
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, 
-            policy -> insuredName.equalsIgnoreCase(policy.getInsuredName()));
+        return withBulk(dataManager.getTestDataByIndex(DATA_TYPE, PolicyModel.class, INSURED_NAME_INDEX, insuredName),
+                        store -> store.findByInsuredName(insuredName));
+    }
+    
+    /**
+     * Get policies by agent ID
+     */
+    public List<PolicyModel> getPoliciesByAgentId(String agentId) {
+        ErrorHandler.validateNotEmpty(agentId, "agent ID");
+        return withBulk(dataManager.getTestDataByIndex(DATA_TYPE, PolicyModel.class, AGENT_INDEX, agentId),
+                        store -> store.findByAgentId(agentId));
     }
     
     /**
      * Get policies with claims history
      */
     public List<PolicyModel> getPoliciesWithClaims() {
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::hasClaimsHistory);
+        return withBulk(dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::hasClaimsHistory),
+                        store -> store.findWhere(PolicyColumnStore.Row::hasClaimsHistory));
     }
     
     /**
      * Get policies with beneficiaries
      */
     public List<PolicyModel> getPoliciesWithBeneficiaries() {
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::hasBeneficiaries);
+        return withBulk(dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::hasBeneficiaries),
+                        store -> store.findWhere(PolicyColumnStore.Row::hasBeneficiaries));
     }
     
     /**
      * Get policies with expiry warning
      */
     public List<PolicyModel> getPoliciesWithExpiryWarning() {
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::hasExpiryWarning);
+        return withBulk(dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::hasExpiryWarning),
+                        store -> store.findWhere(PolicyColumnStore.Row::hasExpiryWarning));
     }
     
     /**
      * Get policies with auto renewal
      */
     public List<PolicyModel> getAutoRenewalPolicies() {
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::isAutoRenewal);
+        return withBulk(dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, PolicyModel::isAutoRenewal),
+                        store -> store.findWhere(PolicyColumnStore.Row::isAutoRenewal));
     }
     
     /**
-     * Get policies by premium range
+     * Get policies by premium range (inclusive), lowest premium first
      */
     public List<PolicyModel> getPoliciesByPremiumRange(BigDecimal minPremium, BigDecimal maxPremium) {
         ErrorHandler.validateNotNull(minPremium, "minimum premium");
         ErrorHandler.validateNotNull(maxPremium, "maximum premium");
+        if (minPremium.compareTo(maxPremium) > 0) {
+            return new ArrayList<>();
+        }
         
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, policy -> {
-            BigDecimal premium = policy.getPremiumAmount();
-            return premium != null && 
-                   premium.compareTo(minPremium) >= 0 && 
-                   premium.compareTo(maxPremium) <= 0;
-        });
+        return withBulk(dataManager.getTestDataInRange(DATA_TYPE, PolicyModel.class, PREMIUM_INDEX, minPremium, maxPremium),
+                        store -> store.findByPremiumRange(minPremium, maxPremium));
     }
     
     /**
@@ -268,6 +325,15 @@ public class PolicyDataProvider {
         return typePolicies.get((int) (Math.random() * typePolicies.size()));
     }
     
+    /**
+     * Lease a candidate policy matching the filter for the current scenario, so no parallel scenario gets
+     * it until teardown; the generator supplies a new policy when all matches stay leased
+     */
+    public TestDataLeasing.Lease<PolicyModel> leasePolicy(Supplier<List<PolicyModel>> candidates, Predicate<PolicyModel> filter,
+                                                          Supplier<PolicyModel> generator) {
+        return TestDataLeasing.getInstance().lease(DATA_TYPE, candidates, filter, generator);
+    }
+    
     /**
      * Create a new policy for testing
      */
@@ -281,6 +347,34 @@ public class PolicyDataProvider {
         return policy;
     }
     
+    /**
+     * Add a policy, e.g. one built by TestDataFactory
+     */
+    public void addPolicy(PolicyModel policy) {
+        dataManager.addTestData(DATA_TYPE, policy);
+    }
+    
+    /**
+     * Add many policies, validated together in parallel; nothing is added if any policy is invalid
+     */
+    public void addPolicies(Collection<PolicyModel> policies) {
+        dataManager.addAllTestData(DATA_TYPE, policies);
+    }
+    
+    /**
+     * Add many policies to the columnar store: a fraction of the heap of PolicyModel objects, and
+     * queries scan primitive columns. Policies returned from it are copies; store changes with updatePolicy.
+     * Under a scenario they are added to the scenario's own data like addPolicies, and discarded with it
+     */
+    public void addBulkPolicies(Collection<PolicyModel> policies) {
+        if (dataManager.isScenarioActive()) {
+            dataManager.addAllTestData(DATA_TYPE, policies);
+            return;
+        }
+        bulkPolicies.addAll(policies);
+        logger.debug("Added {} policies to the columnar store ({} total)", policies.size(), bulkPolicies.size());
+    }
+    
     /**
      * Create a copy of existing policy for test isolation
      */
@@ -288,32 +382,88 @@ public class PolicyDataProvider {
         return dataManager.copyTestData(DATA_TYPE, policyId, PolicyModel.class);
     }
     
+    /**
+     * Write the bulk policies to a binary snapshot that other JVMs load with loadBulkSnapshot
+     */
+    public void writeBulkSnapshot(Path file) {
+        long start = System.nanoTime();
+        bulkPolicies.writeSnapshot(file);
+        logger.info("Wrote {} policies to snapshot {} in {} ms", bulkPolicies.size(), file,
+                   TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+    
+    /**
+     * Replace the bulk policies with a snapshot written by writeBulkSnapshot; not under a scenario,
+     * since the columnar store is shared
+     */
+    public int loadBulkSnapshot(Path file, boolean verifyChecksum) {
+        requireNoScenario("loadBulkSnapshot");
+        long start = System.nanoTime();
+        int loaded = bulkPolicies.loadSnapshot(file, verifyChecksum);
+        logger.info("Loaded {} policies from snapshot {} in {} ms", loaded, file,
+                   TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return loaded;
+    }
+    
+    public int getBulkPolicyCount() {
+        return bulkPolicies.size();
+    }
+    
     /**
      * Update policy data
      */
     public void updatePolicy(PolicyModel policy) {
-        dataManager.updateTestData(DATA_TYPE, policy);
+        ErrorHandler.validateNotNull(policy, "policy");
+        if (!isVisibleBulkPolicy(policy.getId())) {
+            dataManager.updateTestData(DATA_TYPE, policy);
+            return;
+        }
+        ScenarioOverlay overlay = dataManager.currentScenario();
+        if (overlay != null) {
+            policy.validate();
+            overlay.put(DATA_TYPE, policy);
+        } else {
+            bulkPolicies.update(policy);
+        }
     }
     
     /**
      * Remove policy
      */
     public void removePolicy(String policyId) {
-        dataManager.removeTestData(DATA_TYPE, policyId);
+        if (!isVisibleBulkPolicy(policyId)) {
+            dataManager.removeTestData(DATA_TYPE, policyId);
+            return;
+        }
+        ScenarioOverlay overlay = dataManager.currentScenario();
+        if (overlay != null) {
+            overlay.remove(DATA_TYPE, policyId);
+        } else {
+            bulkPolicies.remove(policyId);
+        }
     }
     
     /**
      * Get policies with custom filter
      */
     public List<PolicyModel> getPoliciesWhere(Predicate<PolicyModel> filter) {
-        return dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, filter);
+        // Columnar policies are built as PolicyModel for the filter; prefer the typed lookups for bulk data
+        return withBulk(dataManager.getTestDataWhere(DATA_TYPE, PolicyModel.class, filter),
+                        store -> store.findWhere(row -> filter.test(row.toModel())));
+    }
+    
+    /**
+     * Load policies from JSON file (classpath or file system, optionally gzipped)
+     */
+    public TestDataManager.LoadStatistics loadFromJson(String filePath) {
+        return dataManager.loadFromJson(DATA_TYPE, filePath, PolicyModel.class);
     }
     
     /**
-     * Load policies from JSON file
+     * A JSON file of policies for TestDataManager.loadFromJson(List, int), to load with other types at once
      */
-    public void loadFromJson(String filePath) {
-        dataManager.loadFromJson(DATA_TYPE, filePath, PolicyModel.class);
+    public TestDataManager.JsonSource<PolicyModel> jsonSource(String filePath) {
+        return new TestDataManager.JsonSource<>(DATA_TYPE, filePath, PolicyModel.class);
     }
     
     /**
@@ -335,28 +485,129 @@ public class PolicyDataProvider {
      */
     public void clearAllPolicies() {
         dataManager.clearTestData(DATA_TYPE);
+        // Under a scenario the cleared type hides the bulk policies as well
+        if (!dataManager.isScenarioActive()) {
+            clearBulkPolicies();
+        }
+    }
+    
+    /**
+     * Clear the columnar store of bulk policies; it is shared by all provider instances, so not under a
+     * scenario (clearAllPolicies hides them for the scenario)
+     */
+    public void clearBulkPolicies() {
+        requireNoScenario("clearBulkPolicies");
+        bulkPolicies.clear();
     }
     
     /**
      * Get policy statistics
      */
     public PolicyStatistics getStatistics() {
-        List<PolicyModel> allPolicies = getAllPolicies();
-        
-        long activeCount = allPolicies.stream().filter(PolicyModel::isActive).count();
-        long expiredCount = allPolicies.stream().filter(PolicyModel::isExpired).count();
-        long pendingCount = allPolicies.stream().filter(PolicyModel::isPending).count();
-        long cancelledCount = allPolicies.stream().filter(PolicyModel::isCancelled).count();
-        long withClaimsCount = allPolicies.stream().filter(PolicyModel::hasClaimsHistory).count();
-        long autoRenewalCount = allPolicies.stream().filter(PolicyModel::isAutoRenewal).count();
-        
-        BigDecimal totalPremiums = allPolicies.stream()
-            .filter(p -> p.getPremiumAmount() != null)
-            .map(PolicyModel::getPremiumAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        return new PolicyStatistics(allPolicies.size(), activeCount, expiredCount, pendingCount, 
-                                   cancelledCount, withClaimsCount, autoRenewalCount, totalPremiums);
+        return withBulkStatistics(dataManager.getStatistics(DATA_TYPE, STATISTICS));
+    }
+    
+    /**
+     * Recount all policies in one pass; needed only after policies were changed in place without updatePolicy
+     */
+    public PolicyStatistics recalculateStatistics() {
+        return withBulkStatistics(dataManager.recalculateStatistics(DATA_TYPE, STATISTICS));
+    }
+    
+    private PolicyStatistics withBulkStatistics(TestDataStatistics.Totals totals) {
+        PolicyStatistics policyStatistics = new PolicyStatistics((int) totals.getItems(),
+            totals.getCount(ACTIVE), totals.getCount(EXPIRED), totals.getCount(PENDING), totals.getCount(CANCELLED),
+            totals.getCount(WITH_CLAIMS), totals.getCount(AUTO_RENEWAL), totals.getSum(PREMIUM));
+        if (bulkPolicies.size() == 0) {
+            return policyStatistics;
+        }
+        ScenarioOverlay overlay = scenarioTouchingPolicies();
+        if (overlay == null) {
+            return policyStatistics.plus(bulkPolicies.getStatistics());
+        }
+        if (overlay.hidesAll(DATA_TYPE)) {
+            return policyStatistics;
+        }
+        // Bulk policies the scenario changed or removed are counted from its overlay instead
+        PolicyStatistics bulkStatistics = bulkPolicies.getStatistics();
+        for (String id : overlay.hiddenIds(DATA_TYPE)) {
+            PolicyModel hidden = bulkPolicies.get(id);
+            if (hidden != null) {
+                bulkStatistics = bulkStatistics.minus(statisticsOf(hidden));
+            }
+        }
+        return policyStatistics.plus(bulkStatistics);
+    }
+    
+    private static PolicyStatistics statisticsOf(PolicyModel policy) {
+        long flags = statisticFlags(policy);
+        return new PolicyStatistics(1, flags >>> ACTIVE & 1, flags >>> EXPIRED & 1, flags >>> PENDING & 1,
+            flags >>> CANCELLED & 1, flags >>> WITH_CLAIMS & 1, flags >>> AUTO_RENEWAL & 1,
+            policy.getPremiumAmount() != null ? policy.getPremiumAmount() : BigDecimal.ZERO);
+    }
+    
+    private static long statisticFlags(PolicyModel policy) {
+        long flags = 0;
+        if (policy.isActive()) {
+            flags |= 1L << ACTIVE;
+        } else if (policy.isExpired()) {
+            flags |= 1L << EXPIRED;
+        } else if (policy.isPending()) {
+            flags |= 1L << PENDING;
+        } else if (policy.isCancelled()) {
+            flags |= 1L << CANCELLED;
+        }
+        if (policy.hasClaimsHistory()) {
+            flags |= 1L << WITH_CLAIMS;
+        }
+        if (policy.isAutoRenewal()) {
+            flags |= 1L << AUTO_RENEWAL;
+        }
+        return flags;
+    }
+    
+    private List<PolicyModel> withBulk(List<PolicyModel> policies, Function<PolicyColumnStore, List<PolicyModel>> bulkQuery) {
+        if (bulkPolicies.size() == 0) {
+            return policies;
+        }
+        ScenarioOverlay overlay = scenarioTouchingPolicies();
+        if (overlay == null) {
+            policies.addAll(bulkQuery.apply(bulkPolicies));
+        } else if (!overlay.hidesAll(DATA_TYPE)) {
+            // The scenario's versions of changed bulk policies are already in the manager's result
+            for (PolicyModel policy : bulkQuery.apply(bulkPolicies)) {
+                if (!overlay.hides(DATA_TYPE, policy.getId())) {
+                    policies.add(policy);
+                }
+            }
+        }
+        return policies;
+    }
+    
+    /**
+     * True when the ID is a bulk policy the current scenario has not changed, removed or cleared
+     */
+    private boolean isVisibleBulkPolicy(String policyId) {
+        if (!bulkPolicies.contains(policyId)) {
+            return false;
+        }
+        ScenarioOverlay overlay = dataManager.currentScenario();
+        return overlay == null || !overlay.hides(DATA_TYPE, policyId);
+    }
+    
+    /**
+     * The current scenario's overlay when it has changed policies, else null
+     */
+    private ScenarioOverlay scenarioTouchingPolicies() {
+        ScenarioOverlay overlay = dataManager.currentScenario();
+        return overlay != null && overlay.touches(DATA_TYPE) ? overlay : null;
+    }
+    
+    private void requireNoScenario(String operation) {
+        if (dataManager.isScenarioActive()) {
+            throw new TestDataException(DATA_TYPE, operation,
+                "The columnar bulk policy store is shared and cannot be replaced or cleared from a scenario");
+        }
     }
     
     /**
@@ -385,6 +636,26 @@ public class PolicyDataProvider {
             this.totalPremiums = totalPremiums;
         }
         
+        /**
+         * Remove the statistics of a subset of these policies
+         */
+        public PolicyStatistics minus(PolicyStatistics subset) {
+            return new PolicyStatistics(totalPolicies - subset.totalPolicies, activePolicies - subset.activePolicies,
+                expiredPolicies - subset.expiredPolicies, pendingPolicies - subset.pendingPolicies,
+                cancelledPolicies - subset.cancelledPolicies, policiesWithClaims - subset.policiesWithClaims,
+                autoRenewalPolicies - subset.autoRenewalPolicies, totalPremiums.subtract(subset.totalPremiums));
+        }
+        
+        /**
+         * Combine statistics of two disjoint sets of policies
+         */
+        public PolicyStatistics plus(PolicyStatistics other) {
+            return new PolicyStatistics(totalPolicies + other.totalPolicies, activePolicies + other.activePolicies,
+                expiredPolicies + other.expiredPolicies, pendingPolicies + other.pendingPolicies,
+                cancelledPolicies + other.cancelledPolicies, policiesWithClaims + other.policiesWithClaims,
+                autoRenewalPolicies + other.autoRenewalPolicies, totalPremiums.add(other.totalPremiums));
+        }
+        
         @Override
         public String toString() {
             return String.format("PolicyStatistics{total=%d, active=%d, expired=%d, pending=%d, " +
@@ -0,0 +1,187 @@
+package testdata.providers;
+
+import testdata.models.BaseTestDataModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Changes made by the scenario running on one thread, laid over the shared test data: items added or
+ * updated by ID, IDs removed and types cleared. Reads check the overlay first and fall through to the
+ * shared data, which the scenario never changes (TestDataManager hands out copies of shared items);
+ * discarding the overlay undoes everything. Only the owning thread uses it, so it needs no locking
+ */
+class ScenarioOverlay {
+
+    private final Map<String, Map<String, BaseTestDataModel>> written = new HashMap<>();
+    private final Map<String, Set<String>> removed = new HashMap<>();
+    private final Set<String> cleared = new HashSet<>();
+    private boolean allCleared;
+
+    /**
+     * False when the scenario has not changed the type, so reads can use the shared data directly
+     */
+    boolean touches(String dataType) {
+        return allCleared || cleared.contains(dataType) || written.containsKey(dataType) || removed.containsKey(dataType);
+    }
+
+    void put(String dataType, BaseTestDataModel item) {
+        written.computeIfAbsent(dataType, k -> new HashMap<>()).put(item.getId(), item);
+        Set<String> removedIds = removed.get(dataType);
+        if (removedIds != null) {
+            removedIds.remove(item.getId());
+        }
+    }
+
+    void remove(String dataType, String id) {
+        Map<String, BaseTestDataModel> items = written.get(dataType);
+        if (items != null) {
+            items.remove(id);
+        }
+        if (!hidesAll(dataType)) {
+            removed.computeIfAbsent(dataType, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    void clear(String dataType) {
+        cleared.add(dataType);
+        written.remove(dataType);
+        removed.remove(dataType);
+    }
+
+    void clearAll() {
+        allCleared = true;
+        written.clear();
+        removed.clear();
+    }
+
+    /**
+     * True when none of the shared items of the type are visible
+     */
+    boolean hidesAll(String dataType) {
+        return allCleared || cleared.contains(dataType);
+    }
+
+    /**
+     * IDs whose shared version is replaced or removed by the scenario
+     */
+    Collection<String> hiddenIds(String dataType) {
+        Map<String, BaseTestDataModel> items = written.getOrDefault(dataType, Collections.emptyMap());
+        Set<String> removedIds = removed.getOrDefault(dataType, Collections.emptySet());
+        List<String> ids = new ArrayList<>(items.size() + removedIds.size());
+        ids.addAll(items.keySet());
+        ids.addAll(removedIds);
+        return ids;
+    }
+
+    Collection<BaseTestDataModel> written(String dataType) {
+        Map<String, BaseTestDataModel> items = written.get(dataType);
+        return items != null ? items.values() : Collections.emptyList();
+    }
+
+    /**
+     * True when the item is the scenario's own version rather than shared data
+     */
+    boolean owns(String dataType, BaseTestDataModel item) {
+        Map<String, BaseTestDataModel> items = written.get(dataType);
+        return items != null && items.get(item.getId()) == item;
+    }
+
+    Set<String> writtenTypes() {
+        return written.keySet();
+    }
+
+    /**
+     * The item as the scenario sees it; shared may be null when the type has no shared data
+     */
+    BaseTestDataModel get(String dataType, String id, Map<String, BaseTestDataModel> shared) {
+        Map<String, BaseTestDataModel> items = written.get(dataType);
+        BaseTestDataModel item = items != null ? items.get(id) : null;
+        if (item != null || shared == null || hides(dataType, id)) {
+            return item;
+        }
+        return shared.get(id);
+    }
+
+    /**
+     * All items of the type as the scenario sees them
+     */
+    List<BaseTestDataModel> visible(String dataType, Collection<BaseTestDataModel> shared) {
+        return merge(dataType, shared, item -> true, null);
+    }
+
+    int size(String dataType, Map<String, BaseTestDataModel> shared) {
+        int size = 0;
+        if (shared != null && !hidesAll(dataType)) {
+            size = shared.size();
+            for (String id : hiddenIds(dataType)) {
+                if (shared.containsKey(id)) {
+                    size--;
+                }
+            }
+        }
+        return size + written(dataType).size();
+    }
+
+    /**
+     * Shared items not hidden by the scenario, plus the scenario's items that match; sorted by order
+     * (when given) once the scenario's items are added, shared items keep their order otherwise
+     */
+    <T extends BaseTestDataModel> List<T> merge(String dataType, Collection<? extends BaseTestDataModel> shared,
+                                                Predicate<BaseTestDataModel> matches, Comparator<BaseTestDataModel> order) {
+        List<BaseTestDataModel> result = new ArrayList<>();
+        if (!hidesAll(dataType)) {
+            for (BaseTestDataModel item : shared) {
+                if (!hides(dataType, item.getId())) {
+                    result.add(item);
+                }
+            }
+        }
+        int sharedCount = result.size();
+        for (BaseTestDataModel item : written(dataType)) {
+            if (matches.test(item)) {
+                result.add(item);
+            }
+        }
+        if (order != null && result.size() > sharedCount) {
+            result.sort(order);
+        }
+        @SuppressWarnings("unchecked")
+        List<T> typed = (List<T>) result;
+        return typed;
+    }
+
+    int changeCount() {
+        int count = cleared.size() + (allCleared ? 1 : 0);
+        for (Map<String, BaseTestDataModel> items : written.values()) {
+            count += items.size();
+        }
+        for (Set<String> removedIds : removed.values()) {
+            count += removedIds.size();
+        }
+        return count;
+    }
+
+    /**
+     * True when the shared item with this ID is replaced or removed by the scenario, or its type cleared
+     */
+    boolean hides(String dataType, String id) {
+        if (hidesAll(dataType)) {
+            return true;
+        }
+        Map<String, BaseTestDataModel> items = written.get(dataType);
+        if (items != null && items.containsKey(id)) {
+            return true;
+        }
+        Set<String> removedIds = removed.get(dataType);
+        return removedIds != null && removedIds.contains(id);
+    }
+}
@@ -0,0 +1,235 @@
+package testdata.providers;
+
+import testdata.models.BaseTestDataModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Secondary indexes and running statistics of one test data type, kept in step with the type cache by
+ * TestDataManager. Equality indexes compare strings case-insensitively, like the provider queries they
+ * replace; sorted indexes answer range queries. Writers hold this object's monitor, readers do not lock
+ */
+class TestDataIndexes {
+
+    private final Map<String, Index> indexes = new ConcurrentHashMap<>();
+    private final Map<String, TestDataStatistics<?>> statistics = new ConcurrentHashMap<>();
+    // IDs of cached items changed in place (setters) since they were last indexed
+    private final Set<String> changedIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Add an index and fill it from the current data; returns false if the name is already defined
+     */
+    synchronized boolean define(String name, Function<BaseTestDataModel, ?> keyExtractor, boolean sorted,
+                                Collection<BaseTestDataModel> existing) {
+        if (indexes.containsKey(name)) {
+            return false;
+        }
+        Index index = new Index(keyExtractor, sorted);
+        existing.forEach(index::put);
+        indexes.put(name, index);
+        return true;
+    }
+
+    Index get(String name) {
+        return indexes.get(name);
+    }
+
+    /**
+     * Add statistics and fill them from the current data; returns the existing ones if the name is defined
+     */
+    synchronized TestDataStatistics<?> defineStatistics(String name, TestDataStatistics<?> added,
+                                                        Collection<BaseTestDataModel> existing) {
+        TestDataStatistics<?> defined = statistics.putIfAbsent(name, added);
+        if (defined != null) {
+            return defined;
+        }
+        added.rebuild(existing);
+        return added;
+    }
+
+    TestDataStatistics<?> getStatistics(String name) {
+        return statistics.get(name);
+    }
+
+    /**
+     * Re-index an added or updated item; callers hold the monitor
+     */
+    void put(BaseTestDataModel item) {
+        for (Index index : indexes.values()) {
+            index.put(item);
+        }
+        for (TestDataStatistics<?> stats : statistics.values()) {
+            stats.put(item);
+        }
+    }
+
+    /**
+     * Note an in-place change of a cached item; it is re-indexed before the next lookup
+     */
+    void markChanged(String id) {
+        changedIds.add(id);
+    }
+
+    boolean hasChanges() {
+        return !changedIds.isEmpty();
+    }
+
+    /**
+     * IDs noted since the last call; callers hold the monitor
+     */
+    List<String> drainChanges() {
+        List<String> ids = new ArrayList<>(changedIds);
+        changedIds.removeAll(ids);
+        return ids;
+    }
+
+    void remove(String id) {
+        for (Index index : indexes.values()) {
+            index.remove(id);
+        }
+        for (TestDataStatistics<?> stats : statistics.values()) {
+            stats.remove(id);
+        }
+    }
+
+    void clear() {
+        for (Index index : indexes.values()) {
+            index.clear();
+        }
+        for (TestDataStatistics<?> stats : statistics.values()) {
+            stats.clear();
+        }
+    }
+
+    /**
+     * One index: key per ID to find the old entry on update, items by ID per key for lookups
+     */
+    static class Index {
+        private final Function<BaseTestDataModel, ?> keyExtractor;
+        private final boolean sorted;
+        private final Map<String, Object> keyById = new ConcurrentHashMap<>();
+        private final Map<Object, Map<String, BaseTestDataModel>> itemsByKey;
+
+        Index(Function<BaseTestDataModel, ?> keyExtractor, boolean sorted) {
+            this.keyExtractor = keyExtractor;
+            this.sorted = sorted;
+            this.itemsByKey = sorted ? new ConcurrentSkipListMap<>() : new ConcurrentHashMap<>();
+        }
+
+        boolean isSorted() {
+            return sorted;
+        }
+
+        Collection<BaseTestDataModel> itemsFor(Object key) {
+            Map<String, BaseTestDataModel> items = key == null ? null : itemsByKey.get(normalize(key));
+            return items != null ? items.values() : Collections.emptyList();
+        }
+
+        /**
+         * Items with min &lt;= key &lt;= max, grouped in ascending key order; a null bound is open
+         */
+        @SuppressWarnings("unchecked")
+        List<Collection<BaseTestDataModel>> itemsBetween(Object min, Object max) {
+            NavigableMap<Object, Map<String, BaseTestDataModel>> keys =
+                (NavigableMap<Object, Map<String, BaseTestDataModel>>) itemsByKey;
+            if (min != null && max != null) {
+                keys = keys.subMap(min, true, max, true);
+            } else if (min != null) {
+                keys = keys.tailMap(min, true);
+            } else if (max != null) {
+                keys = keys.headMap(max, true);
+            }
+            List<Collection<BaseTestDataModel>> groups = new ArrayList<>(keys.size());
+            for (Map<String, BaseTestDataModel> items : keys.values()) {
+                groups.add(items.values());
+            }
+            return groups;
+        }
+
+        /**
+         * False when the item was changed in place after it was indexed (without updateTestData)
+         */
+        @SuppressWarnings("unchecked")
+        boolean isCurrent(BaseTestDataModel item) {
+            Object indexed = keyById.get(item.getId());
+            Object current = keyExtractor.apply(item);
+            if (indexed == null || current == null) {
+                return indexed == current;
+            }
+            if (sorted) {
+                return ((Comparable<Object>) indexed).compareTo(current) == 0;
+            }
+            return current instanceof String ? ((String) indexed).equalsIgnoreCase((String) current) : indexed.equals(current);
+        }
+
+        /**
+         * Whether an item not in the index would be found under the key, e.g. one only a scenario sees
+         */
+        @SuppressWarnings("unchecked")
+        boolean matches(BaseTestDataModel item, Object key) {
+            Object itemKey = keyOf(item);
+            if (itemKey == null || key == null) {
+                return false;
+            }
+            return sorted ? ((Comparable<Object>) itemKey).compareTo(key) == 0 : itemKey.equals(normalize(key));
+        }
+        
+        @SuppressWarnings("unchecked")
+        boolean inRange(BaseTestDataModel item, Object min, Object max) {
+            Comparable<Object> itemKey = (Comparable<Object>) keyOf(item);
+            return itemKey != null && (min == null || itemKey.compareTo(min) >= 0) && (max == null || itemKey.compareTo(max) <= 0);
+        }
+        
+        /**
+         * Ascending key order of a sorted index, for items that all have a key
+         */
+        @SuppressWarnings("unchecked")
+        Comparator<BaseTestDataModel> keyOrder() {
+            return (first, second) -> ((Comparable<Object>) keyOf(first)).compareTo(keyOf(second));
+        }
+        
+        private void put(BaseTestDataModel item) {
+            remove(item.getId());
+            Object key = keyOf(item);
+            if (key != null) {
+                keyById.put(item.getId(), key);
+                itemsByKey.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(item.getId(), item);
+            }
+        }
+
+        private void remove(String id) {
+            Object key = keyById.remove(id);
+            if (key != null) {
+                itemsByKey.computeIfPresent(key, (k, items) -> {
+                    items.remove(id);
+                    return items.isEmpty() ? null : items;
+                });
+            }
+        }
+
+        private void clear() {
+            keyById.clear();
+            itemsByKey.clear();
+        }
+
+        private Object keyOf(BaseTestDataModel item) {
+            Object key = keyExtractor.apply(item);
+            return key == null ? null : normalize(key);
+        }
+
+        private Object normalize(Object key) {
+            return !sorted && key instanceof String ? ((String) key).toUpperCase(Locale.ROOT) : key;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package testdata.providers;
+
+import exceptions.TestDataException;
+import org.slf4j.Logger;
+import testdata.models.BaseTestDataModel;
+import utils.ConfigReader;
+import utils.ErrorHandler;
+import utils.LoggingUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Exclusive leases on test data items, so parallel scenarios never log in as the same user or edit the
+ * same policy. Each data type and ID has a lease slot taken with one compare-and-set, without locks; only
+ * the holder's token releases it. Leases are recorded per thread and released together at scenario
+ * teardown (releaseAll in Hooks). They are reentrant: when the thread already holds a lease on a matching
+ * candidate, lease returns that lease again. When every matching item is leased, lease waits for a release, then
+ * generates a new item if a generator was given. Settings (config.properties or -D):
+ * <pre>
+ * testdata.lease.wait.ms=250        wait for a release before generating
+ * testdata.lease.timeout.ms=30000   wait for a release when there is no generator
+ * </pre>
+ */
+public class TestDataLeasing {
+
+    private static final Logger logger = LoggingUtil.getLogger(TestDataLeasing.class);
+    private static final long FREE = 0;
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static TestDataLeasing instance;
+
+    private final TestDataManager dataManager;
+    private final long waitNanos;
+    private final long timeoutNanos;
+    // Token of the lease holding each "type:id", FREE when not leased
+    private final Map<String, AtomicLong> slots = new ConcurrentHashMap<>();
+    private final AtomicLong tokens = new AtomicLong();
+    private final ThreadLocal<List<Lease<?>>> heldLeases = ThreadLocal.withInitial(ArrayList::new);
+
+    private final LongAdder leaseCount = new LongAdder();
+    private final LongAdder generatedCount = new LongAdder();
+    private final LongAdder waitedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder contendedCount = new LongAdder();
+
+    private TestDataLeasing() {
+        this.dataManager = TestDataManager.getInstance();
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(ConfigReader.getSetting("testdata.lease.wait.ms", "250")));
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(ConfigReader.getSetting("testdata.lease.timeout.ms", "30000")));
+    }
+
+    /**
+     * Get singleton instance of TestDataLeasing
+     */
+    public static synchronized TestDataLeasing getInstance() {
+        if (instance == null) {
+            instance = new TestDataLeasing();
+        }
+        return instance;
+    }
+
+    /**
+     * Lease one of the candidates that matches the filter and is not leased, starting at a random one so
+     * parallel callers spread over the pool. A lease the current thread already holds on a matching
+     * candidate is returned instead, so asking twice in a scenario gives the same item
+     *
+     * @param dataType   data type the candidates belong to
+     * @param candidates current candidates, e.g. an index lookup; asked again after each wait
+     * @param filter     further condition on a candidate
+     * @param generator  new item, added to the data type, when all matches stay leased; null to wait
+     *                   until testdata.lease.timeout.ms and fail instead
+     */
+    public <T extends BaseTestDataModel> Lease<T> lease(String dataType, Supplier<? extends List<T>> candidates,
+                                                        Predicate<? super T> filter, Supplier<T> generator) {
+        ErrorHandler.validateNotEmpty(dataType, "data type");
+        ErrorHandler.validateNotNull(candidates, "candidates");
+        ErrorHandler.validateNotNull(filter, "filter");
+
+        long start = System.nanoTime();
+        List<T> items = candidates.get();
+        Lease<T> held = heldLease(dataType, items, filter);
+        if (held != null) {
+            logger.debug("Reusing lease on {} {} held by this thread", dataType, held.item.getId());
+            return held;
+        }
+        
+        long deadline = start + (generator != null ? waitNanos : timeoutNanos);
+        long backoff = MIN_BACKOFF_NANOS;
+        Lease<T> lease = tryLease(dataType, items, filter);
+        while (lease == null && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(Math.min(backoff, Math.max(0, deadline - System.nanoTime())));
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            lease = tryLease(dataType, candidates.get(), filter);
+        }
+
+        boolean generated = false;
+        if (lease == null) {
+            if (generator == null) {
+                throw new TestDataException(dataType, "lease", String.format(
+                    "No matching item was released within %d ms", TimeUnit.NANOSECONDS.toMillis(timeoutNanos)));
+            }
+            T item = generator.get();
+            dataManager.addTestData(dataType, item);
+            lease = tryLease(dataType, Collections.singletonList(item), candidate -> true);
+            if (lease == null) {
+                throw new TestDataException(dataType, "lease", "Generated item is already leased: " + item.getId());
+            }
+            generated = true;
+        }
+        return granted(lease, System.nanoTime() - start, generated);
+    }
+
+    /**
+     * Release all leases taken on the current thread (scenario teardown)
+     */
+    public int releaseAll() {
+        List<Lease<?>> leases = heldLeases.get();
+        int released = 0;
+        for (Lease<?> lease : leases) {
+            if (lease.release()) {
+                released++;
+            }
+        }
+        leases.clear();
+        if (released > 0) {
+            logger.debug("Released {} test data leases", released);
+        }
+        return released;
+    }
+
+    public boolean isLeased(String dataType, String id) {
+        AtomicLong slot = slots.get(key(dataType, id));
+        return slot != null && slot.get() != FREE;
+    }
+
+    public LeaseStatistics getStatistics() {
+        return new LeaseStatistics(leaseCount.sum(), generatedCount.sum(), waitedCount.sum(),
+                                   TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()),
+                                   TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()), contendedCount.sum());
+    }
+
+    /**
+     * The current thread's lease on one of the items that matches the filter, or null
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends BaseTestDataModel> Lease<T> heldLease(String dataType, List<T> items, Predicate<? super T> filter) {
+        Map<String, Lease<?>> heldById = new HashMap<>();
+        for (Lease<?> lease : heldLeases.get()) {
+            if (lease.dataType.equals(dataType) && lease.isHeld()) {
+                heldById.put(lease.item.getId(), lease);
+            }
+        }
+        if (heldById.isEmpty()) {
+            return null;
+        }
+        for (T item : items) {
+            Lease<?> lease = heldById.get(item.getId());
+            if (lease != null && filter.test(item)) {
+                return (Lease<T>) lease;
+            }
+        }
+        return null;
+    }
+    
+    private <T extends BaseTestDataModel> Lease<T> tryLease(String dataType, List<T> items, Predicate<? super T> filter) {
+        int size = items.size();
+        if (size == 0) {
+            return null;
+        }
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        long token = 0;
+        for (int i = 0; i < size; i++) {
+            T item = items.get((offset + i) % size);
+            AtomicLong slot = slotFor(dataType, item.getId());
+            if (slot.get() != FREE || !filter.test(item)) {
+                continue;
+            }
+            if (token == 0) {
+                token = tokens.incrementAndGet();
+            }
+            if (slot.compareAndSet(FREE, token)) {
+                return new Lease<>(dataType, item, slot, token);
+            }
+            contendedCount.increment();
+        }
+        return null;
+    }
+
+    private <T extends BaseTestDataModel> Lease<T> granted(Lease<T> lease, long waitedNanos, boolean generated) {
+        lease.waitNanos = waitedNanos;
+        lease.generated = generated;
+        heldLeases.get().add(lease);
+
+        leaseCount.increment();
+        totalWaitNanos.add(waitedNanos);
+        maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+        if (generated) {
+            generatedCount.increment();
+            logger.info("All matching {} were leased for {} ms, generated {}",
+                       lease.dataType, TimeUnit.NANOSECONDS.toMillis(waitedNanos), lease.item.getId());
+        } else if (waitedNanos >= MIN_BACKOFF_NANOS) {
+            waitedCount.increment();
+            logger.debug("Leased {} {} after waiting {} ms",
+                        lease.dataType, lease.item.getId(), TimeUnit.NANOSECONDS.toMillis(waitedNanos));
+        }
+        return lease;
+    }
+
+    private AtomicLong slotFor(String dataType, String id) {
+        String key = key(dataType, id);
+        AtomicLong slot = slots.get(key);
+        if (slot == null) {
+            AtomicLong added = new AtomicLong(FREE);
+            slot = slots.putIfAbsent(key, added);
+            if (slot == null) {
+                slot = added;
+            }
+        }
+        return slot;
+    }
+
+    private static String key(String dataType, String id) {
+        return dataType + ":" + id;
+    }
+
+    /**
+     * An item held exclusively until release (or releaseAll on the leasing thread)
+     */
+    public static final class Lease<T extends BaseTestDataModel> {
+        private final String dataType;
+        private final T item;
+        private final AtomicLong slot;
+        private final long token;
+        private long waitNanos;
+        private boolean generated;
+
+        private Lease(String dataType, T item, AtomicLong slot, long token) {
+            this.dataType = dataType;
+            this.item = item;
+            this.slot = slot;
+            this.token = token;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public String getDataType() {
+            return dataType;
+        }
+
+        public long getWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        }
+
+        /**
+         * True when no matching item was free and this one was generated for the lease
+         */
+        public boolean isGenerated() {
+            return generated;
+        }
+
+        public boolean isHeld() {
+            return slot.get() == token;
+        }
+
+        /**
+         * Release the item; false if it was already released
+         */
+        public boolean release() {
+            return slot.compareAndSet(token, FREE);
+        }
+    }
+
+    /**
+     * Lease statistics class
+     */
+    public static class LeaseStatistics {
+        public final long leases;
+        public final long generated;
+        public final long waited;
+        public final long totalWaitMillis;
+        public final long maxWaitMillis;
+        public final long contended;
+
+        public LeaseStatistics(long leases, long generated, long waited, long totalWaitMillis, long maxWaitMillis,
+                               long contended) {
+            this.leases = leases;
+            this.generated = generated;
+            this.waited = waited;
+            this.totalWaitMillis = totalWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.contended = contended;
+        }
+
+        public long getAverageWaitMillis() {
+            return leases == 0 ? 0 : totalWaitMillis / leases;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LeaseStatistics{leases=%d, generated=%d, waited=%d, avgWait=%dms, maxWait=%dms, contended=%d}",
+                               leases, generated, waited, getAverageWaitMillis(), maxWaitMillis, contended);
+        }
+    }
+}
@@ -1,19 +1,38 @@
 package testdata.providers;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.CollectionType;
 import exceptions.TestDataException;
 import org.slf4j.Logger;
 import testdata.models.BaseTestDataModel;
 import utils.ErrorHandler;
 import utils.LoggingUtil;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Centralized test data manager for loading, caching, and providing test data
@@ -23,14 +42,26 @@ public class TestDataManager {
     
     private static final Logger logger = LoggingUtil.getLogger(TestDataManager.class);
     private static TestDataManager instance;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    // Items between samples of used heap while loading
+    private static final int HEAP_SAMPLE_INTERVAL = 1000;
+    // Items validated per ForkJoin task; smaller batches are validated on the calling thread
+    private static final int VALIDATION_CHUNK = 1024;
     private final Map<String, Map<String, BaseTestDataModel>> dataCache;
-    private final ObjectMapper objectMapper;
+    // Secondary indexes per data type; every cache write goes through store/evict to keep them current.
+    // Cached models report in-place changes (setters) and are re-indexed before the next lookup or statistics read
+    private final Map<String, TestDataIndexes> dataIndexes = new ConcurrentHashMap<>();
+    // Created on first JSON use: loading Jackson takes a few hundred ms that runs without JSON data skip
+    private volatile ObjectMapper objectMapper;
     private final Set<String> loadedSources;
+    // Changes of the scenario running on the current thread, kept apart from the shared data until it ends
+    private final ThreadLocal<ScenarioOverlay> scenarioOverlay = new ThreadLocal<>();
+    // Default data per type, added on first access to the type rather than when a provider is created
+    private final Map<String, TypeInitializer> initializers = new ConcurrentHashMap<>();
     
     private TestDataManager() {
         this.dataCache = new ConcurrentHashMap<>();
-        this.objectMapper = new ObjectMapper();
-        this.loadedSources = new HashSet<>();
+        this.loadedSources = ConcurrentHashMap.newKeySet();
         logger.info("TestDataManager initialized");
     }
     
@@ -45,54 +76,153 @@ public class TestDataManager {
     }
     
     /**
-     * Load test data from JSON file
+     * Load test data from a JSON file holding an array of items or a single item. Items are read one at
+     * a time with a streaming parser, then validated and stored, so heap use does not grow with the file
+     * size. The path is looked up on the classpath first, then on the file system; gzip content is
+     * detected and decompressed. Items read before a parse or validation error stay loaded
      */
-    public <T extends BaseTestDataModel> void loadFromJson(String dataType, String filePath, Class<T> modelClass) {
+    public <T extends BaseTestDataModel> LoadStatistics loadFromJson(String dataType, String filePath, Class<T> modelClass) {
         try {
+            ensureInitialized(dataType);
             ErrorHandler.validateNotEmpty(dataType, "data type");
             ErrorHandler.validateNotEmpty(filePath, "file path");
             ErrorHandler.validateNotNull(modelClass, "model class");
             
             logger.info("Loading test data from JSON - Type: {}, File: {}", dataType, filePath);
+            long start = System.nanoTime();
+            long peakHeap = usedHeap();
+            long items = 0;
             
-            InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath);
-            if (inputStream == null) {
-                throw new TestDataException("TestDataManager", "loadFromJson", 
-                    "JSON file not found: " + filePath);
-            }
-            
-            String content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-            
-            // Try to parse as array first, then as single object
-            List<T> dataList;
-            try {
-                CollectionType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, modelClass);
-                dataList = objectMapper.readValue(content, listType);
-            } catch (Exception e) {
-                // If array parsing fails, try single object
-                T singleObject = objectMapper.readValue(content, modelClass);
-                dataList = Collections.singletonList(singleObject);
-            }
-            
-            // Store in cache
             Map<String, BaseTestDataModel> typeCache = dataCache.computeIfAbsent(dataType, k -> new ConcurrentHashMap<>());
-            
-            for (T item : dataList) {
-                item.validate(); // Validate before storing
-                typeCache.put(item.getId(), item);
-                logger.debug("Loaded test data item: {}", item.getSummary());
+            try (InputStream input = openJson(filePath);
+                 MappingIterator<T> iterator = objectMapper().readerFor(modelClass).readValues(input)) {
+                while (iterator.hasNextValue()) {
+                    T item = iterator.nextValue();
+                    item.validate(); // Validate before storing
+                    store(dataType, typeCache, item);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Loaded test data item: {}", item.getSummary());
+                    }
+                    if (++items % HEAP_SAMPLE_INTERVAL == 0) {
+                        peakHeap = Math.max(peakHeap, usedHeap());
+                    }
+                }
             }
             
             loadedSources.add(filePath);
-            logger.info("Successfully loaded {} test data items of type '{}' from JSON file: {}", 
-                       dataList.size(), dataType, filePath);
+            LoadStatistics statistics = new LoadStatistics(dataType, filePath, items, System.nanoTime() - start,
+                                                           Math.max(peakHeap, usedHeap()));
+            logger.info("Successfully loaded {} test data items of type '{}' from JSON file: {} ({})", 
+                       items, dataType, filePath, statistics);
+            return statistics;
             
         } catch (Exception e) {
             ErrorHandler.handleTestDataError(dataType, "loadFromJson", 
                 String.format("Failed to load from file: %s", filePath));
+            return null;
         }
     }
     
+    /**
+     * Load several JSON sources at the same time, one loader thread per source up to the given count.
+     * Different data types are stored without contending; a failed source does not stop the others and
+     * is reported once all sources have finished
+     */
+    public List<LoadStatistics> loadFromJson(List<JsonSource<?>> sources, int threads) {
+        ErrorHandler.validateNotNull(sources, "sources");
+        if (sources.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        long start = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService loaders = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, sources.size())), runnable -> {
+            Thread thread = new Thread(runnable, "testdata-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<LoadStatistics>> futures = new ArrayList<>();
+            for (JsonSource<?> source : sources) {
+                futures.add(loaders.submit(() -> loadFromJson(source.dataType, source.filePath, source.modelClass)));
+            }
+            
+            List<LoadStatistics> loaded = new ArrayList<>();
+            List<String> failed = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    loaded.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    failed.add(sources.get(i).filePath);
+                }
+            }
+            
+            long items = loaded.stream().mapToLong(statistics -> statistics.items).sum();
+            long peakHeap = loaded.stream().mapToLong(statistics -> statistics.peakHeapBytes).max().orElse(0);
+            LoadStatistics total = new LoadStatistics("ALL", sources.size() + " sources", items, System.nanoTime() - start, peakHeap);
+            logger.info("Loaded {} JSON sources on {} threads: {}", loaded.size(), Math.min(threads, sources.size()), total);
+            
+            if (!failed.isEmpty()) {
+                throw new TestDataException("TestDataManager", "loadFromJson", 
+                    "Failed to load: " + String.join(", ", failed));
+            }
+            return loaded;
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TestDataException("TestDataManager", "loadFromJson", "Interrupted while loading JSON sources");
+        } finally {
+            loaders.shutdownNow();
+        }
+    }
+    
+    private InputStream openJson(String filePath) throws IOException {
+        InputStream input = getClass().getClassLoader().getResourceAsStream(filePath);
+        if (input == null) {
+            Path path = Paths.get(filePath);
+            if (!Files.isRegularFile(path)) {
+                throw new TestDataException("TestDataManager", "loadFromJson", 
+                    "JSON file not found: " + filePath);
+            }
+            input = Files.newInputStream(path);
+        }
+        
+        BufferedInputStream buffered = new BufferedInputStream(input, STREAM_BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(buffered, STREAM_BUFFER_SIZE);
+        }
+        return buffered;
+    }
+    
+    private static long usedHeap() {
+        return MemoryHolder.MEMORY.getHeapMemoryUsage().getUsed();
+    }
+    
+    private ObjectMapper objectMapper() {
+        ObjectMapper mapper = objectMapper;
+        if (mapper == null) {
+            synchronized (this) {
+                mapper = objectMapper;
+                if (mapper == null) {
+                    mapper = new ObjectMapper();
+                    objectMapper = mapper;
+                }
+            }
+        }
+        return mapper;
+    }
+    
+    /**
+     * Memory bean, looked up on the first JSON load
+     */
+    private static final class MemoryHolder {
+        static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    }
+    
     /**
      * Add test data programmatically
      */
@@ -103,8 +233,13 @@ public class TestDataManager {
             
             data.validate(); // Validate before storing
             
-            Map<String, BaseTestDataModel> typeCache = dataCache.computeIfAbsent(dataType, k -> new ConcurrentHashMap<>());
-            typeCache.put(data.getId(), data);
+            ensureInitialized(dataType);
+            ScenarioOverlay overlay = scenarioOverlay.get();
+            if (overlay != null) {
+                overlay.put(dataType, data);
+            } else {
+                store(dataType, dataCache.computeIfAbsent(dataType, k -> new ConcurrentHashMap<>()), data);
+            }
             
             logger.debug("Added test data item: {}", data.getSummary());
             
@@ -114,6 +249,73 @@ public class TestDataManager {
         }
     }
     
+    /**
+     * Add a batch of test data: validated in parallel first, and if any item is invalid all of their
+     * errors are logged and nothing is added
+     */
+    public <T extends BaseTestDataModel> void addAllTestData(String dataType, Collection<T> items) {
+        ErrorHandler.validateNotEmpty(dataType, "data type");
+        ErrorHandler.validateNotNull(items, "test data");
+        
+        List<String> validationErrors = validateItems(new ArrayList<>(items));
+        if (!validationErrors.isEmpty()) {
+            validationErrors.forEach(error -> logger.warn("{}", error));
+            ErrorHandler.handleTestDataError(dataType, "addAllTestData", String.format(
+                "%d of %d items are invalid, none were added (first: %s)",
+                validationErrors.size(), items.size(), validationErrors.get(0)));
+        }
+        
+        ensureInitialized(dataType);
+        ScenarioOverlay overlay = scenarioOverlay.get();
+        Map<String, BaseTestDataModel> typeCache = overlay == null
+            ? dataCache.computeIfAbsent(dataType, k -> new ConcurrentHashMap<>()) : null;
+        for (T data : items) {
+            if (overlay != null) {
+                overlay.put(dataType, data);
+            } else {
+                store(dataType, typeCache, data);
+            }
+        }
+        logger.debug("Added {} test data items of type '{}'", items.size(), dataType);
+    }
+    
+    /**
+     * Give the scenario running on the current thread its own view of the test data: adds, updates,
+     * removes and clears from this thread go to a copy-on-write overlay that only this thread sees, reads
+     * fall through to the shared data. Parallel scenarios can change data without affecting each other.
+     * Reads return copies of shared items, so changing one in place never reaches other scenarios; store
+     * the change with updateTestData. JSON loads still go to the shared data
+     */
+    public void beginScenario() {
+        scenarioOverlay.set(new ScenarioOverlay());
+    }
+    
+    /**
+     * True while the current thread runs a scenario (between beginScenario and endScenario)
+     */
+    public boolean isScenarioActive() {
+        return scenarioOverlay.get() != null;
+    }
+    
+    /**
+     * Overlay of the current thread's scenario, or null; for data kept outside the manager (the columnar
+     * bulk policies) that a scenario changes the same way
+     */
+    ScenarioOverlay currentScenario() {
+        return scenarioOverlay.get();
+    }
+    
+    /**
+     * Discard the current thread's scenario changes; the shared data was never modified
+     */
+    public void endScenario() {
+        ScenarioOverlay overlay = scenarioOverlay.get();
+        scenarioOverlay.remove();
+        if (overlay != null) {
+            logger.debug("Discarded {} scenario-scoped test data changes", overlay.changeCount());
+        }
+    }
+    
     /**
      * Get test data by ID and type
      */
@@ -124,13 +326,15 @@ public class TestDataManager {
             ErrorHandler.validateNotEmpty(id, "ID");
             ErrorHandler.validateNotNull(expectedClass, "expected class");
             
+            ensureInitialized(dataType);
             Map<String, BaseTestDataModel> typeCache = dataCache.get(dataType);
-            if (typeCache == null) {
+            ScenarioOverlay overlay = scenarioOverlay.get();
+            if (typeCache == null && (overlay == null || !overlay.touches(dataType))) {
                 logger.warn("No test data loaded for type: {}", dataType);
                 return null;
             }
             
-            BaseTestDataModel data = typeCache.get(id);
+            BaseTestDataModel data = overlay != null ? overlay.get(dataType, id, typeCache) : typeCache.get(id);
             if (data == null) {
                 logger.warn("Test data not found - Type: {}, ID: {}", dataType, id);
                 return null;
@@ -143,7 +347,7 @@ public class TestDataManager {
             }
             
             logger.debug("Retrieved test data: {}", data.getSummary());
-            return (T) data;
+            return (T) scenarioCopy(overlay, dataType, data);
             
         } catch (Exception e) {
             ErrorHandler.handleTestDataError(dataType, "getTestData", 
@@ -155,24 +359,10 @@ public class TestDataManager {
     /**
      * Get all test data of a specific type
      */
-    @SuppressWarnings("unchecked")
     public <T extends BaseTestDataModel> List<T> getAllTestData(String dataType, Class<T> expectedClass) {
         try {
-            ErrorHandler.validateNotEmpty(dataType, "data type");
-            ErrorHandler.validateNotNull(expectedClass, "expected class");
-            
-            Map<String, BaseTestDataModel> typeCache = dataCache.get(dataType);
-            if (typeCache == null) {
-                logger.warn("No test data loaded for type: {}", dataType);
-                return new ArrayList<>();
-            }
-            
-            List<T> result = new ArrayList<>();
-            for (BaseTestDataModel data : typeCache.values()) {
-                if (expectedClass.isInstance(data)) {
-                    result.add((T) data);
-                }
-            }
+            List<T> result = visibleTestData(dataType, expectedClass);
+            scenarioCopies(scenarioOverlay.get(), dataType, result);
             
             logger.debug("Retrieved {} test data items of type: {}", result.size(), dataType);
             return result;
@@ -185,19 +375,17 @@ public class TestDataManager {
     }
     
     /**
-     * Get test data with custom filter
+     * Get test data with custom filter; the filter sees the stored items, only matches are copied
      */
-    @SuppressWarnings("unchecked")
     public <T extends BaseTestDataModel> List<T> getTestDataWhere(String dataType, Class<T> expectedClass, Predicate<T> filter) {
         try {
-            ErrorHandler.validateNotEmpty(dataType, "data type");
-            ErrorHandler.validateNotNull(expectedClass, "expected class");
             ErrorHandler.validateNotNull(filter, "filter");
             
-            List<T> allData = getAllTestData(dataType, expectedClass);
+            List<T> allData = visibleTestData(dataType, expectedClass);
             List<T> filtered = allData.stream()
                 .filter(filter)
                 .collect(Collectors.toList());
+            scenarioCopies(scenarioOverlay.get(), dataType, filtered);
             
             logger.debug("Filtered {} items from {} total items of type: {}", 
                         filtered.size(), allData.size(), dataType);
@@ -210,19 +398,329 @@ public class TestDataManager {
         }
     }
     
+    /**
+     * Define an equality index, e.g. defineIndex("policies", PolicyModel.class, "status", PolicyModel::getStatus)
+     * String keys match case-insensitively; items with a null key are not indexed
+     */
+    public <T extends BaseTestDataModel> void defineIndex(String dataType, Class<T> modelClass, String indexName,
+                                                          Function<? super T, ?> keyExtractor) {
+        defineIndex(dataType, modelClass, indexName, keyExtractor, false);
+    }
+    
+    /**
+     * Define a sorted index for range queries, e.g. on premium amount
+     */
+    public <T extends BaseTestDataModel, K extends Comparable<? super K>> void defineSortedIndex(
+            String dataType, Class<T> modelClass, String indexName, Function<? super T, K> keyExtractor) {
+        defineIndex(dataType, modelClass, indexName, keyExtractor, true);
+    }
+    
+    private <T extends BaseTestDataModel> void defineIndex(String dataType, Class<T> modelClass, String indexName,
+                                                           Function<? super T, ?> keyExtractor, boolean sorted) {
+        ErrorHandler.validateNotEmpty(dataType, "data type");
+        ErrorHandler.validateNotEmpty(indexName, "index name");
+        ErrorHandler.validateNotNull(keyExtractor, "key extractor");
+        
+        Map<String, BaseTestDataModel> typeCache = dataCache.computeIfAbsent(dataType, k -> new ConcurrentHashMap<>());
+        Function<BaseTestDataModel, ?> extractor =
+            item -> modelClass.isInstance(item) ? keyExtractor.apply(modelClass.cast(item)) : null;
+        TestDataIndexes indexes = indexesFor(dataType);
+        synchronized (indexes) {
+            if (indexes.define(indexName, extractor, sorted, typeCache.values())) {
+                logger.debug("Defined {}index '{}' on type '{}' over {} items",
+                            sorted ? "sorted " : "", indexName, dataType, typeCache.size());
+            }
+        }
+    }
+    
+    /**
+     * Get test data whose indexed key equals the given value, without scanning the type
+     */
+    public <T extends BaseTestDataModel> List<T> getTestDataByIndex(String dataType, Class<T> expectedClass,
+                                                                    String indexName, Object key) {
+        try {
+            TestDataIndexes.Index index = requireIndex(dataType, indexName, false);
+            List<T> result = collect(dataType, expectedClass, index, () -> Collections.singletonList(index.itemsFor(key)));
+            ScenarioOverlay overlay = scenarioOverlay.get();
+            if (overlay != null && overlay.touches(dataType)) {
+                result = overlay.merge(dataType, result, item -> expectedClass.isInstance(item) && index.matches(item, key), null);
+            }
+            scenarioCopies(overlay, dataType, result);
+            logger.debug("Index lookup {}.{}={} returned {} items", dataType, indexName, key, result.size());
+            return result;
+            
+        } catch (Exception e) {
+            ErrorHandler.handleTestDataError(dataType, "getTestDataByIndex", 
+                String.format("Failed to look up index '%s' for key: %s", indexName, key));
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Get test data with min &lt;= indexed key &lt;= max from a sorted index, in ascending key order
+     * A null bound leaves that side open
+     */
+    public <T extends BaseTestDataModel, K extends Comparable<? super K>> List<T> getTestDataInRange(
+            String dataType, Class<T> expectedClass, String indexName, K min, K max) {
+        try {
+            TestDataIndexes.Index index = requireIndex(dataType, indexName, true);
+            List<T> result = collect(dataType, expectedClass, index, () -> index.itemsBetween(min, max));
+            ScenarioOverlay overlay = scenarioOverlay.get();
+            if (overlay != null && overlay.touches(dataType)) {
+                result = overlay.merge(dataType, result, 
+                    item -> expectedClass.isInstance(item) && index.inRange(item, min, max), index.keyOrder());
+            }
+            scenarioCopies(overlay, dataType, result);
+            logger.debug("Range lookup {}.{} in [{}, {}] returned {} items", dataType, indexName, min, max, result.size());
+            return result;
+            
+        } catch (Exception e) {
+            ErrorHandler.handleTestDataError(dataType, "getTestDataInRange", 
+                String.format("Failed to look up index '%s' for range: %s - %s", indexName, min, max));
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Define running statistics over a type, e.g. counts by status and the premium total, kept current on
+     * every add, update and remove. Each item sets one bit per counter it adds to, so reading is O(1);
+     * defining the same name again returns the existing statistics
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends BaseTestDataModel> TestDataStatistics<T> defineStatistics(
+            String dataType, Class<T> modelClass, String name, int counterCount,
+            ToLongFunction<? super T> flags, List<Function<? super T, BigDecimal>> amounts) {
+        ErrorHandler.validateNotEmpty(dataType, "data type");
+        ErrorHandler.validateNotEmpty(name, "statistics name");
+        ErrorHandler.validateNotNull(flags, "flags");
+        ErrorHandler.validateNotNull(amounts, "amounts");
+        
+        Map<String, BaseTestDataModel> typeCache = dataCache.computeIfAbsent(dataType, k -> new ConcurrentHashMap<>());
+        TestDataIndexes indexes = indexesFor(dataType);
+        synchronized (indexes) {
+            TestDataStatistics<?> statistics = indexes.defineStatistics(name,
+                new TestDataStatistics<>(modelClass, counterCount, flags, amounts), typeCache.values());
+            logger.debug("Defined statistics '{}' on type '{}' over {} items", name, dataType, typeCache.size());
+            return (TestDataStatistics<T>) statistics;
+        }
+    }
+    
+    /**
+     * Current statistics of a type, including the changes of the current thread's scenario
+     */
+    public TestDataStatistics.Totals getStatistics(String dataType, String name) {
+        TestDataStatistics<?> statistics = requireStatistics(dataType, name, "getStatistics");
+        ScenarioOverlay overlay = scenarioOverlay.get();
+        if (overlay == null || !overlay.touches(dataType)) {
+            return statistics.snapshot();
+        }
+        return statistics.snapshot(overlay.hidesAll(dataType), overlay.hiddenIds(dataType), overlay.written(dataType));
+    }
+    
+    /**
+     * Recompute statistics in one pass over the type, for items changed in place without updateTestData
+     */
+    public TestDataStatistics.Totals recalculateStatistics(String dataType, String name) {
+        TestDataStatistics<?> statistics = requireStatistics(dataType, name, "recalculateStatistics");
+        Map<String, BaseTestDataModel> typeCache = dataCache.computeIfAbsent(dataType, k -> new ConcurrentHashMap<>());
+        TestDataIndexes indexes = indexesFor(dataType);
+        synchronized (indexes) {
+            statistics.rebuild(typeCache.values());
+        }
+        return getStatistics(dataType, name);
+    }
+    
+    private TestDataStatistics<?> requireStatistics(String dataType, String name, String operation) {
+        ErrorHandler.validateNotEmpty(dataType, "data type");
+        ErrorHandler.validateNotEmpty(name, "statistics name");
+        
+        ensureInitialized(dataType);
+        TestDataIndexes indexes = dataIndexes.get(dataType);
+        TestDataStatistics<?> statistics = indexes != null ? indexes.getStatistics(name) : null;
+        if (statistics == null) {
+            throw new TestDataException("TestDataManager", operation, 
+                String.format("No statistics '%s' defined for type: %s", name, dataType));
+        }
+        reindexChanged(dataType);
+        return statistics;
+    }
+    
+    private TestDataIndexes.Index requireIndex(String dataType, String indexName, boolean sorted) {
+        ErrorHandler.validateNotEmpty(dataType, "data type");
+        ErrorHandler.validateNotEmpty(indexName, "index name");
+        
+        ensureInitialized(dataType);
+        TestDataIndexes indexes = dataIndexes.get(dataType);
+        TestDataIndexes.Index index = indexes != null ? indexes.get(indexName) : null;
+        if (index == null) {
+            throw new TestDataException("TestDataManager", "index lookup", 
+                String.format("No index '%s' defined for type: %s", indexName, dataType));
+        }
+        if (sorted && !index.isSorted()) {
+            throw new TestDataException("TestDataManager", "index lookup", 
+                String.format("Index '%s' of type %s is not sorted", indexName, dataType));
+        }
+        reindexChanged(dataType);
+        return index;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T extends BaseTestDataModel> List<T> collect(String dataType, Class<T> expectedClass,
+                                                          TestDataIndexes.Index index,
+                                                          Supplier<List<Collection<BaseTestDataModel>>> lookup) {
+        List<T> result = new ArrayList<>();
+        List<BaseTestDataModel> stale = new ArrayList<>();
+        for (Collection<BaseTestDataModel> items : lookup.get()) {
+            for (BaseTestDataModel data : items) {
+                if (!index.isCurrent(data)) {
+                    stale.add(data);
+                } else if (expectedClass.isInstance(data)) {
+                    result.add((T) data);
+                }
+            }
+        }
+        if (stale.isEmpty()) {
+            return result;
+        }
+        
+        // Items changed without a change notification (e.g. fields written directly): re-index them and look up once more
+        logger.debug("Re-indexing {} items of type '{}' changed since they were indexed", stale.size(), dataType);
+        Map<String, BaseTestDataModel> typeCache = dataCache.get(dataType);
+        TestDataIndexes indexes = indexesFor(dataType);
+        synchronized (indexes) {
+            for (BaseTestDataModel data : stale) {
+                if (typeCache != null && typeCache.get(data.getId()) == data) {
+                    indexes.put(data);
+                }
+            }
+        }
+        result.clear();
+        for (Collection<BaseTestDataModel> items : lookup.get()) {
+            for (BaseTestDataModel data : items) {
+                if (expectedClass.isInstance(data)) {
+                    result.add((T) data);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Under a scenario, a copy of a shared item, so changing it in place cannot reach the shared data or
+     * other scenarios; the scenario's own items and items read outside a scenario are returned as they are
+     */
+    private static BaseTestDataModel scenarioCopy(ScenarioOverlay overlay, String dataType, BaseTestDataModel data) {
+        return overlay == null || overlay.owns(dataType, data) ? data : data.copy();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T extends BaseTestDataModel> void scenarioCopies(ScenarioOverlay overlay, String dataType, List<T> items) {
+        if (overlay == null) {
+            return;
+        }
+        for (ListIterator<T> iterator = items.listIterator(); iterator.hasNext(); ) {
+            iterator.set((T) scenarioCopy(overlay, dataType, iterator.next()));
+        }
+    }
+    
+    /**
+     * Items of a type and class as the current thread sees them, not copied; callers copy what they return
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends BaseTestDataModel> List<T> visibleTestData(String dataType, Class<T> expectedClass) {
+        ErrorHandler.validateNotEmpty(dataType, "data type");
+        ErrorHandler.validateNotNull(expectedClass, "expected class");
+        
+        ensureInitialized(dataType);
+        Map<String, BaseTestDataModel> typeCache = dataCache.get(dataType);
+        ScenarioOverlay overlay = scenarioOverlay.get();
+        List<T> result = new ArrayList<>();
+        if (typeCache == null && (overlay == null || !overlay.touches(dataType))) {
+            logger.warn("No test data loaded for type: {}", dataType);
+            return result;
+        }
+        for (BaseTestDataModel data : visibleItems(dataType, typeCache)) {
+            if (expectedClass.isInstance(data)) {
+                result.add((T) data);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Items of a type as the current thread sees them; typeCache may be null
+     */
+    private Collection<BaseTestDataModel> visibleItems(String dataType, Map<String, BaseTestDataModel> typeCache) {
+        ScenarioOverlay overlay = scenarioOverlay.get();
+        Collection<BaseTestDataModel> shared = typeCache != null ? typeCache.values() : Collections.emptyList();
+        return overlay != null && overlay.touches(dataType) ? overlay.visible(dataType, shared) : shared;
+    }
+    
+    private TestDataIndexes indexesFor(String dataType) {
+        return dataIndexes.computeIfAbsent(dataType, k -> new TestDataIndexes());
+    }
+    
+    private BaseTestDataModel store(String dataType, Map<String, BaseTestDataModel> typeCache, BaseTestDataModel data) {
+        TestDataIndexes indexes = indexesFor(dataType);
+        synchronized (indexes) {
+            String id = data.getId();
+            BaseTestDataModel previous = typeCache.put(id, data);
+            if (previous != null && previous != data) {
+                previous.setChangeListener(null);
+            }
+            indexes.put(data);
+            data.setChangeListener(changed -> indexes.markChanged(id));
+            return previous;
+        }
+    }
+    
+    private BaseTestDataModel evict(String dataType, Map<String, BaseTestDataModel> typeCache, String id) {
+        TestDataIndexes indexes = indexesFor(dataType);
+        synchronized (indexes) {
+            BaseTestDataModel removed = typeCache.remove(id);
+            if (removed != null) {
+                removed.setChangeListener(null);
+                indexes.remove(id);
+            }
+            return removed;
+        }
+    }
+    
+    /**
+     * Re-index cached items of a type that were changed in place since they were indexed
+     */
+    private void reindexChanged(String dataType) {
+        TestDataIndexes indexes = dataIndexes.get(dataType);
+        if (indexes == null || !indexes.hasChanges()) {
+            return;
+        }
+        Map<String, BaseTestDataModel> typeCache = dataCache.get(dataType);
+        synchronized (indexes) {
+            List<String> changedIds = indexes.drainChanges();
+            for (String id : changedIds) {
+                BaseTestDataModel data = typeCache != null ? typeCache.get(id) : null;
+                if (data != null) {
+                    indexes.put(data);
+                }
+            }
+            logger.debug("Re-indexed {} items of type '{}' changed in place", changedIds.size(), dataType);
+        }
+    }
+    
     /**
      * Get random test data item of a specific type
      */
+    @SuppressWarnings("unchecked")
     public <T extends BaseTestDataModel> T getRandomTestData(String dataType, Class<T> expectedClass) {
         try {
-            List<T> allData = getAllTestData(dataType, expectedClass);
+            List<T> allData = visibleTestData(dataType, expectedClass);
             if (allData.isEmpty()) {
                 logger.warn("No test data available for random selection - Type: {}", dataType);
                 return null;
             }
             
             Random random = new Random();
-            T randomData = allData.get(random.nextInt(allData.size()));
+            T randomData = (T) scenarioCopy(scenarioOverlay.get(), dataType, allData.get(random.nextInt(allData.size())));
             logger.debug("Selected random test data: {}", randomData.getSummary());
             return randomData;
             
@@ -243,18 +741,29 @@ public class TestDataManager {
             
             data.validate(); // Validate before updating
             
+            ensureInitialized(dataType);
             Map<String, BaseTestDataModel> typeCache = dataCache.get(dataType);
-            if (typeCache == null) {
+            ScenarioOverlay overlay = scenarioOverlay.get();
+            if (typeCache == null && (overlay == null || !overlay.touches(dataType))) {
                 throw new TestDataException("TestDataManager", "updateTestData", 
                     "No data cache exists for type: " + dataType);
             }
             
-            if (!typeCache.containsKey(data.getId())) {
+            BaseTestDataModel current = overlay != null ? overlay.get(dataType, data.getId(), typeCache) : typeCache.get(data.getId());
+            if (current == null) {
                 throw new TestDataException("TestDataManager", "updateTestData", 
                     String.format("Test data not found for update - Type: %s, ID: %s", dataType, data.getId()));
             }
             
-            typeCache.put(data.getId(), data);
+            if (overlay != null) {
+                if (typeCache != null && typeCache.get(data.getId()) == data) {
+                    logger.warn("Scenario updated {} with the shared instance; changes made to it in place are seen by "
+                              + "other scenarios. Update a copy from copyTestData instead", data.getId());
+                }
+                overlay.put(dataType, data);
+            } else {
+                store(dataType, typeCache, data);
+            }
             logger.debug("Updated test data: {}", data.getSummary());
             
         } catch (Exception e) {
@@ -271,13 +780,23 @@ public class TestDataManager {
             ErrorHandler.validateNotEmpty(dataType, "data type");
             ErrorHandler.validateNotEmpty(id, "ID");
             
+            ensureInitialized(dataType);
             Map<String, BaseTestDataModel> typeCache = dataCache.get(dataType);
-            if (typeCache == null) {
+            ScenarioOverlay overlay = scenarioOverlay.get();
+            if (typeCache == null && (overlay == null || !overlay.touches(dataType))) {
                 logger.warn("No data cache exists for type: {}", dataType);
                 return;
             }
             
-            BaseTestDataModel removed = typeCache.remove(id);
+            BaseTestDataModel removed;
+            if (overlay != null) {
+                removed = overlay.get(dataType, id, typeCache);
+                if (removed != null) {
+                    overlay.remove(dataType, id);
+                }
+            } else {
+                removed = evict(dataType, typeCache, id);
+            }
             if (removed != null) {
                 logger.debug("Removed test data: {}", removed.getSummary());
             } else {
@@ -297,10 +816,23 @@ public class TestDataManager {
         try {
             ErrorHandler.validateNotEmpty(dataType, "data type");
             
+            ScenarioOverlay overlay = scenarioOverlay.get();
+            if (overlay != null) {
+                overlay.clear(dataType);
+                logger.info("Cleared test data of type {} for the current scenario", dataType);
+                return;
+            }
+            
+            // Defaults not added yet are cleared as well, as if they had been
+            skipInitialization(dataType);
             Map<String, BaseTestDataModel> typeCache = dataCache.get(dataType);
             if (typeCache != null) {
                 int count = typeCache.size();
-                typeCache.clear();
+                TestDataIndexes indexes = indexesFor(dataType);
+                synchronized (indexes) {
+                    typeCache.clear();
+                    indexes.clear();
+                }
                 logger.info("Cleared {} test data items of type: {}", count, dataType);
             } else {
                 logger.warn("No data cache exists for type: {}", dataType);
@@ -317,10 +849,25 @@ public class TestDataManager {
      */
     public void clearAllTestData() {
         try {
+            ScenarioOverlay overlay = scenarioOverlay.get();
+            if (overlay != null) {
+                overlay.clearAll();
+                logger.info("Cleared all test data for the current scenario");
+                return;
+            }
+            
+            initializers.keySet().forEach(this::skipInitialization);
             int totalCount = dataCache.values().stream()
                 .mapToInt(Map::size)
                 .sum();
             
+            for (Map.Entry<String, Map<String, BaseTestDataModel>> entry : dataCache.entrySet()) {
+                TestDataIndexes indexes = indexesFor(entry.getKey());
+                synchronized (indexes) {
+                    entry.getValue().clear();
+                    indexes.clear();
+                }
+            }
             dataCache.clear();
             loadedSources.clear();
             
@@ -337,10 +884,17 @@ public class TestDataManager {
      * Get data cache statistics
      */
     public Map<String, Integer> getDataStatistics() {
+        initializers.keySet().forEach(this::ensureInitialized);
         Map<String, Integer> stats = new HashMap<>();
         
+        ScenarioOverlay overlay = scenarioOverlay.get();
         for (Map.Entry<String, Map<String, BaseTestDataModel>> entry : dataCache.entrySet()) {
-            stats.put(entry.getKey(), entry.getValue().size());
+            stats.put(entry.getKey(), overlay != null ? overlay.size(entry.getKey(), entry.getValue()) : entry.getValue().size());
+        }
+        if (overlay != null) {
+            for (String dataType : overlay.writtenTypes()) {
+                stats.putIfAbsent(dataType, overlay.size(dataType, null));
+            }
         }
         
         return stats;
@@ -350,6 +904,11 @@ public class TestDataManager {
      * Check if data type is loaded
      */
     public boolean isDataTypeLoaded(String dataType) {
+        ensureInitialized(dataType);
+        ScenarioOverlay overlay = scenarioOverlay.get();
+        if (overlay != null) {
+            return overlay.size(dataType, dataCache.get(dataType)) > 0;
+        }
         return dataCache.containsKey(dataType) && !dataCache.get(dataType).isEmpty();
     }
     
@@ -367,8 +926,9 @@ public class TestDataManager {
         try {
             ErrorHandler.validateNotEmpty(dataType, "data type");
             
-            List<BaseTestDataModel> data = getAllTestData(dataType, BaseTestDataModel.class);
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(data);
+            // Serialized only, so the stored items need no copies
+            List<BaseTestDataModel> data = visibleTestData(dataType, BaseTestDataModel.class);
+            return objectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(data);
             
         } catch (Exception e) {
             ErrorHandler.handleTestDataError(dataType, "exportToJson", 
@@ -397,23 +957,21 @@ public class TestDataManager {
         List<String> validationErrors = new ArrayList<>();
         
         try {
+            ensureInitialized(dataType);
             Map<String, BaseTestDataModel> typeCache = dataCache.get(dataType);
-            if (typeCache == null) {
+            ScenarioOverlay overlay = scenarioOverlay.get();
+            if (typeCache == null && (overlay == null || !overlay.touches(dataType))) {
                 validationErrors.add("No data cache exists for type: " + dataType);
                 return validationErrors;
             }
             
-            for (BaseTestDataModel data : typeCache.values()) {
-                try {
-                    data.validate();
-                } catch (TestDataException e) {
-                    validationErrors.add(String.format("Validation failed for %s: %s", 
-                                                     data.getSummary(), e.getMessage()));
-                }
-            }
+            long start = System.nanoTime();
+            List<BaseTestDataModel> items = new ArrayList<>(visibleItems(dataType, typeCache));
+            validationErrors.addAll(validateItems(items));
             
-            logger.info("Validated {} test data items of type '{}' - {} errors found", 
-                       typeCache.size(), dataType, validationErrors.size());
+            logger.info("Validated {} test data items of type '{}' in {} ms - {} errors found", 
+                       items.size(), dataType, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                       validationErrors.size());
             
         } catch (Exception e) {
             validationErrors.add("Validation process failed: " + e.getMessage());
@@ -421,4 +979,205 @@ public class TestDataManager {
         
         return validationErrors;
     }
+    
+    /**
+     * Validate items, returning one message per invalid item with all of its errors, in item order.
+     * Batches larger than VALIDATION_CHUNK are split across the common ForkJoinPool; each item keeps
+     * its result until it changes, so validating unchanged items again only checks their version
+     */
+    public List<String> validateItems(List<? extends BaseTestDataModel> items) {
+        ErrorHandler.validateNotNull(items, "items");
+        if (items.size() <= VALIDATION_CHUNK) {
+            return validateRange(items, 0, items.size());
+        }
+        return ForkJoinPool.commonPool().invoke(new ValidationTask(items, 0, items.size()));
+    }
+    
+    private static List<String> validateRange(List<? extends BaseTestDataModel> items, int from, int to) {
+        List<String> errors = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            BaseTestDataModel item = items.get(i);
+            List<String> itemErrors = item.validationErrors();
+            if (!itemErrors.isEmpty()) {
+                errors.add(String.format("Validation failed for %s: %s", item.getSummary(), String.join("; ", itemErrors)));
+            }
+        }
+        return errors;
+    }
+    
+    /**
+     * Validates a range of items, splitting it in half until it is at most VALIDATION_CHUNK items
+     */
+    private static final class ValidationTask extends RecursiveTask<List<String>> {
+        private static final long serialVersionUID = 1L;
+        
+        private final List<? extends BaseTestDataModel> items;
+        private final int from;
+        private final int to;
+        
+        ValidationTask(List<? extends BaseTestDataModel> items, int from, int to) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected List<String> compute() {
+            if (to - from <= VALIDATION_CHUNK) {
+                return validateRange(items, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ValidationTask first = new ValidationTask(items, from, middle);
+            first.fork();
+            List<String> secondErrors = new ValidationTask(items, middle, to).compute();
+            List<String> errors = first.join();
+            errors.addAll(secondErrors);
+            return errors;
+        }
+    }
+    
+    /**
+     * Register the default data of a type, added on first access to the type (once, even if several
+     * providers register or threads access it concurrently). Later registrations of a type are ignored
+     */
+    public void registerInitializer(String dataType, Runnable initializer) {
+        ErrorHandler.validateNotEmpty(dataType, "data type");
+        ErrorHandler.validateNotNull(initializer, "initializer");
+        initializers.putIfAbsent(dataType, new TypeInitializer(dataType, initializer));
+    }
+    
+    /**
+     * Add the default data of a type if that has not happened yet; other threads wait until it is added
+     */
+    public void ensureInitialized(String dataType) {
+        TypeInitializer initializer = initializers.get(dataType);
+        if (initializer == null || initializer.done) {
+            return;
+        }
+        // Defaults are shared data, even when a scenario is the first to access the type
+        ScenarioOverlay overlay = scenarioOverlay.get();
+        scenarioOverlay.remove();
+        try {
+            initializer.run();
+        } finally {
+            if (overlay != null) {
+                scenarioOverlay.set(overlay);
+            }
+        }
+    }
+    
+    /**
+     * Time taken to add the default data of each initialized type, in milliseconds
+     */
+    public Map<String, Long> getInitializationTimes() {
+        Map<String, Long> times = new HashMap<>();
+        for (TypeInitializer initializer : initializers.values()) {
+            if (initializer.done) {
+                times.put(initializer.dataType, TimeUnit.NANOSECONDS.toMillis(initializer.elapsedNanos));
+            }
+        }
+        return times;
+    }
+    
+    private void skipInitialization(String dataType) {
+        TypeInitializer initializer = initializers.get(dataType);
+        if (initializer != null) {
+            initializer.skip();
+        }
+    }
+    
+    /**
+     * Default data of one type; run adds it once, re-entry from the initializing thread (which adds the
+     * data through this manager) returns at once
+     */
+    private static final class TypeInitializer {
+        private final String dataType;
+        private final Runnable initializer;
+        private volatile boolean done;
+        private boolean running;
+        private long elapsedNanos;
+        
+        TypeInitializer(String dataType, Runnable initializer) {
+            this.dataType = dataType;
+            this.initializer = initializer;
+        }
+        
+        void run() {
+            if (done) {
+                return;
+            }
+            synchronized (this) {
+                if (done || running) {
+                    return;
+                }
+                running = true;
+                long start = System.nanoTime();
+                try {
+                    initializer.run();
+                } finally {
+                    elapsedNanos = System.nanoTime() - start;
+                    running = false;
+                    done = true;
+                }
+            }
+            logger.info("Initialized default test data of type '{}' in {} ms", 
+                       dataType, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        
+        synchronized void skip() {
+            done = true;
+        }
+    }
+    
+    /**
+     * A JSON file to load for one data type, see loadFromJson(List, int)
+     */
+    public static final class JsonSource<T extends BaseTestDataModel> {
+        private final String dataType;
+        private final String filePath;
+        private final Class<T> modelClass;
+        
+        public JsonSource(String dataType, String filePath, Class<T> modelClass) {
+            this.dataType = dataType;
+            this.filePath = filePath;
+            this.modelClass = modelClass;
+        }
+        
+        public String getDataType() {
+            return dataType;
+        }
+        
+        public String getFilePath() {
+            return filePath;
+        }
+    }
+    
+    /**
+     * Outcome of loading one JSON source; peak heap is the highest used heap sampled while loading
+     */
+    public static class LoadStatistics {
+        public final String dataType;
+        public final String source;
+        public final long items;
+        public final long elapsedNanos;
+        public final long peakHeapBytes;
+        
+        public LoadStatistics(String dataType, String source, long items, long elapsedNanos, long peakHeapBytes) {
+            this.dataType = dataType;
+            this.source = source;
+            this.items = items;
+            this.elapsedNanos = elapsedNanos;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+        
+        public long getItemsPerSecond() {
+            return elapsedNanos > 0 ? items * 1_000_000_000L / elapsedNanos : items;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d items in %d ms, %d items/s, peak heap %d MB", items,
+                               TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getItemsPerSecond(), peakHeapBytes >> 20);
+        }
+    }
 }
@@ -0,0 +1,205 @@
+package testdata.providers;
+
+import testdata.models.BaseTestDataModel;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Running counters and sums over one test data type, kept current by TestDataManager on every add,
+ * update and remove so reading them is O(1). Each item contributes a bit set (one counter per bit) and
+ * optional amounts; the contribution is remembered by ID, so an update subtracts exactly what the old
+ * version added even when the object was changed in place. rebuild recomputes everything in one
+ * parallel pass, e.g. after items were changed without updateTestData
+ *
+ * @param <T> model class the statistics are defined over; other items of the type are ignored
+ */
+public class TestDataStatistics<T extends BaseTestDataModel> {
+
+    // Below this many items a sequential pass is faster than splitting the work
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final Class<T> modelClass;
+    private final int counterCount;
+    private final ToLongFunction<? super T> flags;
+    private final List<Function<? super T, BigDecimal>> amounts;
+    private final Map<String, Contribution> contributions = new ConcurrentHashMap<>();
+    private Totals totals;
+
+    TestDataStatistics(Class<T> modelClass, int counterCount, ToLongFunction<? super T> flags,
+                       List<Function<? super T, BigDecimal>> amounts) {
+        if (counterCount < 0 || counterCount > Long.SIZE) {
+            throw new IllegalArgumentException("Counter count must be between 0 and 64: " + counterCount);
+        }
+        this.modelClass = modelClass;
+        this.counterCount = counterCount;
+        this.flags = flags;
+        this.amounts = new ArrayList<>(amounts);
+        this.totals = new Totals(counterCount, amounts.size());
+    }
+
+    /**
+     * Consistent copy of the current totals
+     */
+    public synchronized Totals snapshot() {
+        return totals.copy();
+    }
+
+    /**
+     * Totals as a scenario sees them: without the items it replaced or removed (or any shared item when
+     * it cleared the type), plus the items it wrote
+     */
+    synchronized Totals snapshot(boolean hideAll, Collection<String> hiddenIds, Collection<BaseTestDataModel> written) {
+        Totals view = hideAll ? new Totals(counterCount, amounts.size()) : totals.copy();
+        if (!hideAll) {
+            for (String id : hiddenIds) {
+                Contribution contribution = contributions.get(id);
+                if (contribution != null) {
+                    view.add(contribution, -1);
+                }
+            }
+        }
+        for (BaseTestDataModel item : written) {
+            if (modelClass.isInstance(item)) {
+                view.add(contributionOf(modelClass.cast(item)), 1);
+            }
+        }
+        return view;
+    }
+    
+    /**
+     * Add an item or replace the contribution of its previous version; callers hold the type's write monitor
+     */
+    synchronized void put(BaseTestDataModel item) {
+        remove(item.getId());
+        if (modelClass.isInstance(item)) {
+            Contribution contribution = contributionOf(modelClass.cast(item));
+            contributions.put(item.getId(), contribution);
+            totals.add(contribution, 1);
+        }
+    }
+
+    synchronized void remove(String id) {
+        Contribution contribution = contributions.remove(id);
+        if (contribution != null) {
+            totals.add(contribution, -1);
+        }
+    }
+
+    synchronized void clear() {
+        contributions.clear();
+        totals = new Totals(counterCount, amounts.size());
+    }
+
+    /**
+     * Recompute from the items in one pass; large sets are split across the common fork-join pool, each
+     * worker accumulating its own totals, merged at the end
+     */
+    synchronized Totals rebuild(Collection<BaseTestDataModel> items) {
+        contributions.clear();
+        Totals rebuilt = (items.size() >= PARALLEL_THRESHOLD ? items.parallelStream() : items.stream())
+            .filter(modelClass::isInstance)
+            .collect(() -> new Totals(counterCount, amounts.size()),
+                     (partial, item) -> {
+                         Contribution contribution = contributionOf(modelClass.cast(item));
+                         contributions.put(item.getId(), contribution);
+                         partial.add(contribution, 1);
+                     },
+                     Totals::merge);
+        totals = rebuilt;
+        return rebuilt.copy();
+    }
+
+    private Contribution contributionOf(T item) {
+        BigDecimal[] values = new BigDecimal[amounts.size()];
+        for (int i = 0; i < amounts.size(); i++) {
+            values[i] = amounts.get(i).apply(item);
+        }
+        return new Contribution(flags.applyAsLong(item), values);
+    }
+
+    /**
+     * What one item added to the totals
+     */
+    private static final class Contribution {
+        final long flags;
+        final BigDecimal[] amounts;
+
+        Contribution(long flags, BigDecimal[] amounts) {
+            this.flags = flags;
+            this.amounts = amounts;
+        }
+    }
+
+    /**
+     * Item count, one count per flag bit and one sum per amount (null amounts count as zero)
+     */
+    public static class Totals {
+        private long items;
+        private final long[] counters;
+        private final BigDecimal[] sums;
+
+        Totals(int counterCount, int amountCount) {
+            this.counters = new long[counterCount];
+            this.sums = new BigDecimal[amountCount];
+            Arrays.fill(sums, BigDecimal.ZERO);
+        }
+
+        private Totals(long items, long[] counters, BigDecimal[] sums) {
+            this.items = items;
+            this.counters = counters;
+            this.sums = sums;
+        }
+
+        public long getItems() {
+            return items;
+        }
+
+        public long getCount(int counter) {
+            return counters[counter];
+        }
+
+        public BigDecimal getSum(int amount) {
+            return sums[amount];
+        }
+
+        private void add(Contribution contribution, int sign) {
+            items += sign;
+            long bits = contribution.flags;
+            while (bits != 0) {
+                int counter = Long.numberOfTrailingZeros(bits);
+                if (counter < counters.length) {
+                    counters[counter] += sign;
+                }
+                bits &= bits - 1;
+            }
+            for (int i = 0; i < sums.length; i++) {
+                BigDecimal amount = contribution.amounts[i];
+                if (amount != null) {
+                    sums[i] = sign > 0 ? sums[i].add(amount) : sums[i].subtract(amount);
+                }
+            }
+        }
+
+        private void merge(Totals other) {
+            items += other.items;
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] += other.counters[i];
+            }
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] = sums[i].add(other.sums[i]);
+            }
+        }
+
+        private Totals copy() {
+            return new Totals(items, counters.clone(), sums.clone());
+        }
+    }
+}
@@ -5,8 +5,11 @@ import utils.ErrorHandler;
 import utils.LoggingUtil;
 import org.slf4j.Logger;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * User-specific test data provider with convenience methods
@@ -15,15 +18,24 @@ public class UserDataProvider {
     
     private static final Logger logger = LoggingUtil.getLogger(UserDataProvider.class);
     private static final String DATA_TYPE = "users";
+    private static final String ROLE_INDEX = "role";
+    private static final String STATISTICS = "userStatistics";
+    // Statistics counters, one flag bit each
+    private static final int VALID = 0;
+    private static final int ADMIN = 1;
+    private static final int LOCKED = 2;
     private final TestDataManager dataManager;
     
     public UserDataProvider() {
         this.dataManager = TestDataManager.getInstance();
-        initializeDefaultUsers();
+        dataManager.defineIndex(DATA_TYPE, UserModel.class, ROLE_INDEX, UserModel::getRole);
+        dataManager.defineStatistics(DATA_TYPE, UserModel.class, STATISTICS, LOCKED + 1,
+                                     UserDataProvider::statisticFlags, Collections.emptyList());
+        dataManager.registerInitializer(DATA_TYPE, this::initializeDefaultUsers);
     }
     
     /**
-     * Initialize default user test data
+     * Initialize default user test data, on first access to users
      */
     private void initializeDefaultUsers() {
         try {
@@ -109,15 +121,14 @@ public class UserDataProvider {
      */
     public List<UserModel> getUsersByRole(String role) {
         ErrorHandler.validateNotEmpty(role, "role");
-        return dataManager.getTestDataWhere(DATA_TYPE, UserModel.class, 
-            user -> role.equalsIgnoreCase(user.getRole()));
+        return dataManager.getTestDataByIndex(DATA_TYPE, UserModel.class, ROLE_INDEX, role);
     }
     
     /**
      * Get admin users
      */
     public List<UserModel> getAdminUsers() {
-        return dataManager.getTestDataWhere(DATA_TYPE, UserModel.class, UserModel::isAdmin);
+        return getUsersByRole("ADMIN");
     }
     
     /**
@@ -139,6 +150,15 @@ public class UserDataProvider {
         return validUsers.get((int) (Math.random() * validUsers.size()));
     }
     
+    /**
+     * Lease a candidate user matching the filter for the current scenario, so no parallel scenario gets
+     * it until teardown; the generator supplies a new user when all matches stay leased
+     */
+    public TestDataLeasing.Lease<UserModel> leaseUser(Supplier<List<UserModel>> candidates, Predicate<UserModel> filter,
+                                                      Supplier<UserModel> generator) {
+        return TestDataLeasing.getInstance().lease(DATA_TYPE, candidates, filter, generator);
+    }
+    
     /**
      * Get a random invalid user
      */
@@ -165,6 +185,20 @@ public class UserDataProvider {
         return user;
     }
     
+    /**
+     * Add a user, e.g. one built by TestDataFactory
+     */
+    public void addUser(UserModel user) {
+        dataManager.addTestData(DATA_TYPE, user);
+    }
+    
+    /**
+     * Add many users, validated together in parallel; nothing is added if any user is invalid
+     */
+    public void addUsers(Collection<UserModel> users) {
+        dataManager.addAllTestData(DATA_TYPE, users);
+    }
+    
     /**
      * Create a copy of existing user for test isolation
      */
@@ -194,10 +228,17 @@ public class UserDataProvider {
     }
     
     /**
-     * Load users from JSON file
+     * Load users from JSON file (classpath or file system, optionally gzipped)
+     */
+    public TestDataManager.LoadStatistics loadFromJson(String filePath) {
+        return dataManager.loadFromJson(DATA_TYPE, filePath, UserModel.class);
+    }
+    
+    /**
+     * A JSON file of users for TestDataManager.loadFromJson(List, int), to load with other types at once
      */
-    public void loadFromJson(String filePath) {
-        dataManager.loadFromJson(DATA_TYPE, filePath, UserModel.class);
+    public TestDataManager.JsonSource<UserModel> jsonSource(String filePath) {
+        return new TestDataManager.JsonSource<>(DATA_TYPE, filePath, UserModel.class);
     }
     
     /**
@@ -225,14 +266,34 @@ public class UserDataProvider {
      * Get user statistics
      */
     public UserStatistics getStatistics() {
-        List<UserModel> allUsers = getAllUsers();
-        
-        long validCount = allUsers.stream().filter(UserModel::canLogin).count();
-        long invalidCount = allUsers.stream().filter(user -> !user.canLogin()).count();
-        long adminCount = allUsers.stream().filter(UserModel::isAdmin).count();
-        long lockedCount = allUsers.stream().filter(UserModel::isLocked).count();
-        
-        return new UserStatistics(allUsers.size(), validCount, invalidCount, adminCount, lockedCount);
+        return toUserStatistics(dataManager.getStatistics(DATA_TYPE, STATISTICS));
+    }
+    
+    /**
+     * Recount all users in one pass; needed only after users were changed in place without updateUser
+     */
+    public UserStatistics recalculateStatistics() {
+        return toUserStatistics(dataManager.recalculateStatistics(DATA_TYPE, STATISTICS));
+    }
+    
+    private static UserStatistics toUserStatistics(TestDataStatistics.Totals totals) {
+        long validCount = totals.getCount(VALID);
+        return new UserStatistics((int) totals.getItems(), validCount, totals.getItems() - validCount,
+                                  totals.getCount(ADMIN), totals.getCount(LOCKED));
+    }
+    
+    private static long statisticFlags(UserModel user) {
+        long flags = 0;
+        if (user.canLogin()) {
+            flags |= 1L << VALID;
+        }
+        if (user.isAdmin()) {
+            flags |= 1L << ADMIN;
+        }
+        if (user.isLocked()) {
+            flags |= 1L << LOCKED;
+        }
+        return flags;
     }
     
     /**
@@ -0,0 +1,284 @@
+package utils;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous logback appender that hands each event to one background worker, which writes it
+ * to all attached appenders (console, files, JSON, per-scenario files)
+ *
+ * Unlike logback's AsyncAppender (one ArrayBlockingQueue and worker per wrapped appender, a lock and
+ * a wake-up signal per event) logging threads only do a CAS-bounded offer to a lock-free queue. The
+ * worker wakes every 10ms, or once a batch is waiting, and drains in batches. Attached stream appenders are switched
+ * to buffered writes and flushed whenever the queue runs empty, instead of one flush per event. When the
+ * queue is full the logging thread writes a batch of the oldest events itself rather than waiting for the
+ * worker; a drain lock keeps events in queue order. Configured in logback-test.xml:
+ * <pre>
+ * &lt;appender name="ASYNC" class="utils.AsyncFanoutAppender"&gt;
+ *     &lt;queueSize&gt;8192&lt;/queueSize&gt;
+ *     &lt;appender-ref ref="CONSOLE"/&gt;
+ *     &lt;appender-ref ref="ROLLING_FILE"/&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ */
+public class AsyncFanoutAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final long IDLE_PARK_NANOS = 10_000_000;
+    private static final long FULL_QUEUE_PARK_NANOS = 100_000;
+    private static final int DRAIN_BATCH_SIZE = 256;
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final ConcurrentLinkedQueue<ILoggingEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final List<OutputStreamAppender<ILoggingEvent>> bufferedAppenders = new ArrayList<>();
+
+    private boolean async = true;
+    private int queueSize = 8192;
+    private boolean neverBlock = false;
+    private int maxFlushTime = 5000;
+
+    private volatile Thread worker;
+    private volatile boolean workerParked;
+    private volatile boolean running;
+    private volatile boolean unflushed;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queueSize " + queueSize);
+            return;
+        }
+        if (!async) {
+            super.start();
+            return;
+        }
+        bufferStreamAppenders();
+        running = true;
+        worker = new Thread(this::drain, "AsyncFanoutAppender-" + getName());
+        worker.setDaemon(true);
+        worker.start();
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!async) {
+            appenders.appendLoopOnAppenders(event);
+            return;
+        }
+        // Capture MDC, formatted message and thread name on the logging thread
+        event.prepareForDeferredProcessing();
+
+        int pending;
+        while ((pending = queued.incrementAndGet()) > queueSize) {
+            queued.decrementAndGet();
+            if (neverBlock || !running) {
+                dropped.increment();
+                return;
+            }
+            if (drainBatch() == 0) {
+                LockSupport.parkNanos(FULL_QUEUE_PARK_NANOS);
+            }
+        }
+        queue.offer(event);
+        // The parked worker wakes every IDLE_PARK_NANOS by itself, so a short burst costs no context switch
+        if (pending >= DRAIN_BATCH_SIZE && workerParked) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            if (drainBatch() > 0) {
+                continue;
+            }
+            flushBufferedAppenders();
+            workerParked = true;
+            // Re-check after publishing the flag so an offer racing with it is not missed
+            if (queue.isEmpty() && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            workerParked = false;
+        }
+        flushBufferedAppenders();
+    }
+
+    /**
+     * Write up to DRAIN_BATCH_SIZE of the oldest events, on the worker or on a logging thread facing a full queue
+     */
+    private int drainBatch() {
+        drainLock.lock();
+        try {
+            int written = 0;
+            ILoggingEvent event;
+            while (written < DRAIN_BATCH_SIZE && (event = queue.poll()) != null) {
+                queued.decrementAndGet();
+                appenders.appendLoopOnAppenders(event);
+                written++;
+            }
+            if (written > 0) {
+                unflushed = true;
+            }
+            return written;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Stop flushing stream appenders after every event; the worker flushes them when the queue runs empty
+     */
+    @SuppressWarnings("unchecked")
+    private void bufferStreamAppenders() {
+        Iterator<Appender<ILoggingEvent>> attached = appenders.iteratorForAppenders();
+        while (attached.hasNext()) {
+            Appender<ILoggingEvent> appender = attached.next();
+            if (appender instanceof OutputStreamAppender) {
+                OutputStreamAppender<ILoggingEvent> streamAppender = (OutputStreamAppender<ILoggingEvent>) appender;
+                if (streamAppender.isImmediateFlush()) {
+                    streamAppender.setImmediateFlush(false);
+                    bufferedAppenders.add(streamAppender);
+                }
+            }
+        }
+    }
+
+    private void flushBufferedAppenders() {
+        if (!unflushed) {
+            return;
+        }
+        unflushed = false;
+        for (OutputStreamAppender<ILoggingEvent> appender : bufferedAppenders) {
+            try {
+                if (appender.isStarted() && appender.getOutputStream() != null) {
+                    appender.getOutputStream().flush();
+                }
+            } catch (IOException e) {
+                // A rolling appender may have closed the stream just now; its replacement is flushed next time
+                addWarn("Failed to flush " + appender.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        Thread drainer = worker;
+        if (drainer != null) {
+            LockSupport.unpark(drainer);
+            try {
+                drainer.join(maxFlushTime);
+                if (drainer.isAlive()) {
+                    addWarn("Max flush time " + maxFlushTime + "ms exceeded, " + queued.get() + " events not written");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (dropped.sum() > 0) {
+            addWarn(dropped.sum() + " events dropped because the queue was full");
+        }
+        // The attached appenders are shared with other groups and stopped by the logback context
+        Iterator<Appender<ILoggingEvent>> attached = appenders.iteratorForAppenders();
+        while (attached.hasNext()) {
+            appenders.detachAppender(attached.next());
+        }
+    }
+
+    /**
+     * false writes on the calling thread, for comparing overhead with the same appenders
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Drop events instead of waiting when the queue is full
+     */
+    public void setNeverBlock(boolean neverBlock) {
+        this.neverBlock = neverBlock;
+    }
+
+    public boolean isNeverBlock() {
+        return neverBlock;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,234 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * PageFactory locator factory that memoizes resolved WebElements per page instance
+ * A cached element is only re-resolved when using it throws StaleElementReferenceException,
+ * and every browser lookup is timed into {@link LocatorStatistics}
+ * Fields annotated with {@link LocalizedFindBy} are compiled for the page language
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+    private final SearchContext searchContext;
+    private final String pageName;
+    private final String language;
+    private final boolean cacheElements;
+
+    public CachingElementLocatorFactory(SearchContext searchContext, String pageName, String language, boolean cacheElements) {
+        this.searchContext = searchContext;
+        this.pageName = pageName;
+        this.language = language;
+        this.cacheElements = cacheElements;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        LocalizedFindBy localizedFindBy = field.getAnnotation(LocalizedFindBy.class);
+        By by = localizedFindBy != null
+                ? LocalizedLocatorCompiler.compile(localizedFindBy, language)
+                : new Annotations(field).buildBy();
+        return new CachingElementLocator(searchContext, by, pageName + "." + field.getName(), cacheElements);
+    }
+
+    /**
+     * Field decorator whose element proxies recover from stale cached elements
+     */
+    public static class CachingFieldDecorator extends DefaultFieldDecorator {
+        private final long staleTimeoutMillis;
+
+        /**
+         * Outside an InteractionPipeline interaction, stale elements are looked up again for up to
+         * default.explicit.wait.timeout seconds (capped by the step budget)
+         */
+        public CachingFieldDecorator(ElementLocatorFactory factory) {
+            this(factory, TimeUnit.SECONDS.toMillis(
+                    Long.parseLong(ConfigReader.getAppProperty("default.explicit.wait.timeout", "10").trim())));
+        }
+
+        public CachingFieldDecorator(ElementLocatorFactory factory, long staleTimeoutMillis) {
+            super(factory);
+            this.staleTimeoutMillis = staleTimeoutMillis;
+        }
+
+        @Override
+        protected boolean isDecoratableList(Field field) {
+            if (field.isAnnotationPresent(LocalizedFindBy.class) && List.class.isAssignableFrom(field.getType())) {
+                return true;
+            }
+            return super.isDecoratableList(field);
+        }
+
+        @Override
+        protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+            InvocationHandler handler = new StaleAwareElementHandler(locator, staleTimeoutMillis);
+            return (WebElement) Proxy.newProxyInstance(
+                    loader, new Class<?>[] {WebElement.class, WrapsElement.class, Locatable.class}, handler);
+        }
+    }
+
+    /**
+     * Locator that caches the single-element lookup and times every browser round-trip
+     * Element lists are never cached since their size changes with filtering and paging
+     */
+    public static class CachingElementLocator implements ElementLocator {
+        private final SearchContext searchContext;
+        private final By by;
+        private final String locatorKey;
+        private final boolean cacheElement;
+        private volatile WebElement cachedElement;
+
+        public CachingElementLocator(SearchContext searchContext, By by, String fieldName, boolean cacheElement) {
+            this.searchContext = searchContext;
+            this.by = by;
+            this.locatorKey = String.format("%s [%s]", fieldName, by);
+            this.cacheElement = cacheElement;
+        }
+
+        @Override
+        public WebElement findElement() {
+            WebElement element = cachedElement;
+            if (element != null) {
+                LocatorStatistics.recordCacheHit(locatorKey);
+                return element;
+            }
+
+            long startTime = System.nanoTime();
+            try {
+                element = searchContext.findElement(by);
+                LocatorStatistics.recordLookup(locatorKey, System.nanoTime() - startTime, true);
+            } catch (NoSuchElementException e) {
+                LocatorStatistics.recordLookup(locatorKey, System.nanoTime() - startTime, false);
+                throw e;
+            }
+
+            if (cacheElement) {
+                cachedElement = element;
+            }
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            long startTime = System.nanoTime();
+            List<WebElement> elements = searchContext.findElements(by);
+            LocatorStatistics.recordLookup(locatorKey, System.nanoTime() - startTime, !elements.isEmpty());
+            return elements;
+        }
+
+        /**
+         * Drop the cached element so the next access resolves it again
+         */
+        public void invalidate() {
+            cachedElement = null;
+        }
+
+        public String getLocatorKey() {
+            return locatorKey;
+        }
+
+        @Override
+        public String toString() {
+            return "CachingElementLocator '" + by + "'";
+        }
+    }
+
+    /**
+     * Invocation handler that looks the element up again when the cached element is stale. Within an
+     * InteractionPipeline interaction it re-resolves once and leaves further retries to the pipeline's
+     * single deadline; elsewhere it retries until the stale timeout or the step budget, whichever is first,
+     * so a page that re-renders the element several times is waited out
+     */
+    private static class StaleAwareElementHandler implements InvocationHandler {
+        private static final long RETRY_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+        private final ElementLocator locator;
+        private final long staleTimeoutMillis;
+
+        StaleAwareElementHandler(ElementLocator locator, long staleTimeoutMillis) {
+            this.locator = locator;
+            this.staleTimeoutMillis = staleTimeoutMillis;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            WebElement element;
+            try {
+                element = locator.findElement();
+            } catch (NoSuchElementException e) {
+                if ("toString".equals(method.getName())) {
+                    return "Proxy element for: " + locator;
+                }
+                throw e;
+            }
+
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)
+                        || !(locator instanceof CachingElementLocator)) {
+                    throw e.getCause();
+                }
+            }
+
+            CachingElementLocator cachingLocator = (CachingElementLocator) locator;
+            LocatorStatistics.recordStaleRecovery(cachingLocator.getLocatorKey());
+            long deadline = retryDeadlineNanos();
+            while (true) {
+                cachingLocator.invalidate();
+                try {
+                    return method.invoke(cachingLocator.findElement(), args);
+                } catch (InvocationTargetException e) {
+                    if (!(e.getCause() instanceof StaleElementReferenceException) || System.nanoTime() - deadline >= 0) {
+                        throw e.getCause();
+                    }
+                } catch (NoSuchElementException e) {
+                    // Removed while the page re-renders it
+                    if (System.nanoTime() - deadline >= 0) {
+                        throw e;
+                    }
+                }
+                LockSupport.parkNanos(RETRY_INTERVAL_NANOS);
+            }
+        }
+
+        /**
+         * Now when an interaction is running (one attempt, the pipeline retries), otherwise the stale
+         * timeout capped by the remaining step budget
+         */
+        private long retryDeadlineNanos() {
+            long now = System.nanoTime();
+            if (InteractionPipeline.isInteractionRunning()) {
+                return now;
+            }
+            long timeoutMillis = staleTimeoutMillis;
+            Long stepDeadline = InteractionPipeline.getStepDeadline();
+            if (stepDeadline != null) {
+                timeoutMillis = Math.min(timeoutMillis, Math.max(0, stepDeadline - System.currentTimeMillis()));
+            }
+            return now + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        }
+    }
+}
@@ -168,4 +168,12 @@ public class ConfigReader {
         
         return appProperties.getProperty(key, defaultValue);
     }
+
+    /**
+     * Get a setting that can be overridden per run: the system property (-Dkey=value) if set, else the app
+     * property, else the default, trimmed
+     */
+    public static String getSetting(String key, String defaultValue) {
+        return System.getProperty(key, getAppProperty(key, defaultValue)).trim();
+    }
 }
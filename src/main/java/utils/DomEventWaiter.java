@@ -0,0 +1,215 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Event-driven wait engine that blocks inside the browser instead of polling from the test
+ * List waits use a MutationObserver and movement waits use requestAnimationFrame, each in a
+ * single executeAsyncScript call. Methods return null when the wait cannot run in the page
+ * (no JavascriptExecutor, scripts disallowed, unsupported locator) so callers can fall back to polling
+ */
+public class DomEventWaiter {
+
+    private static final Logger logger = LoggingUtil.getLogger(DomEventWaiter.class);
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigReader.getAppProperty("wait.event.driven.enabled", "true"));
+    private static final int STABLE_FRAMES =
+        Integer.parseInt(ConfigReader.getAppProperty("wait.animation.stable.frames", "3"));
+    private static final long DEFAULT_SCRIPT_TIMEOUT_MS = 30000;
+    private static final long SCRIPT_TIMEOUT_MARGIN_MS = 1000;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    // Resolves {satisfied, count} once the number of matches meets the condition or the timeout expires
+    private static final String ELEMENT_COUNT_SCRIPT =
+        "var using = arguments[0], value = arguments[1], exact = arguments[2], expected = arguments[3];" +
+        "var timeoutMs = arguments[4], done = arguments[arguments.length - 1];" +
+        "var count = function() {" +
+        "  if (using === 'xpath') {" +
+        "    return document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;" +
+        "  }" +
+        "  if (using === 'link text' || using === 'partial link text') {" +
+        "    var links = document.getElementsByTagName('a'), n = 0;" +
+        "    for (var i = 0; i < links.length; i++) {" +
+        "      var t = (links[i].innerText || links[i].textContent || '').trim();" +
+        "      if (using === 'link text' ? t === value : t.indexOf(value) >= 0) { n++; }" +
+        "    }" +
+        "    return n;" +
+        "  }" +
+        "  if (using === 'tag name') { return document.getElementsByTagName(value).length; }" +
+        "  return document.querySelectorAll(value).length;" +
+        "};" +
+        "var finished = false, observer = null, timer = null;" +
+        "var finish = function(result) {" +
+        "  if (finished) { return; }" +
+        "  finished = true;" +
+        "  if (observer) { observer.disconnect(); }" +
+        "  if (timer) { clearTimeout(timer); }" +
+        "  done(result);" +
+        "};" +
+        "var check = function() {" +
+        "  try {" +
+        "    var n = count();" +
+        "    if (exact ? n === expected : n >= expected) { finish({satisfied: true, count: n}); }" +
+        "    return n;" +
+        "  } catch (e) { finish({error: String(e)}); return -1; }" +
+        "};" +
+        "check();" +
+        "if (finished) { return; }" +
+        "observer = new MutationObserver(check);" +
+        "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});" +
+        "timer = setTimeout(function() { finish({satisfied: false, count: count()}); }, timeoutMs);";
+
+    // Resolves {satisfied} once the element's bounding box is unchanged for the given number of frames
+    private static final String ELEMENT_STILL_SCRIPT =
+        "var el = arguments[0], stableFrames = arguments[1], timeoutMs = arguments[2];" +
+        "var done = arguments[arguments.length - 1];" +
+        "var schedule = document.hidden || !window.requestAnimationFrame" +
+        "  ? function(f) { setTimeout(f, 16); } : function(f) { window.requestAnimationFrame(f); };" +
+        "var start = Date.now(), last = null, still = 0;" +
+        "var tick = function() {" +
+        "  if (!el.isConnected) { done({satisfied: false, error: 'element detached'}); return; }" +
+        "  var r = el.getBoundingClientRect();" +
+        "  var key = r.left + ',' + r.top + ',' + r.width + ',' + r.height;" +
+        "  if (key === last) { still++; } else { still = 0; last = key; }" +
+        "  if (still >= stableFrames) { done({satisfied: true}); return; }" +
+        "  if (Date.now() - start >= timeoutMs) { done({satisfied: false}); return; }" +
+        "  schedule(tick);" +
+        "};" +
+        "schedule(tick);";
+
+    private DomEventWaiter() {
+    }
+
+    /**
+     * Wait until the locator matches exactly the expected number of elements
+     */
+    public static Boolean awaitElementCount(WebDriver driver, By locator, int expectedCount, long timeoutMs) {
+        return awaitCount(driver, locator, expectedCount, true, timeoutMs);
+    }
+
+    /**
+     * Wait until the locator matches at least the minimum number of elements
+     */
+    public static Boolean awaitMinElementCount(WebDriver driver, By locator, int minCount, long timeoutMs) {
+        return awaitCount(driver, locator, minCount, false, timeoutMs);
+    }
+
+    /**
+     * Wait until the element's position and size stop changing between animation frames
+     */
+    public static Boolean awaitElementStill(WebDriver driver, WebElement element, long timeoutMs) {
+        if (!isAvailable(driver) || element == null) {
+            return null;
+        }
+        return runUntilDeadline(driver, "elementStill", timeoutMs,
+            chunkMs -> ((JavascriptExecutor) driver).executeAsyncScript(
+                ELEMENT_STILL_SCRIPT, element, STABLE_FRAMES, chunkMs));
+    }
+
+    /**
+     * Polling fallback for awaitElementStill when the wait cannot run in the page: reads the element's
+     * bounds from the test until two reads match. False when it is still moving at the timeout or detached
+     */
+    public static boolean pollElementStill(WebElement element, long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        try {
+            Rectangle last = element.getRect();
+            while (true) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                Thread.sleep(Math.min(POLL_INTERVAL_MS, remaining));
+                Rectangle current = element.getRect();
+                if (current.equals(last)) {
+                    return true;
+                }
+                last = current;
+            }
+        } catch (StaleElementReferenceException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Boolean awaitCount(WebDriver driver, By locator, int expected, boolean exact, long timeoutMs) {
+        if (!isAvailable(driver) || !(locator instanceof By.Remotable)) {
+            return null;
+        }
+
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        return runUntilDeadline(driver, exact ? "elementCount" : "minElementCount", timeoutMs,
+            chunkMs -> ((JavascriptExecutor) driver).executeAsyncScript(
+                ELEMENT_COUNT_SCRIPT, parameters.using(), String.valueOf(parameters.value()), exact, expected, chunkMs));
+    }
+
+    /**
+     * Run the async script in chunks that fit the driver's script timeout until satisfied or out of time
+     */
+    @SuppressWarnings("unchecked")
+    private static Boolean runUntilDeadline(WebDriver driver, String waitType, long timeoutMs, AsyncWait wait) {
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + timeoutMs;
+        long maxChunkMs = Math.max(SCRIPT_TIMEOUT_MARGIN_MS, getScriptTimeoutMs(driver) - SCRIPT_TIMEOUT_MARGIN_MS);
+
+        try {
+            while (true) {
+                long remaining = deadline - System.currentTimeMillis();
+                Object raw = wait.execute(Math.max(0, Math.min(remaining, maxChunkMs)));
+                if (!(raw instanceof Map)) {
+                    logger.debug("Unexpected {} wait result: {}, falling back to polling", waitType, raw);
+                    return null;
+                }
+
+                Map<String, Object> result = (Map<String, Object>) raw;
+                if (result.containsKey("error") && !"element detached".equals(result.get("error"))) {
+                    logger.debug("{} wait script error: {}, falling back to polling", waitType, result.get("error"));
+                    return null;
+                }
+                if (Boolean.TRUE.equals(result.get("satisfied"))) {
+                    logger.debug("{} wait satisfied in {}ms", waitType, System.currentTimeMillis() - startTime);
+                    return true;
+                }
+                if (result.containsKey("error") || System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+            }
+        } catch (ScriptTimeoutException e) {
+            return false;
+        } catch (WebDriverException e) {
+            logger.debug("{} wait could not run in the page, falling back to polling: {}", waitType, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isAvailable(WebDriver driver) {
+        return ENABLED && driver instanceof JavascriptExecutor;
+    }
+
+    private static long getScriptTimeoutMs(WebDriver driver) {
+        try {
+            Duration scriptTimeout = driver.manage().timeouts().getScriptTimeout();
+            return scriptTimeout != null ? scriptTimeout.toMillis() : DEFAULT_SCRIPT_TIMEOUT_MS;
+        } catch (Exception e) {
+            return DEFAULT_SCRIPT_TIMEOUT_MS;
+        }
+    }
+
+    @FunctionalInterface
+    private interface AsyncWait {
+        Object execute(long chunkMs);
+    }
+}
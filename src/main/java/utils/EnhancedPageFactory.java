@@ -221,7 +221,38 @@
             applyWaitConfig(originalConfig);
         }
     }
-    
+
+    /**
+     * Initialize elements with per-page locator caching and stale element recovery
+     */
+    public static void initCachedElements(WebDriver driver, Object page) {
+        initPageElements(driver, page, System.getProperty("language", "en"), true);
+    }
+
+    /**
+     * Initialize elements with @LocalizedFindBy locators compiled for the given language
+     */
+    public static void initPageElements(WebDriver driver, Object page, String language, boolean cacheElements) {
+        ErrorHandler.validateDriver(driver);
+        ErrorHandler.validateNotNull(page, "page");
+        ErrorHandler.validateNotEmpty(language, "language");
+
+        String pageName = page.getClass().getSimpleName();
+        CachingElementLocatorFactory locatorFactory =
+            new CachingElementLocatorFactory(driver, pageName, language, cacheElements);
+        PageFactory.initElements(new CachingElementLocatorFactory.CachingFieldDecorator(locatorFactory), page);
+
+        logger.debug("Enhanced PageFactory initialized for page: {} (language: {}, cached: {})",
+                    pageName, language, cacheElements);
+    }
+
+    /**
+     * Get report of the slowest element locators recorded so far
+     */
+    public static String getSlowestLocatorsReport(int limit) {
+        return LocatorStatistics.getSlowestLocatorsReport(limit);
+    }
+
     /**
      * Wait configuration class
      */
@@ -289,7 +320,7 @@
                 (field.getGenericType().toString().contains("WebElement"))) {
                 webElementFieldCount++;
                 
-                if (field.isAnnotationPresent(FindBy.class)) {
+                if (field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(LocalizedFindBy.class)) {
                     findByAnnotationCount++;
                 } else {
                     logger.warn("WebElement field '{}' in page '{}' missing @FindBy annotation", 
@@ -203,9 +203,9 @@ public class ErrorHandler {
                 String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
                 String screenshotName = String.format("error_%s_%s", errorContext, timestamp);
                 
-                // This would need a screenshot utility - placeholder for now
-                logger.debug("Error screenshot would be taken: {}", screenshotName);
-                LoggingUtil.logScreenshot("error", screenshotName);
+                // Captured on this thread, written in the background; duplicates are skipped
+                EvidenceCollector.captureScreenshot(WebDriverUtil.getDriver(), screenshotName);
+                logger.debug("Error screenshot queued: {}", screenshotName);
             }
         } catch (Exception e) {
             logger.warn("Failed to take error screenshot: {}", e.getMessage());
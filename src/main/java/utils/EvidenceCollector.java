@@ -0,0 +1,340 @@
+package utils;
+
+import exceptions.FrameworkException;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Failure evidence capture service
+ * Raw evidence (screenshot, DOM, console log, recent HTTP exchanges) is grabbed on the calling
+ * thread so the driver can be released right after; hashing, compression and writing happen on a
+ * background executor. Identical evidence is only archived once, but every failure still gets its
+ * Allure attachments; they are registered immediately and their content is written in the background
+ */
+public class EvidenceCollector {
+
+    private static final Logger logger = LoggingUtil.getLogger(EvidenceCollector.class);
+    private static final String EVIDENCE_DIR = ConfigReader.getAppProperty("evidence.output.dir", "target/evidence");
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "evidence-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Archive holding each evidence hash, so identical evidence is stored once
+    private static final Map<String, Path> archivesByHash = new ConcurrentHashMap<>();
+    private static final Queue<Future<?>> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    private EvidenceCollector() {
+    }
+
+    /**
+     * Capture full evidence for a failed scenario and attach it to the Allure report
+     */
+    public static void captureFailure(WebDriver driver, String context) {
+        submit(capture(driver, context, true), true);
+    }
+
+    /**
+     * Capture a screenshot only (no DOM or console log), without Allure attachments
+     */
+    public static void captureScreenshot(WebDriver driver, String context) {
+        submit(capture(driver, context, false), false);
+    }
+
+    /**
+     * Grab raw evidence from the driver on the calling thread; each part is optional
+     */
+    public static Evidence capture(WebDriver driver, String context, boolean includePageState) {
+        ErrorHandler.validateNotNull(driver, "WebDriver");
+        long startTime = System.currentTimeMillis();
+
+        byte[] screenshot = null;
+        if (driver instanceof TakesScreenshot) {
+            try {
+                screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            } catch (Exception e) {
+                logger.warn("Failed to capture screenshot for {}: {}", context, e.getMessage());
+            }
+        }
+
+        String url = null;
+        String dom = null;
+        List<String> consoleLog = Collections.emptyList();
+        if (includePageState) {
+            try {
+                url = driver.getCurrentUrl();
+                dom = driver.getPageSource();
+            } catch (Exception e) {
+                logger.warn("Failed to capture DOM snapshot for {}: {}", context, e.getMessage());
+            }
+            try {
+                consoleLog = driver.manage().logs().get(LogType.BROWSER).getAll().stream()
+                        .map(LogEntry::toString)
+                        .collect(Collectors.toList());
+            } catch (Exception e) {
+                logger.debug("Browser console log not available for {}: {}", context, e.getMessage());
+            }
+        }
+
+        List<String> httpExchanges = HttpExchangeRecorder.getRecentExchanges().stream()
+                .map(HttpExchangeRecorder.HttpExchange::toString)
+                .collect(Collectors.toList());
+
+        LoggingUtil.logPerformance("evidenceCapture", System.currentTimeMillis() - startTime);
+        return new Evidence(context, url, screenshot, dom, consoleLog, httpExchanges);
+    }
+
+    /**
+     * Hand evidence to the background writer; evidence identical to an earlier capture is attached
+     * again but not archived again
+     */
+    public static void submit(Evidence evidence, boolean attachToAllure) {
+        submit(evidence, attachToAllure, attachToAllure);
+    }
+
+    /**
+     * Hand evidence to the background writer; attachScreenshot is false when the caller already attached
+     * the screenshot (e.g. through scenario.attach, which allure-cucumber7-jvm reports), so it appears once
+     */
+    public static void submit(Evidence evidence, boolean attachToAllure, boolean attachScreenshot) {
+        if (evidence.isEmpty()) {
+            logger.warn("No evidence could be captured for: {}", evidence.getContext());
+            return;
+        }
+
+        String hash = evidence.getHash();
+        Path archive = Paths.get(EVIDENCE_DIR, sanitize(evidence.getContext()) + "_" + hash + ".zip");
+        Path storedArchive = archivesByHash.putIfAbsent(hash, archive);
+        if (storedArchive != null) {
+            logger.info("Evidence for {} is identical to {}, attaching it without archiving it again",
+                       evidence.getContext(), storedArchive);
+        }
+
+        // Register attachments in the current Allure test while still on the scenario thread
+        List<PreparedAttachment> attachments = attachToAllure ? prepareAllureAttachments(evidence, attachScreenshot) : Collections.emptyList();
+        if (storedArchive != null && attachments.isEmpty()) {
+            return;
+        }
+
+        pendingWrites.add(writer.submit(() -> {
+            long startTime = System.currentTimeMillis();
+            Path written = storedArchive != null ? storedArchive : writeArchive(evidence, archive);
+            attachments.forEach(PreparedAttachment::write);
+            LoggingUtil.logScreenshot(evidence.getContext(), written != null ? written.toString() : hash);
+            LoggingUtil.logPerformance("evidenceWrite", System.currentTimeMillis() - startTime);
+        }));
+    }
+
+    /**
+     * Wait for queued evidence writes to finish
+     */
+    public static boolean awaitPendingWrites(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        Future<?> write;
+        while ((write = pendingWrites.poll()) != null) {
+            try {
+                write.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                logger.warn("Evidence write did not complete: {}", e.getMessage());
+                if (System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static List<PreparedAttachment> prepareAllureAttachments(Evidence evidence, boolean attachScreenshot) {
+        List<PreparedAttachment> attachments = new ArrayList<>();
+        try {
+            AllureLifecycle lifecycle = Allure.getLifecycle();
+            String name = evidence.getContext();
+            if (attachScreenshot && evidence.getScreenshot() != null) {
+                attachments.add(new PreparedAttachment(lifecycle,
+                    lifecycle.prepareAttachment(name + " screenshot", "image/png", "png"), evidence.getScreenshot()));
+            }
+            if (evidence.getDom() != null) {
+                attachments.add(new PreparedAttachment(lifecycle,
+                    lifecycle.prepareAttachment(name + " DOM", "text/html", "html"), utf8(evidence.getDom())));
+            }
+            if (!evidence.getConsoleLog().isEmpty()) {
+                attachments.add(new PreparedAttachment(lifecycle,
+                    lifecycle.prepareAttachment(name + " console log", "text/plain", "txt"), lines(evidence.getConsoleLog())));
+            }
+            if (!evidence.getHttpExchanges().isEmpty()) {
+                attachments.add(new PreparedAttachment(lifecycle,
+                    lifecycle.prepareAttachment(name + " HTTP exchanges", "text/plain", "txt"), lines(evidence.getHttpExchanges())));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to register Allure attachments for {}: {}", evidence.getContext(), e.getMessage());
+        }
+        return attachments;
+    }
+
+    private static Path writeArchive(Evidence evidence, Path archive) {
+        try {
+            Files.createDirectories(archive.getParent());
+            try (OutputStream output = Files.newOutputStream(archive);
+                 ZipOutputStream zip = new ZipOutputStream(output)) {
+                if (evidence.getScreenshot() != null) {
+                    writeEntry(zip, "screenshot.png", evidence.getScreenshot());
+                }
+                if (evidence.getDom() != null) {
+                    writeEntry(zip, "dom.html", utf8(evidence.getDom()));
+                }
+                if (!evidence.getConsoleLog().isEmpty()) {
+                    writeEntry(zip, "console.log", lines(evidence.getConsoleLog()));
+                }
+                if (!evidence.getHttpExchanges().isEmpty()) {
+                    writeEntry(zip, "http-exchanges.log", lines(evidence.getHttpExchanges()));
+                }
+                writeEntry(zip, "context.txt", utf8("context=" + evidence.getContext() + "\nurl=" + evidence.getUrl()
+                                                    + "\ncapturedAt=" + evidence.getCapturedAt() + "\n"));
+            }
+            logger.debug("Evidence written to: {}", archive);
+            return archive;
+        } catch (IOException e) {
+            logger.error("Failed to write evidence archive: {}", archive, e);
+            return null;
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] lines(List<String> values) {
+        return utf8(String.join("\n", values));
+    }
+
+    private static String sanitize(String value) {
+        return value.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    /**
+     * Raw evidence captured at the moment of failure
+     */
+    public static class Evidence {
+        private final String context;
+        private final String url;
+        private final byte[] screenshot;
+        private final String dom;
+        private final List<String> consoleLog;
+        private final List<String> httpExchanges;
+        private final long capturedAt;
+
+        Evidence(String context, String url, byte[] screenshot, String dom,
+                 List<String> consoleLog, List<String> httpExchanges) {
+            this.context = context;
+            this.url = url;
+            this.screenshot = screenshot;
+            this.dom = dom;
+            this.consoleLog = consoleLog;
+            this.httpExchanges = httpExchanges;
+            this.capturedAt = System.currentTimeMillis();
+        }
+
+        public String getContext() { return context; }
+        public String getUrl() { return url; }
+        public byte[] getScreenshot() { return screenshot; }
+        public String getDom() { return dom; }
+        public List<String> getConsoleLog() { return consoleLog; }
+        public List<String> getHttpExchanges() { return httpExchanges; }
+        public long getCapturedAt() { return capturedAt; }
+
+        public boolean isEmpty() {
+            return screenshot == null && dom == null && consoleLog.isEmpty() && httpExchanges.isEmpty();
+        }
+
+        /**
+         * Content hash of the screenshot, DOM and URL, used to skip duplicate evidence
+         */
+        public String getHash() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                if (screenshot != null) {
+                    digest.update(screenshot);
+                }
+                if (dom != null) {
+                    digest.update(utf8(dom));
+                }
+                if (url != null) {
+                    digest.update(utf8(url));
+                }
+                httpExchanges.forEach(exchange -> digest.update(utf8(exchange)));
+
+                StringBuilder hex = new StringBuilder();
+                byte[] hash = digest.digest();
+                for (int i = 0; i < 8; i++) {
+                    hex.append(String.format("%02x", hash[i]));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new FrameworkException("SHA-256 not available", e);
+            }
+        }
+    }
+
+    /**
+     * Allure attachment registered on the scenario thread, written later by the background writer
+     */
+    private static class PreparedAttachment {
+        private final AllureLifecycle lifecycle;
+        private final String source;
+        private final byte[] content;
+
+        PreparedAttachment(AllureLifecycle lifecycle, String source, byte[] content) {
+            this.lifecycle = lifecycle;
+            this.source = source;
+            this.content = content;
+        }
+
+        void write() {
+            try {
+                lifecycle.writeAttachment(source, new ByteArrayInputStream(content));
+            } catch (Exception e) {
+                logger.warn("Failed to write Allure attachment {}: {}", source, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package utils;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Per-thread ring buffer of the most recent HTTP exchanges made by the API clients
+ * Included in failure evidence so a failing scenario shows the calls that preceded it
+ */
+public class HttpExchangeRecorder {
+
+    private static final int CAPACITY =
+        Integer.parseInt(ConfigReader.getAppProperty("evidence.http.buffer.size", "20"));
+    private static final ThreadLocal<Deque<HttpExchange>> exchanges = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private HttpExchangeRecorder() {
+    }
+
+    /**
+     * Record a completed exchange
+     */
+    public static void record(String method, String url, int statusCode, long durationMs) {
+        add(new HttpExchange(method, url, statusCode, durationMs, null));
+    }
+
+    /**
+     * Record an exchange that failed without a response
+     */
+    public static void recordFailure(String method, String url, long durationMs, String error) {
+        add(new HttpExchange(method, url, -1, durationMs, error));
+    }
+
+    /**
+     * Get the buffered exchanges of the current thread, oldest first
+     */
+    public static List<HttpExchange> getRecentExchanges() {
+        return new ArrayList<>(exchanges.get());
+    }
+
+    /**
+     * Clear the buffer of the current thread
+     */
+    public static void clear() {
+        exchanges.remove();
+    }
+
+    private static void add(HttpExchange exchange) {
+        Deque<HttpExchange> buffer = exchanges.get();
+        if (buffer.size() >= CAPACITY) {
+            buffer.removeFirst();
+        }
+        buffer.addLast(exchange);
+    }
+
+    /**
+     * Summary of a single HTTP request/response
+     */
+    public static class HttpExchange {
+        private final Instant timestamp;
+        private final String method;
+        private final String url;
+        private final int statusCode;
+        private final long durationMs;
+        private final String error;
+
+        HttpExchange(String method, String url, int statusCode, long durationMs, String error) {
+            this.timestamp = Instant.now();
+            this.method = method;
+            this.url = url;
+            this.statusCode = statusCode;
+            this.durationMs = durationMs;
+            this.error = error;
+        }
+
+        public Instant getTimestamp() { return timestamp; }
+        public String getMethod() { return method; }
+        public String getUrl() { return url; }
+        public int getStatusCode() { return statusCode; }
+        public long getDurationMs() { return durationMs; }
+        public String getError() { return error; }
+
+        @Override
+        public String toString() {
+            String outcome = error != null ? "FAILED (" + error + ")" : String.valueOf(statusCode);
+            return String.format("%s %s %s -> %s in %dms", timestamp, method, url, outcome, durationMs);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package utils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Records which page objects, API clients and step definitions the current scenario exercises
+ * Tracing is per thread and only active between begin() and end(), so calls outside a scenario are free
+ */
+public class ImpactTracer {
+
+    private static final String[] TRACKED_PACKAGES = {"pages.", "api.clients.", "stepdefinitions."};
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigReader.getAppProperty("impact.tracing.enabled", "true"));
+    private static final ThreadLocal<Set<String>> touchedClasses = new ThreadLocal<>();
+
+    private ImpactTracer() {
+    }
+
+    /**
+     * Start tracing for the scenario running on this thread
+     */
+    public static void begin() {
+        if (ENABLED) {
+            touchedClasses.set(new HashSet<>());
+        }
+    }
+
+    /**
+     * Record a class and its tracked superclasses, so a change to BasePage impacts every page user
+     */
+    public static void touch(Class<?> type) {
+        Set<String> touched = touchedClasses.get();
+        if (touched == null) {
+            return;
+        }
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            record(touched, current.getName());
+        }
+    }
+
+    /**
+     * Record a class by name, e.g. the declaring class of a step definition
+     */
+    public static void touch(String className) {
+        Set<String> touched = touchedClasses.get();
+        if (touched != null) {
+            record(touched, className);
+        }
+    }
+
+    private static void record(Set<String> touched, String className) {
+        // Nested classes are attributed to the source file that declares them
+        int nested = className.indexOf('$');
+        String topLevel = nested >= 0 ? className.substring(0, nested) : className;
+        if (isTracked(topLevel)) {
+            touched.add(topLevel);
+        }
+    }
+
+    /**
+     * Stop tracing and return the classes exercised since begin()
+     */
+    public static Set<String> end() {
+        Set<String> touched = touchedClasses.get();
+        touchedClasses.remove();
+        return touched != null ? touched : Collections.emptySet();
+    }
+
+    /**
+     * Whether the given class name belongs to a traced package
+     */
+    public static boolean isTracked(String className) {
+        for (String trackedPackage : TRACKED_PACKAGES) {
+            if (className.startsWith(trackedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
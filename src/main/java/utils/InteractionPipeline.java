@@ -0,0 +1,209 @@
+package utils;
+
+import exceptions.ElementWaitException;
+import exceptions.FrameworkException;
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs element interactions against a single deadline instead of nested wait/retry layers
+ * Readiness checks, the action itself and retries after transient failures all draw from the
+ * same budget, which is further capped by the remaining budget of the current Cucumber step
+ */
+public class InteractionPipeline {
+
+    private static final Logger logger = LoggingUtil.getLogger(InteractionPipeline.class);
+    private static final long ACTION_TIMEOUT_MS =
+        Long.parseLong(ConfigReader.getAppProperty("interaction.timeout.ms", "10000"));
+    private static final long STEP_TIMEOUT_MS =
+        Long.parseLong(ConfigReader.getAppProperty("interaction.step.timeout.ms", "30000"));
+    private static final long POLL_INTERVAL_MS =
+        Long.parseLong(ConfigReader.getAppProperty("interaction.poll.interval.ms", "250"));
+
+    private static final ThreadLocal<Long> stepDeadline = new ThreadLocal<>();
+    // Deadline of the interaction running on this thread, so element proxies leave retries to it
+    private static final ThreadLocal<Long> interactionDeadline = new ThreadLocal<>();
+
+    private InteractionPipeline() {
+    }
+
+    /**
+     * Element state required before the action runs
+     */
+    public enum Readiness {
+        VISIBLE,
+        CLICKABLE
+    }
+
+    /**
+     * Start the budget shared by all interactions of the current step
+     */
+    public static void startStep() {
+        stepDeadline.set(System.currentTimeMillis() + STEP_TIMEOUT_MS);
+    }
+
+    /**
+     * Clear the step budget of the current thread
+     */
+    public static void endStep() {
+        stepDeadline.remove();
+    }
+
+    /**
+     * True while an interaction runs on the current thread; its retries cover stale and missing elements
+     */
+    public static boolean isInteractionRunning() {
+        return interactionDeadline.get() != null;
+    }
+
+    /**
+     * Deadline of the current step's budget in epoch milliseconds, or null outside a step
+     */
+    public static Long getStepDeadline() {
+        return stepDeadline.get();
+    }
+
+    /**
+     * Run an action on the element with the default interaction budget
+     */
+    public static <T> T run(String operation, String elementInfo, WebElement element,
+                            Readiness readiness, Function<WebElement, T> action) {
+        return run(operation, elementInfo, element, readiness, ACTION_TIMEOUT_MS, action);
+    }
+
+    /**
+     * Run an action without a result on the element with the default interaction budget
+     */
+    public static void runVoid(String operation, String elementInfo, WebElement element,
+                               Readiness readiness, Consumer<WebElement> action) {
+        run(operation, elementInfo, element, readiness, ACTION_TIMEOUT_MS, target -> {
+            action.accept(target);
+            return null;
+        });
+    }
+
+    /**
+     * Run an action on the element, waiting and retrying transient failures until the deadline
+     */
+    public static <T> T run(String operation, String elementInfo, WebElement element,
+                            Readiness readiness, long budgetMillis, Function<WebElement, T> action) {
+        ErrorHandler.validateNotNull(element, elementInfo);
+
+        long startTime = System.currentTimeMillis();
+        long deadline = resolveDeadline(startTime, budgetMillis);
+        Long outerDeadline = interactionDeadline.get();
+        interactionDeadline.set(deadline);
+        try {
+            return runUntil(operation, elementInfo, element, readiness, action, startTime, deadline);
+        } finally {
+            if (outerDeadline != null) {
+                interactionDeadline.set(outerDeadline);
+            } else {
+                interactionDeadline.remove();
+            }
+        }
+    }
+
+    private static <T> T runUntil(String operation, String elementInfo, WebElement element, Readiness readiness,
+                                  Function<WebElement, T> action, long startTime, long deadline) {
+        Timing timing = new Timing();
+        RuntimeException lastFailure = null;
+
+        while (true) {
+            timing.attempts++;
+            long phaseStart = System.currentTimeMillis();
+            try {
+                boolean ready = isReady(element, readiness);
+                timing.readinessMillis += System.currentTimeMillis() - phaseStart;
+
+                if (ready) {
+                    phaseStart = System.currentTimeMillis();
+                    T result = action.apply(element);
+                    timing.actionMillis += System.currentTimeMillis() - phaseStart;
+                    timing.totalMillis = System.currentTimeMillis() - startTime;
+
+                    logTiming(operation, elementInfo, timing, true);
+                    return result;
+                }
+            } catch (NoSuchElementException | StaleElementReferenceException | InvalidElementStateException e) {
+                // Not present yet, re-rendered, or covered/disabled - worth another attempt
+                timing.actionMillis += System.currentTimeMillis() - phaseStart;
+                lastFailure = e;
+                logger.debug("Transient failure on '{}' for {} (attempt {}): {}",
+                            operation, elementInfo, timing.attempts, e.getClass().getSimpleName());
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                timing.totalMillis = System.currentTimeMillis() - startTime;
+                logTiming(operation, elementInfo, timing, false);
+                throw new ElementWaitException(operation, elementInfo + " [" + timing + "]",
+                                               Math.max(1, (deadline - startTime + 999) / 1000), lastFailure);
+            }
+
+            long backoff = Math.min(POLL_INTERVAL_MS, remaining);
+            sleep(backoff);
+            timing.backoffMillis += backoff;
+        }
+    }
+
+    private static long resolveDeadline(long startTime, long budgetMillis) {
+        long deadline = startTime + budgetMillis;
+        Long currentStepDeadline = stepDeadline.get();
+        return currentStepDeadline != null ? Math.min(deadline, currentStepDeadline) : deadline;
+    }
+
+    private static boolean isReady(WebElement element, Readiness readiness) {
+        if (!element.isDisplayed()) {
+            return false;
+        }
+        return readiness != Readiness.CLICKABLE || element.isEnabled();
+    }
+
+    private static void logTiming(String operation, String elementInfo, Timing timing, boolean success) {
+        LoggingUtil.logPerformance(success ? operation : operation + "_Failed", timing.totalMillis);
+        if (success) {
+            logger.debug("Interaction '{}' on {} completed: {}", operation, elementInfo, timing);
+        } else {
+            logger.warn("Interaction '{}' on {} ran out of budget: {}", operation, elementInfo, timing);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FrameworkException("Interaction interrupted while waiting", e);
+        }
+    }
+
+    /**
+     * Time spent in each phase of an interaction
+     */
+    public static class Timing {
+        private int attempts;
+        private long readinessMillis;
+        private long actionMillis;
+        private long backoffMillis;
+        private long totalMillis;
+
+        public int getAttempts() { return attempts; }
+        public long getReadinessMillis() { return readinessMillis; }
+        public long getActionMillis() { return actionMillis; }
+        public long getBackoffMillis() { return backoffMillis; }
+        public long getTotalMillis() { return totalMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("attempts=%d, readiness=%dms, action=%dms, backoff=%dms, total=%dms",
+                               attempts, readinessMillis, actionMillis, backoffMillis, totalMillis);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Locates an element by its localized text from the messages_&lt;lang&gt;.properties bundles
+ * The locator is compiled once per language by {@link LocalizedLocatorCompiler}, so a single
+ * annotation replaces hand-written per-language XPath unions
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface LocalizedFindBy {
+
+    /**
+     * Message bundle key holding the element text, e.g. "policy.actions.edit"
+     */
+    String key();
+
+    /**
+     * Tag name of the element, or "*" for any element
+     */
+    String tag() default "*";
+
+    /**
+     * How the element text is compared to the localized text
+     */
+    Match match() default Match.EXACT;
+
+    /**
+     * Also match elements whose class attribute contains this, whatever their text; empty for none
+     */
+    String orClass() default "";
+
+    enum Match {
+        /** Whitespace-normalized text equals the localized text */
+        EXACT,
+        /** Whitespace-normalized text contains the localized text */
+        CONTAINS
+    }
+}
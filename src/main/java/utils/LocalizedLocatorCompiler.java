@@ -0,0 +1,78 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles {@link LocalizedFindBy} annotations into a single locator for the active language
+ * Localized text is resolved from the message bundles at page construction time and each
+ * compiled locator is cached per language, so lookups never evaluate other languages' branches
+ */
+public class LocalizedLocatorCompiler {
+
+    private static final Logger logger = LoggingUtil.getLogger(LocalizedLocatorCompiler.class);
+    private static final Map<String, ConfigReader> bundles = new ConcurrentHashMap<>();
+    private static final Map<String, By> compiledLocators = new ConcurrentHashMap<>();
+
+    private LocalizedLocatorCompiler() {
+    }
+
+    /**
+     * Compile the annotation into a locator for the given language
+     */
+    public static By compile(LocalizedFindBy annotation, String language) {
+        ErrorHandler.validateNotNull(annotation, "localized locator annotation");
+        ErrorHandler.validateNotEmpty(language, "language");
+
+        String cacheKey = String.join("|", language, annotation.tag(), annotation.key(), annotation.match().name(),
+                                      annotation.orClass());
+        return compiledLocators.computeIfAbsent(cacheKey, k -> {
+            String text = getBundle(language).getProperty(annotation.key());
+            By locator = buildLocator(annotation.tag(), text, annotation.match(), annotation.orClass());
+            logger.debug("Compiled localized locator '{}' for language '{}': {}", annotation.key(), language, locator);
+            return locator;
+        });
+    }
+
+    /**
+     * Build a single-branch locator matching the element text, or its class when orClass is given
+     */
+    static By buildLocator(String tag, String text, LocalizedFindBy.Match match, String orClass) {
+        String literal = toXPathLiteral(text.trim());
+        String predicate = match == LocalizedFindBy.Match.EXACT
+                ? "normalize-space()=" + literal
+                : "contains(normalize-space(), " + literal + ")";
+        if (!orClass.isEmpty()) {
+            predicate = "contains(@class, " + toXPathLiteral(orClass) + ") or " + predicate;
+        }
+        return By.xpath("//" + tag + "[" + predicate + "]");
+    }
+
+    /**
+     * Quote text as an XPath string literal, using concat() when it holds both quote types
+     */
+    static String toXPathLiteral(String text) {
+        if (!text.contains("'")) {
+            return "'" + text + "'";
+        }
+        if (!text.contains("\"")) {
+            return "\"" + text + "\"";
+        }
+        return "concat('" + text.replace("'", "', \"'\", '") + "')";
+    }
+
+    /**
+     * Clear compiled locators and loaded bundles
+     */
+    public static void clearCache() {
+        compiledLocators.clear();
+        bundles.clear();
+    }
+
+    private static ConfigReader getBundle(String language) {
+        return bundles.computeIfAbsent(language, ConfigReader::new);
+    }
+}
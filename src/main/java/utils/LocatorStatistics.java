@@ -0,0 +1,160 @@
+package utils;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Suite-wide registry of element lookup timings recorded by the cached element locators
+ * Used to report the slowest locators at the end of a run
+ */
+public class LocatorStatistics {
+
+    private static final Logger logger = LoggingUtil.getLogger(LocatorStatistics.class);
+    private static final String REPORT_PATH = "target/reports/locator-timings.csv";
+    private static final Map<String, LocatorStats> statistics = new ConcurrentHashMap<>();
+
+    private LocatorStatistics() {
+    }
+
+    /**
+     * Record a lookup that went to the browser
+     */
+    public static void recordLookup(String locatorKey, long durationNanos, boolean found) {
+        LocatorStats stats = statistics.computeIfAbsent(locatorKey, LocatorStats::new);
+        stats.lookups.increment();
+        stats.totalNanos.add(durationNanos);
+        stats.maxNanos.accumulateAndGet(durationNanos, Math::max);
+        if (!found) {
+            stats.misses.increment();
+        }
+    }
+
+    /**
+     * Record a lookup served from the per-page cache
+     */
+    public static void recordCacheHit(String locatorKey) {
+        statistics.computeIfAbsent(locatorKey, LocatorStats::new).cacheHits.increment();
+    }
+
+    /**
+     * Record a cached element that went stale and had to be re-resolved
+     */
+    public static void recordStaleRecovery(String locatorKey) {
+        statistics.computeIfAbsent(locatorKey, LocatorStats::new).staleRecoveries.increment();
+    }
+
+    /**
+     * Get the slowest locators ordered by average lookup time
+     */
+    public static List<LocatorStats> getSlowestLocators(int limit) {
+        return statistics.values().stream()
+                .filter(stats -> stats.getLookups() > 0)
+                .sorted(Comparator.comparingDouble(LocatorStats::getAverageMillis).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get a formatted report of the slowest locators
+     */
+    public static String getSlowestLocatorsReport(int limit) {
+        List<LocatorStats> slowest = getSlowestLocators(limit);
+        if (slowest.isEmpty()) {
+            return "Locator Timings: no lookups recorded";
+        }
+
+        StringBuilder report = new StringBuilder("Slowest Locators (by average lookup time):");
+        for (LocatorStats stats : slowest) {
+            report.append("\n- ").append(stats);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Log the slowest locators and write all timings to target/reports/locator-timings.csv
+     */
+    public static void writeReport(int limit) {
+        logger.info(getSlowestLocatorsReport(limit));
+
+        if (statistics.isEmpty()) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("locator,lookups,cacheHits,staleRecoveries,misses,avgMs,maxMs,totalMs");
+        getSlowestLocators(Integer.MAX_VALUE).forEach(stats -> lines.add(stats.toCsv()));
+
+        try {
+            Path reportPath = Paths.get(REPORT_PATH);
+            Files.createDirectories(reportPath.getParent());
+            Files.write(reportPath, lines, StandardCharsets.UTF_8);
+            LoggingUtil.logReportGeneration("locator-timings", REPORT_PATH, true);
+        } catch (IOException e) {
+            logger.warn("Failed to write locator timing report: {}", e.getMessage());
+            LoggingUtil.logReportGeneration("locator-timings", REPORT_PATH, false);
+        }
+    }
+
+    /**
+     * Reset all recorded statistics
+     */
+    public static void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * Timing statistics for a single locator
+     */
+    public static class LocatorStats {
+        private final String locatorKey;
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder staleRecoveries = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        LocatorStats(String locatorKey) {
+            this.locatorKey = locatorKey;
+        }
+
+        public String getLocatorKey() { return locatorKey; }
+        public long getLookups() { return lookups.sum(); }
+        public long getCacheHits() { return cacheHits.sum(); }
+        public long getStaleRecoveries() { return staleRecoveries.sum(); }
+        public long getMisses() { return misses.sum(); }
+        public double getTotalMillis() { return totalNanos.sum() / 1_000_000.0; }
+        public double getMaxMillis() { return maxNanos.get() / 1_000_000.0; }
+
+        public double getAverageMillis() {
+            long count = getLookups();
+            return count == 0 ? 0 : getTotalMillis() / count;
+        }
+
+        String toCsv() {
+            return String.format("\"%s\",%d,%d,%d,%d,%.2f,%.2f,%.2f",
+                    locatorKey.replace("\"", "\"\""), getLookups(), getCacheHits(), getStaleRecoveries(),
+                    getMisses(), getAverageMillis(), getMaxMillis(), getTotalMillis());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: avg=%.1fms, max=%.1fms, lookups=%d, cacheHits=%d, staleRecoveries=%d, misses=%d",
+                    locatorKey, getAverageMillis(), getMaxMillis(), getLookups(), getCacheHits(),
+                    getStaleRecoveries(), getMisses());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sampling, per-key rate limiting and aggregation for one high-frequency LoggingUtil category
+ * (wait, performance, element). Identical events share a key; events that are not written are
+ * counted and reported as one summary line per key and interval, at the level of the suppressed events.
+ * Counters are kept per thread, i.e. per running scenario, so summaries carry that scenario's MDC and go
+ * to its log file; flush at scenario end reports the rest and starts over. Settings (config.properties or -D):
+ * <pre>
+ * log.throttle.&lt;category&gt;.sample=N           write 1 in N events per key (1 = all), never applied to warnings
+ * log.throttle.&lt;category&gt;.rate.per.second=R  write at most R events per key and second (0 = unlimited)
+ * log.throttle.&lt;category&gt;.aggregate=true     log summaries of suppressed events, false just drops them
+ * log.throttle.summary.interval.seconds=30
+ * </pre>
+ */
+public class LogThrottle {
+
+    private static final int MAX_KEYS = 512;
+    private static final String OTHER_KEY = "(other)";
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String category;
+    private final Logger logger;
+    // Counters of the scenario running on each thread; only that thread reads or writes them
+    private final ThreadLocal<ScenarioState> scenarioState = ThreadLocal.withInitial(ScenarioState::new);
+
+    // Read on first use: LoggingUtil is initialized before ConfigReader has loaded its properties
+    private volatile boolean configured;
+    private int sample = 1;
+    private int ratePerSecond;
+    private boolean aggregate = true;
+    private long summaryIntervalNanos;
+
+    public LogThrottle(String category, Logger logger) {
+        this.category = category;
+        this.logger = logger;
+    }
+
+    /**
+     * Decide whether an event is written; suppressed events are counted for the next summary
+     *
+     * @param kind    event kind, e.g. the wait type or operation name
+     * @param subject element or locator the event is about, may be null
+     * @param level   level the event is logged at; WARN and above are rate limited but not sampled,
+     *                and summaries of suppressed events are written at this level
+     * @param value   duration to aggregate for suppressed events, negative when not applicable
+     * @return true when the caller should log the event
+     */
+    public boolean allow(String kind, String subject, Level level, long value) {
+        configure();
+        if (sample <= 1 && ratePerSecond <= 0) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        ScenarioState scenario = scenarioState.get();
+        KeyState state = scenario.stateFor(level, subject == null ? kind : kind + " " + subject, now);
+        boolean warning = level.toInt() >= Level.WARN.toInt();
+        boolean allowed = state.admit(now, warning ? 1 : sample, ratePerSecond);
+        if (!allowed) {
+            state.suppress(value);
+        }
+        if (now - scenario.lastSummary >= summaryIntervalNanos) {
+            summarize(scenario, now);
+        }
+        return allowed;
+    }
+
+    /**
+     * Write summaries for everything the current scenario suppressed since its last summary and start
+     * over for the next scenario on this thread (scenario end)
+     */
+    public void flush() {
+        if (!configured) {
+            return;
+        }
+        summarize(scenarioState.get(), System.nanoTime());
+        scenarioState.remove();
+    }
+
+    private void summarize(ScenarioState scenario, long now) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(now - scenario.lastSummary);
+        scenario.lastSummary = now;
+        for (Map.Entry<Level, Map<String, KeyState>> levelStates : scenario.states.entrySet()) {
+            summarize(levelStates.getValue(), levelStates.getKey(), seconds);
+        }
+    }
+
+    private void summarize(Map<String, KeyState> states, Level level, long seconds) {
+        states.entrySet().removeIf(entry -> {
+            KeyState state = entry.getValue();
+            if (state.seen == 0) {
+                // Idle for a whole interval, forget the key
+                return true;
+            }
+            if (state.suppressed > 0 && aggregate) {
+                if (state.valueCount > 0) {
+                    logSummary(level, "Suppressed {} {} events in the last {}s: {} (avg {}ms, max {}ms)",
+                              state.suppressed, category, seconds, entry.getKey(),
+                              state.valueSum / state.valueCount, state.valueMax);
+                } else {
+                    logSummary(level, "Suppressed {} {} events in the last {}s: {}",
+                              state.suppressed, category, seconds, entry.getKey());
+                }
+            }
+            state.reset();
+            return false;
+        });
+    }
+
+    private void logSummary(Level level, String format, Object... args) {
+        switch (level) {
+            case ERROR:
+                logger.error(format, args);
+                break;
+            case WARN:
+                logger.warn(format, args);
+                break;
+            case INFO:
+                logger.info(format, args);
+                break;
+            case DEBUG:
+                logger.debug(format, args);
+                break;
+            default:
+                logger.trace(format, args);
+                break;
+        }
+    }
+
+    private void configure() {
+        if (configured) {
+            return;
+        }
+        synchronized (this) {
+            if (!configured) {
+                String prefix = "log.throttle." + category + ".";
+                sample = Math.max(1, Integer.parseInt(ConfigReader.getSetting(prefix + "sample", "1")));
+                ratePerSecond = Math.max(0, Integer.parseInt(ConfigReader.getSetting(prefix + "rate.per.second", "0")));
+                aggregate = Boolean.parseBoolean(ConfigReader.getSetting(prefix + "aggregate", "true"));
+                summaryIntervalNanos = TimeUnit.SECONDS.toNanos(
+                    Math.max(1, Long.parseLong(ConfigReader.getSetting("log.throttle.summary.interval.seconds", "30"))));
+                configured = true;
+            }
+        }
+    }
+
+    /**
+     * Counters of one scenario (thread), per level and key
+     */
+    private static final class ScenarioState {
+        final Map<Level, Map<String, KeyState>> states = new EnumMap<>(Level.class);
+        long lastSummary = System.nanoTime();
+
+        KeyState stateFor(Level level, String key, long now) {
+            Map<String, KeyState> levelStates = states.computeIfAbsent(level, l -> new LinkedHashMap<>());
+            KeyState state = levelStates.get(key);
+            if (state != null) {
+                return state;
+            }
+            // Bound the number of tracked keys; rare keys beyond the limit share one state
+            return levelStates.computeIfAbsent(levelStates.size() < MAX_KEYS ? key : OTHER_KEY, k -> new KeyState(now));
+        }
+    }
+
+    /**
+     * Counters of one key
+     */
+    private static final class KeyState {
+        long seen;
+        long windowStart;
+        int windowCount;
+        long suppressed;
+        long valueCount;
+        long valueSum;
+        long valueMax;
+
+        KeyState(long now) {
+            windowStart = now - SECOND_NANOS;
+        }
+
+        boolean admit(long now, int sample, int ratePerSecond) {
+            if (seen++ % sample != 0) {
+                return false;
+            }
+            if (ratePerSecond > 0) {
+                if (now - windowStart >= SECOND_NANOS) {
+                    windowStart = now;
+                    windowCount = 0;
+                }
+                if (windowCount >= ratePerSecond) {
+                    return false;
+                }
+                windowCount++;
+            }
+            return true;
+        }
+
+        void suppress(long value) {
+            suppressed++;
+            if (value >= 0) {
+                valueCount++;
+                valueSum += value;
+                valueMax = Math.max(valueMax, value);
+            }
+        }
+
+        void reset() {
+            seen = 0;
+            suppressed = 0;
+            valueCount = 0;
+            valueSum = 0;
+            valueMax = 0;
+        }
+    }
+}
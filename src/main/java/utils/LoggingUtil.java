@@ -3,10 +3,20 @@ package utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.slf4j.event.Level;
+
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Centralized logging utility for the Insurance Dashboard QA Framework
  * Provides structured logging capabilities across all framework components
+ *
+ * The logInfo/logDebug/logWarning/logError helpers check the level before doing any work: pass a
+ * {} template with arguments instead of a concatenated string, and a Supplier for payloads that are
+ * expensive to build (response bodies, JSON). Up to three arguments no varargs array is created.
  */
 public class LoggingUtil {
     
@@ -20,12 +30,31 @@ public class LoggingUtil {
     public static final String PAGE_NAME = "pageName";
     public static final String ACTION = "action";
     public static final String ELEMENT = "element";
+    // File-safe scenario name, location and thread used by logback-test.xml to sift events into one file per scenario
+    public static final String SCENARIO_LOG = "scenarioLog";
+    
+    // High-frequency categories, sampled and rate limited per config.properties (log.throttle.*), counted per scenario thread
+    private static final LogThrottle WAIT_EVENTS = new LogThrottle("wait", logger);
+    private static final LogThrottle PERFORMANCE_EVENTS = new LogThrottle("performance", logger);
+    private static final LogThrottle ELEMENT_EVENTS = new LogThrottle("element", logger);
+    
+    // Tells logback's SiftingAppender that the scenario's log file can be closed
+    private static final Marker FINALIZE_SESSION = MarkerFactory.getMarker("FINALIZE_SESSION");
     
     /**
      * Set context for current test scenario
      */
     public static void setTestContext(String scenarioName, String browser, String language) {
+        setTestContext(scenarioName, null, browser, language);
+    }
+    
+    /**
+     * Set context for current test scenario; the location (e.g. "policy_search.feature:42") tells outline
+     * examples and same-named scenarios apart, so each run gets its own log file
+     */
+    public static void setTestContext(String scenarioName, String location, String browser, String language) {
         MDC.put(TEST_SCENARIO, scenarioName);
+        MDC.put(SCENARIO_LOG, toScenarioLogKey(scenarioName, location));
         MDC.put(BROWSER, browser);
         MDC.put(LANGUAGE, language);
         logger.info("Test context set - Scenario: {}, Browser: {}, Language: {}", 
@@ -52,9 +81,10 @@ public class LoggingUtil {
      * Log page action
      */
     public static void logPageAction(String pageName, String action, String element) {
-        MDC.put(PAGE_NAME, pageName);
-        MDC.put(ACTION, action);
-        MDC.put(ELEMENT, element);
+        // Consecutive actions mostly stay on one page; unchanged keys are not written again
+        putIfChanged(PAGE_NAME, pageName);
+        putIfChanged(ACTION, action);
+        putIfChanged(ELEMENT, element);
         logger.info("Page Action - Page: {}, Action: {}, Element: {}", pageName, action, element);
     }
     
@@ -106,8 +136,10 @@ public class LoggingUtil {
      */
     public static void logWaitOperation(String waitType, String element, long timeoutSeconds, boolean success) {
         if (success) {
-            logger.debug("Wait SUCCESS - Type: {}, Element: {}, Timeout: {}s", waitType, element, timeoutSeconds);
-        } else {
+            if (logger.isDebugEnabled() && WAIT_EVENTS.allow(waitType, element, Level.DEBUG, -1)) {
+                logger.debug("Wait SUCCESS - Type: {}, Element: {}, Timeout: {}s", waitType, element, timeoutSeconds);
+            }
+        } else if (logger.isWarnEnabled() && WAIT_EVENTS.allow(waitType, element, Level.WARN, -1)) {
             logger.warn("Wait TIMEOUT - Type: {}, Element: {}, Timeout: {}s", waitType, element, timeoutSeconds);
         }
     }
@@ -116,6 +148,9 @@ public class LoggingUtil {
      * Log element interaction
      */
     public static void logElementInteraction(String interaction, String element, String value) {
+        if (!logger.isDebugEnabled() || !ELEMENT_EVENTS.allow(interaction, element, Level.DEBUG, -1)) {
+            return;
+        }
         if (value != null && !value.isEmpty()) {
             logger.debug("Element Interaction - {}: {} with value: {}", interaction, element, value);
         } else {
@@ -146,6 +181,8 @@ public class LoggingUtil {
         } else {
             logger.error("=== SCENARIO FAILED: {} ===", scenarioName);
         }
+        flushThrottledEvents();
+        logger.debug(FINALIZE_SESSION, "Closing scenario log: {}", MDC.get(SCENARIO_LOG));
     }
     
     /**
@@ -166,6 +203,28 @@ public class LoggingUtil {
         }
     }
     
+    private static void putIfChanged(String key, String value) {
+        if (!Objects.equals(MDC.get(key), value)) {
+            MDC.put(key, value);
+        }
+    }
+    
+    /**
+     * File-safe "name_location_thread" key; the thread keeps parallel runs of the same scenario apart
+     */
+    private static String toScenarioLogKey(String scenarioName, String location) {
+        String key = toFileName(scenarioName, 100);
+        if (location != null && !location.isEmpty()) {
+            key += "_" + toFileName(location, 60);
+        }
+        return key + "_" + toFileName(Thread.currentThread().getName(), 40);
+    }
+    
+    private static String toFileName(String value, int maxLength) {
+        String fileName = value == null ? "unnamed" : value.replaceAll("[^A-Za-z0-9._-]+", "_");
+        return fileName.length() > maxLength ? fileName.substring(0, maxLength) : fileName;
+    }
+    
     /**
      * Clear MDC context (call at end of test)
      */
@@ -174,6 +233,138 @@ public class LoggingUtil {
         logger.debug("MDC context cleared");
     }
     
+    public static boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+    
+    public static boolean isInfoEnabled() {
+        return logger.isInfoEnabled();
+    }
+    
+    /**
+     * Log at INFO; arguments are only formatted when INFO is enabled
+     */
+    public static void logInfo(String message) {
+        logger.info(message);
+    }
+    
+    public static void logInfo(String format, Object arg) {
+        logger.info(format, arg);
+    }
+    
+    public static void logInfo(String format, Object arg1, Object arg2) {
+        logger.info(format, arg1, arg2);
+    }
+    
+    public static void logInfo(String format, Object arg1, Object arg2, Object arg3) {
+        if (logger.isInfoEnabled()) {
+            logger.info(format, arg1, arg2, arg3);
+        }
+    }
+    
+    /**
+     * Log at INFO; the message is only built when INFO is enabled
+     */
+    public static void logInfo(Supplier<String> message) {
+        if (logger.isInfoEnabled()) {
+            logger.info(message.get());
+        }
+    }
+    
+    /**
+     * Log at DEBUG; arguments are only formatted when DEBUG is enabled
+     */
+    public static void logDebug(String message) {
+        logger.debug(message);
+    }
+    
+    public static void logDebug(String format, Object arg) {
+        logger.debug(format, arg);
+    }
+    
+    public static void logDebug(String format, Object arg1, Object arg2) {
+        logger.debug(format, arg1, arg2);
+    }
+    
+    public static void logDebug(String format, Object arg1, Object arg2, Object arg3) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format, arg1, arg2, arg3);
+        }
+    }
+    
+    /**
+     * Log at DEBUG; the message is only built when DEBUG is enabled
+     */
+    public static void logDebug(Supplier<String> message) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(message.get());
+        }
+    }
+    
+    /**
+     * Log at WARN; arguments are only formatted when WARN is enabled
+     */
+    public static void logWarning(String message) {
+        logger.warn(message);
+    }
+    
+    public static void logWarning(String format, Object arg) {
+        logger.warn(format, arg);
+    }
+    
+    public static void logWarning(String format, Object arg1, Object arg2) {
+        logger.warn(format, arg1, arg2);
+    }
+    
+    public static void logWarning(String format, Object arg1, Object arg2, Object arg3) {
+        if (logger.isWarnEnabled()) {
+            logger.warn(format, arg1, arg2, arg3);
+        }
+    }
+    
+    /**
+     * Log at WARN; the message is only built when WARN is enabled
+     */
+    public static void logWarning(Supplier<String> message) {
+        if (logger.isWarnEnabled()) {
+            logger.warn(message.get());
+        }
+    }
+    
+    /**
+     * Log at ERROR; arguments are only formatted when ERROR is enabled
+     */
+    public static void logError(String message) {
+        logger.error(message);
+    }
+    
+    public static void logError(String format, Object arg) {
+        logger.error(format, arg);
+    }
+    
+    public static void logError(String format, Object arg1, Object arg2) {
+        logger.error(format, arg1, arg2);
+    }
+    
+    public static void logError(String format, Object arg1, Object arg2, Object arg3) {
+        if (logger.isErrorEnabled()) {
+            logger.error(format, arg1, arg2, arg3);
+        }
+    }
+    
+    /**
+     * Log at ERROR; the message is only built when ERROR is enabled
+     */
+    public static void logError(Supplier<String> message) {
+        if (logger.isErrorEnabled()) {
+            logger.error(message.get());
+        }
+    }
+    
+    public static void logError(String message, Throwable throwable) {
+        logger.error(message, throwable);
+    }
+    
     /**
      * Get logger for specific class
      */
@@ -186,12 +377,24 @@ public class LoggingUtil {
      */
     public static void logPerformance(String operation, long durationMs) {
         if (durationMs > 5000) { // Log slow operations (>5 seconds)
-            logger.warn("SLOW OPERATION - {}: {}ms", operation, durationMs);
-        } else {
+            if (PERFORMANCE_EVENTS.allow(operation, null, Level.WARN, durationMs)) {
+                logger.warn("SLOW OPERATION - {}: {}ms", operation, durationMs);
+            }
+        } else if (logger.isDebugEnabled() && PERFORMANCE_EVENTS.allow(operation, null, Level.DEBUG, durationMs)) {
             logger.debug("Performance - {}: {}ms", operation, durationMs);
         }
     }
     
+    /**
+     * Write summaries of the wait, performance and element events the current scenario's thread had
+     * sampled or rate limited, and reset its counters
+     */
+    public static void flushThrottledEvents() {
+        WAIT_EVENTS.flush();
+        PERFORMANCE_EVENTS.flush();
+        ELEMENT_EVENTS.flush();
+    }
+    
     /**
      * Log test environment info
      */
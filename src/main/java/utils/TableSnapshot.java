@@ -0,0 +1,310 @@
+package utils;
+
+import exceptions.FrameworkException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory snapshot of an HTML table (or a list of row elements)
+ * Reads headers, cell texts and row ids in a single JavaScript evaluation instead of
+ * one findElement/getText round-trip per cell
+ */
+public final class TableSnapshot {
+
+    private static final Logger logger = LoggingUtil.getLogger(TableSnapshot.class);
+
+    // Returns {headers: [...], rows: [{id, cells: [...]}]} for the table passed as arguments[0]
+    // Data rows come from the tbody sections only, so tfoot totals and pager rows are left out;
+    // without a tbody (not a <table>), every tr outside thead/tfoot is a data row
+    private static final String TABLE_SCRIPT =
+        "var table = arguments[0];" +
+        "var text = function(el) { return (el.innerText || el.textContent || '').replace(/\\s+/g, ' ').trim(); };" +
+        "var bodyRows = [];" +
+        "if (table.tBodies && table.tBodies.length) {" +
+        "  for (var b = 0; b < table.tBodies.length; b++) {" +
+        "    for (var i = 0; i < table.tBodies[b].rows.length; i++) {" +
+        "      var bodyRow = table.tBodies[b].rows[i];" +
+        "      bodyRows.push({row: bodyRow, domIndex: bodyRow.rowIndex});" +
+        "    }" +
+        "  }" +
+        "} else {" +
+        "  var allRows = table.querySelectorAll('tr');" +
+        "  for (var t = 0; t < allRows.length; t++) {" +
+        "    var section = allRows[t].parentNode ? allRows[t].parentNode.tagName : '';" +
+        "    if (section !== 'THEAD' && section !== 'TFOOT') { bodyRows.push({row: allRows[t], domIndex: t}); }" +
+        "  }" +
+        "}" +
+        "var headers = [];" +
+        "var headerRow = table.tHead && table.tHead.rows.length ? table.tHead.rows[0] : null;" +
+        "if (!headerRow && bodyRows.length && bodyRows[0].row.querySelector('th') && !bodyRows[0].row.querySelector('td')) {" +
+        "  headerRow = bodyRows.shift().row;" +
+        "}" +
+        "if (headerRow) { for (var h = 0; h < headerRow.cells.length; h++) { headers.push(text(headerRow.cells[h])); } }" +
+        "var rows = [];" +
+        "for (var r = 0; r < bodyRows.length; r++) {" +
+        "  var row = bodyRows[r].row;" +
+        "  var cells = [];" +
+        "  for (var c = 0; c < row.cells.length; c++) { cells.push(text(row.cells[c])); }" +
+        "  rows.push({id: row.id || row.getAttribute('data-id') || '', index: bodyRows[r].domIndex, cells: cells});" +
+        "}" +
+        "return {headers: headers, rows: rows};";
+
+    // Same shape as TABLE_SCRIPT, for an arbitrary list of row elements passed as arguments[0]
+    private static final String ROWS_SCRIPT =
+        "var text = function(el) { return (el.innerText || el.textContent || '').replace(/\\s+/g, ' ').trim(); };" +
+        "var rows = [];" +
+        "for (var r = 0; r < arguments[0].length; r++) {" +
+        "  var row = arguments[0][r];" +
+        "  var cellNodes = row.cells ? row.cells : row.children;" +
+        "  var cells = [];" +
+        "  for (var c = 0; c < cellNodes.length; c++) { cells.push(text(cellNodes[c])); }" +
+        "  if (cells.length === 0) { cells.push(text(row)); }" +
+        "  rows.push({id: row.id || row.getAttribute('data-id') || '', index: r, cells: cells});" +
+        "}" +
+        "return {headers: [], rows: rows};";
+
+    private final List<String> headers;
+    private final List<Row> rows;
+    private final Map<String, Integer> headerIndex;
+    private final long captureTimeMs;
+
+    private TableSnapshot(List<String> headers, List<Row> rows, long captureTimeMs) {
+        this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+        this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+        this.captureTimeMs = captureTimeMs;
+
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < headers.size(); i++) {
+            index.putIfAbsent(headers.get(i).toLowerCase(), i);
+        }
+        this.headerIndex = Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Capture a whole table element (thead/tbody or plain rows) in one script call; tfoot rows are skipped
+     */
+    public static TableSnapshot capture(WebDriver driver, WebElement table) {
+        ErrorHandler.validateNotNull(table, "table element");
+        return execute(driver, TABLE_SCRIPT, table, "table");
+    }
+
+    /**
+     * Capture a list of row elements (e.g. a @FindBy List of .claim-row) in one script call
+     */
+    public static TableSnapshot captureRows(WebDriver driver, List<WebElement> rowElements) {
+        ErrorHandler.validateNotNull(rowElements, "row elements");
+        if (rowElements.isEmpty()) {
+            return empty();
+        }
+        return execute(driver, ROWS_SCRIPT, rowElements, "rows");
+    }
+
+    /**
+     * Resolve the live row element for a row captured from a table, in one script call
+     */
+    public static WebElement getRowElement(WebDriver driver, WebElement table, Row row) {
+        ErrorHandler.validateNotNull(row, "row");
+        Object element = ((JavascriptExecutor) driver).executeScript(
+            "return (arguments[0].rows || arguments[0].querySelectorAll('tr'))[arguments[1]] || null;", table, row.getDomIndex());
+        if (!(element instanceof WebElement)) {
+            throw new FrameworkException(String.format("Row %d is no longer present in the table", row.getDomIndex()));
+        }
+        return (WebElement) element;
+    }
+
+    /**
+     * Empty snapshot (no headers, no rows)
+     */
+    public static TableSnapshot empty() {
+        return new TableSnapshot(Collections.emptyList(), Collections.emptyList(), 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TableSnapshot execute(WebDriver driver, String script, Object argument, String source) {
+        ErrorHandler.validateDriver(driver);
+        if (!(driver instanceof JavascriptExecutor)) {
+            throw new FrameworkException("Table snapshot requires a JavascriptExecutor driver");
+        }
+
+        long startTime = System.currentTimeMillis();
+        Object raw = ((JavascriptExecutor) driver).executeScript(script, argument);
+        long duration = System.currentTimeMillis() - startTime;
+
+        if (!(raw instanceof Map)) {
+            throw new FrameworkException("Unexpected table snapshot result: " + raw);
+        }
+
+        Map<String, Object> result = (Map<String, Object>) raw;
+        List<String> headers = toStringList(result.get("headers"));
+        List<Row> rows = new ArrayList<>();
+
+        Object rawRows = result.get("rows");
+        if (rawRows instanceof List) {
+            for (Object rawRow : (List<Object>) rawRows) {
+                Map<String, Object> rowMap = (Map<String, Object>) rawRow;
+                Object index = rowMap.get("index");
+                rows.add(new Row(rows.size(),
+                                 index instanceof Number ? ((Number) index).intValue() : rows.size(),
+                                 String.valueOf(rowMap.getOrDefault("id", "")),
+                                 toStringList(rowMap.get("cells"))));
+            }
+        }
+
+        LoggingUtil.logPerformance("tableSnapshot_" + source, duration);
+        logger.debug("Captured {} snapshot: {} headers, {} rows in {}ms", source, headers.size(), rows.size(), duration);
+        return new TableSnapshot(headers, rows, duration);
+    }
+
+    private static List<String> toStringList(Object value) {
+        if (!(value instanceof List)) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (Object item : (List<?>) value) {
+            result.add(item != null ? item.toString() : "");
+        }
+        return result;
+    }
+
+    // Accessors
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    public long getCaptureTimeMs() {
+        return captureTimeMs;
+    }
+
+    /**
+     * Get column index by header text (case-insensitive), or -1 if not present
+     */
+    public int getColumnIndex(String header) {
+        ErrorHandler.validateNotEmpty(header, "header");
+        return headerIndex.getOrDefault(header.trim().toLowerCase(), -1);
+    }
+
+    /**
+     * Get all values of a column by zero-based index (missing cells become empty strings)
+     */
+    public List<String> getColumn(int columnIndex) {
+        return rows.stream()
+                .map(row -> row.getCell(columnIndex))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get all values of a column by header text
+     */
+    public List<String> getColumn(String header) {
+        int columnIndex = getColumnIndex(header);
+        if (columnIndex < 0) {
+            throw new FrameworkException(String.format("Column '%s' not found in table headers %s", header, headers));
+        }
+        return getColumn(columnIndex);
+    }
+
+    /**
+     * Find the first row matching the filter
+     */
+    public Optional<Row> findRow(Predicate<Row> filter) {
+        return rows.stream().filter(filter).findFirst();
+    }
+
+    /**
+     * Find the first row whose cell at the given column equals the value
+     */
+    public Optional<Row> findRowByCell(int columnIndex, String value) {
+        return findRow(row -> row.getCell(columnIndex).equals(value));
+    }
+
+    /**
+     * Find the first row with the given row id
+     */
+    public Optional<Row> findRowById(String rowId) {
+        return findRow(row -> row.getId().equals(rowId));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TableSnapshot{headers=%s, rows=%d, captureTime=%dms}", headers, rows.size(), captureTimeMs);
+    }
+
+    /**
+     * Immutable snapshot of a single table row
+     */
+    public static final class Row {
+        private final int index;
+        private final int domIndex;
+        private final String id;
+        private final List<String> cells;
+
+        private Row(int index, int domIndex, String id, List<String> cells) {
+            this.index = index;
+            this.domIndex = domIndex;
+            this.id = id;
+            this.cells = Collections.unmodifiableList(new ArrayList<>(cells));
+        }
+
+        /**
+         * Zero-based position among the captured data rows
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Zero-based position in table.rows (includes header rows), or in the captured row list
+         */
+        public int getDomIndex() {
+            return domIndex;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public List<String> getCells() {
+            return cells;
+        }
+
+        public String getCell(int columnIndex) {
+            return columnIndex >= 0 && columnIndex < cells.size() ? cells.get(columnIndex) : "";
+        }
+
+        /**
+         * Row text with cells joined by a single space, like WebElement.getText() on a row
+         */
+        public String getText() {
+            return String.join(" ", cells);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Row{index=%d, id='%s', cells=%s}", index, id, cells);
+        }
+    }
+}
@@ -31,35 +31,116 @@ dition", duration);
 
     /**
      * Smart wait that combines multiple strategies for robust waiting with custom timeout
+     * Presence, visibility and clickability are checked in one polling loop against a single
+     * deadline; the animation check only gets whatever budget is left
      */
     public static boolean smartWait(By locator, long timeoutInSeconds) {
         long startTime = System.currentTimeMillis();
+        long deadline = startTime + timeoutInSeconds * 1000;
+        SmartWaitStages stages = new SmartWaitStages(startTime);
         
         try {
-            // Strategy 1: Wait for element to be present
-            waitForElementPresent(locator, timeoutInSeconds / 3);
-            
-            // Strategy 2: Wait for element to be visible
-            waitForElementVisible(locator, timeoutInSeconds / 3);
-            
-            // Strategy 3: Wait for element to be clickable
-            waitForElementClickable(locator, timeoutInSeconds / 3);
+            // Strategies 1-3: present, visible and clickable as one composite condition
+            ExpectedCondition<WebElement> readyCondition = driver -> {
+                try {
+                    List<WebElement> elements = driver.findElements(locator);
+                    if (elements.isEmpty()) {
+                        return null;
+                    }
+                    stages.mark(SmartWaitStages.PRESENT);
+                    
+                    WebElement element = elements.get(0);
+                    if (!element.isDisplayed()) {
+                        return null;
+                    }
+                    stages.mark(SmartWaitStages.VISIBLE);
+                    
+                    if (!element.isEnabled()) {
+                        return null;
+                    }
+                    stages.mark(SmartWaitStages.CLICKABLE);
+                    return element;
+                } catch (Exception e) {
+                    return null;
+                }
+            };
+            WebElement element = getWait(timeoutInSeconds).until(readyCondition);
             
-            // Strategy 4: Wait for any animations to complete
-            WebElement element = driver.findElement(locator);
-            waitForElementToStopMoving(element, ANIMATION_TIMEOUT);
+            // Strategy 4: Wait for any animations to complete within the remaining budget
+            long remainingMillis = Math.min(deadline - System.currentTimeMillis(), ANIMATION_TIMEOUT * 1000);
+            if (remainingMillis > 0) {
+                Boolean settled = DomEventWaiter.awaitElementStill(driver, element, remainingMillis);
+                if (settled == null) {
+                    settled = DomEventWaiter.pollElementStill(element, remainingMillis);
+                }
+                if (!settled) {
+                    // Still moving when the budget ran out, or replaced while animating
+                    return smartWaitFailed(locator, timeoutInSeconds, startTime, stages);
+                }
+            }
+            stages.mark(SmartWaitStages.SETTLED);
             
             long duration = System.currentTimeMillis() - startTime;
             LoggingUtil.logWaitOperation("smartWait", locator.toString(), timeoutInSeconds, true);
             LoggingUtil.logPerformance("smartWait", duration);
+            stages.logPerformance();
+            logger.debug("Smart wait completed for: {} in {}ms ({})", locator, duration, stages);
             return true;
             
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            LoggingUtil.logWaitOperation("smartWait", locator.toString(), timeoutInSeconds, false);
-            LoggingUtil.logPerformance("smartWait_Failed", duration);
-            logger.warn("Smart wait failed for: {} after {}ms", locator, duration);
-            return false;
+            return smartWaitFailed(locator, timeoutInSeconds, startTime, stages);
+        }
+    }
+
+    private static boolean smartWaitFailed(By locator, long timeoutInSeconds, long startTime, SmartWaitStages stages) {
+        long duration = System.currentTimeMillis() - startTime;
+        LoggingUtil.logWaitOperation("smartWait", locator.toString(), timeoutInSeconds, false);
+        LoggingUtil.logPerformance("smartWait_Failed", duration);
+        logger.warn("Smart wait failed for: {} after {}ms ({})", locator, duration, stages);
+        return false;
+    }
+
+    /**
+     * Time at which each smartWait stage was first satisfied, relative to the start of the wait
+     */
+    private static class SmartWaitStages {
+        static final int PRESENT = 0;
+        static final int VISIBLE = 1;
+        static final int CLICKABLE = 2;
+        static final int SETTLED = 3;
+        private static final String[] NAMES = {"present", "visible", "clickable", "settled"};
+        
+        private final long startTime;
+        private final long[] reachedAt = {-1, -1, -1, -1};
+        
+        SmartWaitStages(long startTime) {
+            this.startTime = startTime;
+        }
+        
+        void mark(int stage) {
+            if (reachedAt[stage] < 0) {
+                reachedAt[stage] = System.currentTimeMillis() - startTime;
+            }
+        }
+        
+        void logPerformance() {
+            for (int i = 0; i < NAMES.length; i++) {
+                if (reachedAt[i] >= 0) {
+                    LoggingUtil.logPerformance("smartWait_" + NAMES[i], reachedAt[i]);
+                }
+            }
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < NAMES.length; i++) {
+                if (i > 0) {
+                    result.append(", ");
+                }
+                result.append(NAMES[i]).append('=').append(reachedAt[i] >= 0 ? reachedAt[i] + "ms" : "not reached");
+            }
+            return result.toString();
         }
     }
 
@@ -85,7 +166,9 @@ dition", duration);
                 }
             };
             
-            boolean result = getWait(timeoutInSeconds).until(listSizeCondition);
+            // Block in the page on DOM mutations; poll with findElements only if scripts are unavailable
+            Boolean eventResult = DomEventWaiter.awaitElementCount(driver, locator, expectedSize, timeoutInSeconds * 1000);
+            boolean result = eventResult != null ? eventResult : getWait(timeoutInSeconds).until(listSizeCondition);
             long duration = System.currentTimeMillis() - startTime;
             LoggingUtil.logWaitOperation("listSize", locator.toString() + " size=" + expectedSize, timeoutInSeconds, result);
             LoggingUtil.logPerformance("waitForElementListSize", duration);
@@ -121,7 +204,9 @@ dition", duration);
                 }
             };
             
-            boolean result = getWait(timeoutInSeconds).until(listMinSizeCondition);
+            // Block in the page on DOM mutations; poll with findElements only if scripts are unavailable
+            Boolean eventResult = DomEventWaiter.awaitMinElementCount(driver, locator, minSize, timeoutInSeconds * 1000);
+            boolean result = eventResult != null ? eventResult : getWait(timeoutInSeconds).until(listMinSizeCondition);
             long duration = System.currentTimeMillis() - startTime;
             LoggingUtil.logWaitOperation("listMinSize", locator.toString() + " minSize=" + minSize, timeoutInSeconds, result);
             LoggingUtil.logPerformance("waitForElementListMinSize", duration);
@@ -0,0 +1,95 @@
+package benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.LoggingUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the LoggingUtil helpers against a concatenated message ("Guarded Messages" in
+ * LOGGING_IMPLEMENTATION.md). All events go to a NOP appender, so only the logging call itself is
+ * measured; level INFO is "DEBUG off". The GC profiler reports the allocation per call (gc.alloc.rate.norm)
+ *
+ * Usage (from the project directory, after mvn test-compile dependency:build-classpath
+ * -Dmdep.outputFile=target/classpath.txt):
+ * java -cp "target/test-classes:target/classes:$(cat target/classpath.txt)" benchmarks.LoggingOverheadBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingOverheadBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOverheadBenchmark.class);
+
+    @Param({"INFO", "DEBUG"})
+    public String level;
+
+    // Instance fields, so the message parts are not constant-folded
+    private String method = "GET";
+    private String endpoint = "/api/policies";
+    private int attempts = 2;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        NOPAppender<ILoggingEvent> appender = new NOPAppender<>();
+        appender.setContext(context);
+        appender.start();
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.addAppender(appender);
+        root.setLevel(Level.toLevel(level));
+    }
+
+    @Benchmark
+    public void concatenated() {
+        logger.debug("Executing " + method + " request to " + endpoint + " (attempt " + attempts + ")");
+    }
+
+    @Benchmark
+    public void template() {
+        LoggingUtil.logDebug("Executing {} request to {} (attempt {})", method, endpoint, attempts);
+    }
+
+    @Benchmark
+    public void supplier() {
+        LoggingUtil.logDebug(() -> "Executing " + method + " request to " + endpoint + " (attempt " + attempts + ")");
+    }
+
+    @Benchmark
+    public void pageAction() {
+        LoggingUtil.logPageAction("PolicyDetailsPage", "click", "editButton");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LoggingOverheadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import utils.WaitUtil;
+import utils.WebDriverUtil;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Latency of smartWait against the sequential waits it replaced, on the static fixture
+ * src/test/resources/fixtures/smart-wait.html. Each case shapes when the target button appears,
+ * becomes visible, enabled and starts moving; both strategies run it the given number of times and
+ * the p50/p90/max latency and success count are printed
+ *
+ * Usage (from the project directory, after mvn test-compile dependency:build-classpath
+ * -Dmdep.outputFile=target/classpath.txt):
+ * java -Dheadless=true -cp "target/test-classes:target/classes:$(cat target/classpath.txt)"
+ *      benchmarks.SmartWaitBenchmark [iterations]
+ */
+public class SmartWaitBenchmark {
+
+    private static final By TARGET = By.id("target");
+    private static final long TIMEOUT_SECONDS = 6;
+
+    private static final String[][] CASES = {
+        {"immediate", "present=0&visible=0&enabled=0"},
+        {"appears after 1s", "present=1000&visible=1000&enabled=1000"},
+        {"slow stages (visible 2.5s, enabled 4.5s)", "present=0&visible=2500&enabled=4500"},
+        {"animates after showing", "present=300&visible=300&enabled=300&animate=350"},
+        {"missing", "present=-1"},
+    };
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path fixture = Paths.get("src", "test", "resources", "fixtures", "smart-wait.html").toAbsolutePath();
+        WebDriver driver = WebDriverUtil.getDriver();
+        try {
+            System.out.printf("%-42s %-8s %8s %8s %8s %6s%n", "case", "wait", "p50 ms", "p90 ms", "max ms", "ok");
+            for (String[] testCase : CASES) {
+                String url = fixture.toUri() + "?" + testCase[1];
+                run(driver, url, testCase[0], "before", iterations, SmartWaitBenchmark::sequentialWait);
+                run(driver, url, testCase[0], "after", iterations, () -> WaitUtil.smartWait(TARGET, TIMEOUT_SECONDS));
+            }
+        } finally {
+            WebDriverUtil.quitDriver();
+        }
+    }
+
+    private static void run(WebDriver driver, String url, String caseName, String waitName, int iterations,
+                            WaitStrategy strategy) {
+        List<Long> latencies = new ArrayList<>();
+        int succeeded = 0;
+        for (int i = 0; i < iterations; i++) {
+            driver.get(url);
+            long start = System.nanoTime();
+            if (strategy.await()) {
+                succeeded++;
+            }
+            latencies.add((System.nanoTime() - start) / 1_000_000);
+        }
+        Collections.sort(latencies);
+        System.out.printf("%-42s %-8s %8d %8d %8d %3d/%d%n", caseName, waitName, percentile(latencies, 50),
+                          percentile(latencies, 90), latencies.get(latencies.size() - 1), succeeded, iterations);
+    }
+
+    /**
+     * smartWait before the single-deadline rework: three waits with a third of the timeout each,
+     * then a full animation wait
+     */
+    private static boolean sequentialWait() {
+        try {
+            WaitUtil.waitForElementPresent(TARGET, TIMEOUT_SECONDS / 3);
+            WaitUtil.waitForElementVisible(TARGET, TIMEOUT_SECONDS / 3);
+            WaitUtil.waitForElementClickable(TARGET, TIMEOUT_SECONDS / 3);
+            WebElement element = WebDriverUtil.getDriver().findElement(TARGET);
+            WaitUtil.waitForElementToStopMoving(element, WaitUtil.ANIMATION_TIMEOUT);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    @FunctionalInterface
+    private interface WaitStrategy {
+        boolean await();
+    }
+}
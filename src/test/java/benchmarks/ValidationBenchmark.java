@@ -0,0 +1,104 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import testdata.factories.TestDataFactory;
+import testdata.models.PolicyModel;
+import testdata.providers.TestDataManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating a batch of generated policies ("Validation Caching and Batch Validation" in
+ * TEST_DATA_MANAGEMENT_IMPLEMENTATION.md): a plain loop over validationErrors() against
+ * TestDataManager.validateItems, with every model changed since its last validation (uncached) and
+ * unchanged (memoized). touchOnly is the cost of marking the models changed, included in the uncached runs
+ *
+ * Usage (from the project directory, after mvn test-compile dependency:build-classpath
+ * -Dmdep.outputFile=target/classpath.txt):
+ * java -cp "target/test-classes:target/classes:$(cat target/classpath.txt)" benchmarks.ValidationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<PolicyModel> policies;
+    private TestDataManager dataManager;
+
+    @Setup
+    public void setUp() {
+        TestDataFactory.reseed(42);
+        policies = Arrays.asList(TestDataFactory.generateMultiplePolicies(size));
+        dataManager = TestDataManager.getInstance();
+    }
+
+    @Benchmark
+    public void touchOnly() {
+        touch();
+    }
+
+    @Benchmark
+    public void sequentialUncached(Blackhole blackhole) {
+        touch();
+        for (PolicyModel policy : policies) {
+            blackhole.consume(policy.validationErrors());
+        }
+    }
+
+    @Benchmark
+    public List<String> validateItemsUncached() {
+        touch();
+        return dataManager.validateItems(policies);
+    }
+
+    @Benchmark
+    public void sequentialMemoized(Blackhole blackhole) {
+        for (PolicyModel policy : policies) {
+            blackhole.consume(policy.validationErrors());
+        }
+    }
+
+    @Benchmark
+    public List<String> validateItemsMemoized() {
+        return dataManager.validateItems(policies);
+    }
+
+    /**
+     * Mark every model changed, as a setter does, so its next validation runs the checks again
+     */
+    private void touch() {
+        for (PolicyModel policy : policies) {
+            policy.setModifiedDate(policy.getModifiedDate());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ValidationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -23,7 +23,8 @@ import org.junit.platform.suite.api.Suite;
                                "html:target/cucumber-reports/api," +
                                "json:target/cucumber-reports/api/Cucumber.json," +
                                "junit:target/cucumber-reports/api/Cucumber.xml," +
-                               "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm")
+                               "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm," +
+                               "runners.impact.ImpactTracingPlugin")
 @ConfigurationParameter(key = Constants.GLUE_PROPERTY_NAME, 
                        value = "api.stepdefinitions,stepdefinitions")
 @ConfigurationParameter(key = Constants.FEATURES_PROPERTY_NAME, 
@@ -18,7 +18,7 @@ import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_N
 @SelectClasspathResource("features/authentication")
 @ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "stepdefinitions")
 @ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "@authentication")
-@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, html:target/cucumber-reports/authentication-tests.html, json:target/cucumber-reports/AuthenticationTestReport.json, io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, html:target/cucumber-reports/authentication-tests.html, json:target/cucumber-reports/AuthenticationTestReport.json, io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm, runners.impact.ImpactTracingPlugin")
 public class RunAuthenticationTests {
     // Authentication test runner - focused on login/logout functionality
 }
@@ -5,6 +5,7 @@ import org.junit.platform.suite.api.IncludeEngines;
 import org.junit.platform.suite.api.SelectClasspathResource;
 import org.junit.platform.suite.api.Suite;
 
+import static io.cucumber.junit.platform.engine.Constants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME;
 import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
 import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
 
@@ -26,12 +27,17 @@ import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
  * 
  * With system properties:
  * mvn test -Dtest=RunCucumberTest -Dbrowser=chrome -Dlanguage=en -Dheadless=false
+ * 
+ * Scenarios run in parallel (see junit-platform.properties); set the worker count with:
+ * mvn test -Dtest=RunCucumberTest -Dcucumber.parallelism=6
+ * Tag a scenario @isolated to run it alone.
  */
 @Suite
 @IncludeEngines("cucumber")
 @SelectClasspathResource("features") // Recursively finds all .feature files in features/ and subdirectories
 @ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "stepdefinitions") // Step definitions package
-@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, html:target/cucumber-reports/cucumber-pretty.html, json:target/cucumber-reports/CucumberTestReport.json, io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm")
+@ConfigurationParameter(key = PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, value = "true") // Worker count and resource locks in junit-platform.properties
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, html:target/cucumber-reports/cucumber-pretty.html, json:target/cucumber-reports/CucumberTestReport.json, io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm, runners.impact.ImpactTracingPlugin")
 // Optional tag filtering - uncomment and modify as needed:
 // @ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "@smoke")
 // @ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "@regression")
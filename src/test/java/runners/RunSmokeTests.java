@@ -18,7 +18,7 @@ import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_N
 @SelectClasspathResource("features")
 @ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "stepdefinitions")
 @ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "@smoke")
-@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, html:target/cucumber-reports/smoke-tests.html, json:target/cucumber-reports/SmokeTestReport.json, io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, html:target/cucumber-reports/smoke-tests.html, json:target/cucumber-reports/SmokeTestReport.json, io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm, runners.impact.ImpactTracingPlugin")
 public class RunSmokeTests {
     // Smoke test runner - executes critical path tests quickly
 }
@@ -0,0 +1,43 @@
+package runners.flake;
+
+import org.slf4j.Logger;
+import utils.ConfigReader;
+import utils.LoggingUtil;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aborts the remaining scenarios once K scenarios have failed hard (-Dflake.failfast.threshold=K, 0 = off)
+ * Scenarios that have not started yet are skipped instead of spending minutes on a run that is already red
+ */
+public class FailFastGuard {
+
+    private static final Logger logger = LoggingUtil.getLogger(FailFastGuard.class);
+    private static final int THRESHOLD = Integer.parseInt(ConfigReader.getSetting("flake.failfast.threshold", "0"));
+    private static final AtomicInteger hardFailures = new AtomicInteger();
+
+    private FailFastGuard() {
+    }
+
+    /**
+     * Count a failed scenario; the quarantine run never trips the guard
+     */
+    public static void recordFailure(String scenarioName) {
+        if (THRESHOLD <= 0 || FlakeMode.current() == FlakeMode.QUARANTINE) {
+            return;
+        }
+        int failures = hardFailures.incrementAndGet();
+        if (failures == THRESHOLD) {
+            logger.error("Fail-fast threshold reached after {} failed scenarios (last: {}), skipping remaining scenarios",
+                        failures, scenarioName);
+        }
+    }
+
+    public static boolean isTripped() {
+        return THRESHOLD > 0 && hardFailures.get() >= THRESHOLD;
+    }
+
+    public static int getHardFailures() {
+        return hardFailures.get();
+    }
+}
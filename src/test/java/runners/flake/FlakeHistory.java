@@ -0,0 +1,213 @@
+package runners.flake;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import runners.scheduling.CucumberReports;
+import runners.scheduling.FeatureScenarioIndex;
+import utils.ConfigReader;
+import utils.LoggingUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Pass/fail history per scenario across runs, kept next to the duration history in test-history/
+ * Outcomes are stored as a string of the most recent results ('P' passed, 'F' failed), oldest first,
+ * keyed by history key (feature path and scenario name, see FeatureScenarioIndex)
+ *
+ * The flake score is the flip rate of that window: the share of consecutive runs whose result changed.
+ * A scenario that always fails is broken rather than flaky and scores 0; one that alternates scores close to 1
+ */
+public class FlakeHistory {
+
+    private static final Logger logger = LoggingUtil.getLogger(FlakeHistory.class);
+    private static final String REPORTS_DIR = "target/cucumber-reports";
+    private static final char PASSED = 'P';
+    private static final char FAILED = 'F';
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path historyFile;
+    private final int window;
+    private final int quarantineMinRuns;
+    private final double quarantineThreshold;
+    private final Map<String, String> outcomes = new HashMap<>();
+    private long reportsImportedAt;
+
+    private FlakeHistory(Path historyFile) {
+        this.historyFile = historyFile;
+        this.window = Integer.parseInt(ConfigReader.getAppProperty("flake.window", "20"));
+        this.quarantineMinRuns = Integer.parseInt(ConfigReader.getAppProperty("flake.quarantine.min.runs", "5"));
+        this.quarantineThreshold = Double.parseDouble(ConfigReader.getAppProperty("flake.quarantine.threshold", "0.3"));
+    }
+
+    /**
+     * Load the history file configured by flake.history.file
+     */
+    public static FlakeHistory load() {
+        String file = ConfigReader.getSetting("flake.history.file", "test-history/scenario-outcomes.json");
+        FlakeHistory history = new FlakeHistory(Paths.get(file));
+        history.read();
+        return history;
+    }
+
+    private void read() {
+        if (!Files.exists(historyFile)) {
+            logger.info("No scenario outcome history yet at: {}", historyFile);
+            return;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(historyFile.toFile());
+            reportsImportedAt = root.path("reportsImportedAt").asLong(0);
+            Iterator<Map.Entry<String, JsonNode>> scenarios = root.path("scenarios").fields();
+            while (scenarios.hasNext()) {
+                Map.Entry<String, JsonNode> entry = scenarios.next();
+                outcomes.put(entry.getKey(), entry.getValue().asText());
+            }
+            logger.debug("Loaded outcomes for {} scenarios from: {}", outcomes.size(), historyFile);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable scenario outcome history {}: {}", historyFile, e.getMessage());
+        }
+    }
+
+    public int importReports(FeatureScenarioIndex index) {
+        return importReports(index, Paths.get(REPORTS_DIR));
+    }
+
+    /**
+     * Import outcomes from Cucumber JSON reports written since the last import
+     * Skipped, pending and undefined scenarios say nothing about flakiness and are ignored
+     */
+    public int importReports(FeatureScenarioIndex index, Path reportsDir) {
+        List<Path> reports = CucumberReports.listReports(reportsDir, reportsImportedAt);
+        int imported = 0;
+        for (Path report : reports) {
+            imported += importReport(report.toFile(), index);
+            reportsImportedAt = Math.max(reportsImportedAt, report.toFile().lastModified());
+        }
+        if (!reports.isEmpty()) {
+            logger.info("Imported {} scenario outcomes from {} Cucumber reports", imported, reports.size());
+        }
+        return imported;
+    }
+
+    private int importReport(File report, FeatureScenarioIndex index) {
+        int[] imported = {0};
+        CucumberReports.forEachScenario(report, index, (historyKey, element) -> {
+            Character outcome = getOutcome(element);
+            if (outcome != null) {
+                record(historyKey, outcome == PASSED);
+                imported[0]++;
+            }
+        });
+        return imported[0];
+    }
+
+    private static Character getOutcome(JsonNode element) {
+        boolean allPassed = true;
+        for (JsonNode result : CucumberReports.getResults(element)) {
+            String status = result.path("status").asText();
+            if ("failed".equals(status)) {
+                return FAILED;
+            }
+            allPassed &= "passed".equals(status);
+        }
+        return allPassed ? Character.valueOf(PASSED) : null;
+    }
+
+    /**
+     * Append a result, keeping only the configured window
+     */
+    public void record(String scenarioId, boolean passed) {
+        String updated = outcomes.getOrDefault(scenarioId, "") + (passed ? PASSED : FAILED);
+        outcomes.put(scenarioId, updated.length() > window ? updated.substring(updated.length() - window) : updated);
+    }
+
+    /**
+     * Flip rate of the recorded results, 0 when fewer than two results are known
+     */
+    public double getFlakeScore(String scenarioId) {
+        String history = outcomes.getOrDefault(scenarioId, "");
+        if (history.length() < 2) {
+            return 0;
+        }
+        int flips = 0;
+        for (int i = 1; i < history.length(); i++) {
+            if (history.charAt(i) != history.charAt(i - 1)) {
+                flips++;
+            }
+        }
+        return (double) flips / (history.length() - 1);
+    }
+
+    public int getRunCount(String scenarioId) {
+        return outcomes.getOrDefault(scenarioId, "").length();
+    }
+
+    /**
+     * Whether the scenario has enough history and a flake score at or above the quarantine threshold
+     */
+    public boolean isQuarantined(String scenarioId) {
+        return getRunCount(scenarioId) >= quarantineMinRuns && getFlakeScore(scenarioId) >= quarantineThreshold;
+    }
+
+    /**
+     * Write the history file
+     */
+    public void save() {
+        try {
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("reportsImportedAt", reportsImportedAt);
+            ObjectNode scenarios = root.putObject("scenarios");
+            outcomes.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> scenarios.put(entry.getKey(), entry.getValue()));
+
+            if (historyFile.getParent() != null) {
+                Files.createDirectories(historyFile.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(historyFile.toFile(), root);
+            logger.debug("Saved outcomes for {} scenarios to: {}", outcomes.size(), historyFile);
+        } catch (IOException e) {
+            logger.warn("Failed to save scenario outcome history to {}: {}", historyFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Write a CSV of the scenarios with a non-zero flake score, flakiest first
+     */
+    public void writeReport(String reportPath) {
+        List<String> flaky = outcomes.keySet().stream()
+                .filter(scenarioId -> getFlakeScore(scenarioId) > 0)
+                .sorted(Comparator.comparingDouble(this::getFlakeScore).reversed())
+                .collect(Collectors.toList());
+
+        List<String> lines = new ArrayList<>();
+        lines.add("score,quarantined,history,scenario");
+        for (String scenarioId : flaky) {
+            lines.add(String.format("%.2f,%s,%s,%s", getFlakeScore(scenarioId), isQuarantined(scenarioId),
+                                    outcomes.get(scenarioId), scenarioId));
+        }
+        try {
+            Path path = Paths.get(reportPath);
+            Files.createDirectories(path.getParent());
+            Files.write(path, lines, StandardCharsets.UTF_8);
+            LoggingUtil.logReportGeneration("flake index", reportPath, true);
+        } catch (IOException e) {
+            logger.warn("Failed to write flake index: {}", e.getMessage());
+            LoggingUtil.logReportGeneration("flake index", reportPath, false);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package runners.flake;
+
+import org.slf4j.Logger;
+import utils.LoggingUtil;
+
+/**
+ * Routing of quarantined (flaky) scenarios, selected with -Dflake.mode
+ */
+public enum FlakeMode {
+    /** No routing, every selected scenario runs */
+    OFF,
+    /** Critical path: quarantined scenarios are left out */
+    MAIN,
+    /** Quarantine run: only quarantined scenarios, failures do not count towards fail-fast */
+    QUARANTINE;
+
+    private static final Logger logger = LoggingUtil.getLogger(FlakeMode.class);
+
+    /**
+     * Mode from -Dflake.mode; an unknown value falls back to OFF so every selected scenario still runs
+     */
+    public static FlakeMode current() {
+        String mode = System.getProperty("flake.mode", "off").trim();
+        try {
+            return valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown flake.mode '{}', expected off, main or quarantine - running with flake mode OFF", mode);
+            return OFF;
+        }
+    }
+}
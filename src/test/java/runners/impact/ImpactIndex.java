@@ -0,0 +1,198 @@
+package runners.impact;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import utils.ConfigReader;
+import utils.LoggingUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Scenario -> exercised classes mapping recorded by the impact tracer
+ * Stored compactly as a class name table plus per-scenario index lists, updated per scenario
+ * Kept in test-history/ by default, next to the duration and outcome histories, so it survives mvn clean
+ */
+public class ImpactIndex {
+
+    private static final Logger logger = LoggingUtil.getLogger(ImpactIndex.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path indexFile;
+    private final Map<String, Set<String>> scenarioClasses = new HashMap<>();
+    // Scenarios already replaced in this run; further updates (outline rows) are merged
+    private final Set<String> updatedThisRun = new HashSet<>();
+    private boolean dirty;
+
+    private ImpactIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Load the index configured by impact.index.file
+     */
+    public static ImpactIndex load() {
+        return load(getIndexPath());
+    }
+
+    /**
+     * Load the index from the given file, e.g. the copy written by one shard
+     */
+    public static ImpactIndex load(Path indexFile) {
+        ImpactIndex index = new ImpactIndex(indexFile);
+        index.read();
+        return index;
+    }
+
+    /**
+     * Index file configured by impact.index.file, relative to the project directory
+     */
+    public static Path getIndexPath() {
+        return Paths.get(ConfigReader.getSetting("impact.index.file", "test-history/impact-index.json"));
+    }
+
+    private void read() {
+        if (!Files.exists(indexFile)) {
+            logger.info("No impact index yet at: {}", indexFile);
+            return;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(indexFile.toFile());
+            if (root.path("version").asInt() != FORMAT_VERSION) {
+                logger.warn("Ignoring impact index with unsupported version: {}", indexFile);
+                return;
+            }
+            List<String> classes = new ArrayList<>();
+            root.path("classes").forEach(name -> classes.add(name.asText()));
+
+            Iterator<Map.Entry<String, JsonNode>> scenarios = root.path("scenarios").fields();
+            while (scenarios.hasNext()) {
+                Map.Entry<String, JsonNode> entry = scenarios.next();
+                Set<String> exercised = new HashSet<>();
+                entry.getValue().forEach(classIndex -> exercised.add(classes.get(classIndex.asInt())));
+                scenarioClasses.put(entry.getKey(), exercised);
+            }
+            logger.debug("Loaded impact index for {} scenarios from: {}", scenarioClasses.size(), indexFile);
+        } catch (IOException | IndexOutOfBoundsException e) {
+            logger.warn("Ignoring unreadable impact index {}: {}", indexFile, e.getMessage());
+            scenarioClasses.clear();
+        }
+    }
+
+    /**
+     * Record the classes a scenario exercised; a passed run replaces the previous mapping,
+     * an incomplete run can only add to it
+     */
+    public synchronized void update(String scenarioId, Set<String> exercised, boolean complete) {
+        if (complete && updatedThisRun.add(scenarioId)) {
+            scenarioClasses.put(scenarioId, new HashSet<>(exercised));
+        } else {
+            scenarioClasses.computeIfAbsent(scenarioId, k -> new HashSet<>()).addAll(exercised);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Take over the mappings another run changed relative to the baseline both started from
+     * (e.g. one shard's copy), so mappings updated by different shards are all kept
+     * @return number of scenarios taken over
+     */
+    public synchronized int mergeUpdates(ImpactIndex run, ImpactIndex baseline) {
+        int merged = 0;
+        for (Map.Entry<String, Set<String>> entry : run.scenarioClasses.entrySet()) {
+            if (!entry.getValue().equals(baseline.scenarioClasses.get(entry.getKey()))) {
+                scenarioClasses.put(entry.getKey(), new HashSet<>(entry.getValue()));
+                merged++;
+            }
+        }
+        dirty |= merged > 0;
+        return merged;
+    }
+
+    public synchronized boolean contains(String scenarioId) {
+        return scenarioClasses.containsKey(scenarioId);
+    }
+
+    public synchronized boolean isEmpty() {
+        return scenarioClasses.isEmpty();
+    }
+
+    /**
+     * Whether any scenario is known to exercise the class
+     */
+    public synchronized boolean isTraced(String className) {
+        return scenarioClasses.values().stream().anyMatch(classes -> classes.contains(className));
+    }
+
+    /**
+     * Scenarios that exercised any of the given classes
+     */
+    public synchronized Set<String> getScenariosUsing(Set<String> classNames) {
+        Set<String> scenarios = new HashSet<>();
+        scenarioClasses.forEach((scenarioId, classes) -> {
+            for (String className : classNames) {
+                if (classes.contains(className)) {
+                    scenarios.add(scenarioId);
+                    return;
+                }
+            }
+        });
+        return scenarios;
+    }
+
+    /**
+     * Write the index if it changed; written to a temp file first so a killed run cannot corrupt it
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Set<String> allClasses = new TreeSet<>();
+            scenarioClasses.values().forEach(allClasses::addAll);
+            List<String> classes = new ArrayList<>(allClasses);
+            Map<String, Integer> classIndex = new HashMap<>();
+            for (int i = 0; i < classes.size(); i++) {
+                classIndex.put(classes.get(i), i);
+            }
+
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("version", FORMAT_VERSION);
+            ArrayNode classArray = root.putArray("classes");
+            classes.forEach(classArray::add);
+            ObjectNode scenarios = root.putObject("scenarios");
+            new TreeMap<>(scenarioClasses).forEach((scenarioId, exercised) -> {
+                ArrayNode indexes = scenarios.putArray(scenarioId);
+                exercised.stream().map(classIndex::get).sorted().forEach(indexes::add);
+            });
+
+            if (indexFile.getParent() != null) {
+                Files.createDirectories(indexFile.getParent());
+            }
+            Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), root);
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+            logger.info("Saved impact index for {} scenarios ({} classes) to: {}",
+                       scenarioClasses.size(), classes.size(), indexFile);
+        } catch (IOException e) {
+            logger.warn("Failed to save impact index to {}: {}", indexFile, e.getMessage());
+        }
+    }
+}
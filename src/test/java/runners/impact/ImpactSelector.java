@@ -0,0 +1,140 @@
+package runners.impact;
+
+import exceptions.FrameworkException;
+import org.slf4j.Logger;
+import runners.scheduling.FeatureScenarioIndex;
+import utils.ConfigReader;
+import utils.ImpactTracer;
+import utils.LoggingUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects the scenarios impacted by the files changed since a git base ref, plus the smoke set
+ * Changes that cannot be attributed through the impact index (utils, config, pom.xml, ...) select the full suite
+ */
+public class ImpactSelector {
+
+    private static final Logger logger = LoggingUtil.getLogger(ImpactSelector.class);
+    private static final String FEATURES_DIR = "src/test/resources/";
+    private static final String[] SOURCE_DIRS = {"src/main/java/", "src/test/java/"};
+
+    private ImpactSelector() {
+    }
+
+    /**
+     * Scenarios to run for the changes since baseRef, in feature file order; null means run everything
+     */
+    public static List<String> select(FeatureScenarioIndex features, String baseRef) {
+        long startTime = System.currentTimeMillis();
+        ImpactIndex impactIndex = ImpactIndex.load();
+        if (impactIndex.isEmpty()) {
+            logger.info("Impact index is empty, running the full suite");
+            return null;
+        }
+
+        Set<String> selected = new HashSet<>();
+        Set<String> changedClasses = new HashSet<>();
+        for (String path : getChangedFiles(baseRef)) {
+            if (path.startsWith(FEATURES_DIR + "features/") && path.endsWith(".feature")) {
+                selected.addAll(features.getScenarioIds(path.substring(FEATURES_DIR.length())));
+                continue;
+            }
+
+            String className = toClassName(path);
+            if (className != null && ImpactTracer.isTracked(className)) {
+                // Untraced classes in traced packages are not used by any known scenario
+                changedClasses.add(className);
+            } else if (path.startsWith("src/") || "pom.xml".equals(path)) {
+                logger.info("Change to {} cannot be attributed to scenarios, running the full suite", path);
+                return null;
+            }
+        }
+        selected.addAll(impactIndex.getScenariosUsing(changedClasses));
+        int impacted = selected.size();
+
+        String smokeTags = ConfigReader.getAppProperty("impact.smoke.tags", "@smoke");
+        for (String tag : smokeTags.split(",")) {
+            selected.addAll(features.getScenarioIdsWithTag(tag.trim()));
+        }
+
+        List<String> ordered = new ArrayList<>();
+        int untraced = 0;
+        for (String scenarioId : features.getScenarioIds()) {
+            if (!impactIndex.contains(scenarioId)) {
+                // Never traced (e.g. new or renumbered) - impact unknown, so run it
+                untraced++;
+                ordered.add(scenarioId);
+            } else if (selected.contains(scenarioId)) {
+                ordered.add(scenarioId);
+            }
+        }
+
+        logger.info("Impact selection since {}: {} of {} scenarios ({} impacted by {} changed classes, {} untraced, plus smoke scenarios)",
+                   baseRef, ordered.size(), features.size(), impacted, changedClasses.size(), untraced);
+        LoggingUtil.logPerformance("Impact selection", System.currentTimeMillis() - startTime);
+        return ordered;
+    }
+
+    private static String toClassName(String path) {
+        if (!path.endsWith(".java")) {
+            return null;
+        }
+        for (String sourceDir : SOURCE_DIRS) {
+            if (path.startsWith(sourceDir)) {
+                return path.substring(sourceDir.length(), path.length() - ".java".length()).replace('/', '.');
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Files changed since baseRef, including uncommitted and untracked files
+     */
+    private static Set<String> getChangedFiles(String baseRef) {
+        Set<String> changed = new LinkedHashSet<>();
+        changed.addAll(runGit("diff", "--name-only", baseRef));
+        changed.addAll(runGit("ls-files", "--others", "--exclude-standard"));
+        logger.debug("{} files changed since {}", changed.size(), baseRef);
+        return changed;
+    }
+
+    private static List<String> runGit(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            List<String> lines = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        lines.add(line.trim());
+                    }
+                }
+            }
+            if (!process.waitFor(30, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                throw new FrameworkException("git " + String.join(" ", args) + " failed: " + String.join(" ", lines));
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new FrameworkException("Failed to run git " + String.join(" ", args), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FrameworkException("Interrupted while running git " + String.join(" ", args), e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package runners.impact;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import runners.scheduling.FeatureScenarioIndex;
+import utils.ImpactTracer;
+
+import java.util.Set;
+
+/**
+ * Cucumber plugin that traces the step definitions, page objects and API clients each scenario
+ * exercises and keeps the impact index up to date
+ * Events of a concurrent listener arrive on the thread running the scenario, matching the tracer's ThreadLocal
+ */
+public class ImpactTracingPlugin implements ConcurrentEventListener {
+
+    private volatile FeatureScenarioIndex featureIndex;
+    private volatile ImpactIndex impactIndex;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> ImpactTracer.begin());
+        publisher.registerHandlerFor(TestStepStarted.class, this::handleTestStepStarted);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> {
+            if (impactIndex != null) {
+                impactIndex.save();
+            }
+        });
+    }
+
+    private void handleTestStepStarted(TestStepStarted event) {
+        String codeLocation = event.getTestStep().getCodeLocation();
+        if (codeLocation == null) {
+            return;
+        }
+        // "stepdefinitions.LoginStepDefinitions.method(java.lang.String)" -> declaring class
+        int parameters = codeLocation.indexOf('(');
+        String method = parameters >= 0 ? codeLocation.substring(0, parameters) : codeLocation;
+        int lastDot = method.lastIndexOf('.');
+        if (lastDot > 0) {
+            ImpactTracer.touch(method.substring(0, lastDot));
+        }
+    }
+
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        String scenarioId = getFeatureIndex().resolveScenarioId(testCase.getUri().toString(), testCase.getLocation().getLine());
+        Set<String> exercised = ImpactTracer.end();
+        if (scenarioId != null) {
+            getImpactIndex().update(scenarioId, exercised, event.getResult().getStatus() == Status.PASSED);
+        }
+    }
+
+    private FeatureScenarioIndex getFeatureIndex() {
+        if (featureIndex == null) {
+            synchronized (this) {
+                if (featureIndex == null) {
+                    featureIndex = FeatureScenarioIndex.load();
+                }
+            }
+        }
+        return featureIndex;
+    }
+
+    private ImpactIndex getImpactIndex() {
+        if (impactIndex == null) {
+            synchronized (this) {
+                if (impactIndex == null) {
+                    impactIndex = ImpactIndex.load();
+                }
+            }
+        }
+        return impactIndex;
+    }
+}
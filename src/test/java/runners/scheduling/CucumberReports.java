@@ -0,0 +1,85 @@
+package runners.scheduling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import utils.LoggingUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reading of Cucumber JSON reports shared by the histories built from previous runs
+ */
+public class CucumberReports {
+
+    private static final Logger logger = LoggingUtil.getLogger(CucumberReports.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CucumberReports() {
+    }
+
+    /**
+     * JSON reports directly in the directory modified after the given time
+     */
+    public static List<Path> listReports(Path reportsDir, long modifiedAfter) {
+        if (!Files.isDirectory(reportsDir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(reportsDir)) {
+            return files.filter(f -> f.toString().endsWith(".json"))
+                    .filter(f -> f.toFile().lastModified() > modifiedAfter)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.warn("Failed to list Cucumber reports in {}: {}", reportsDir, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Pass every scenario element (including outline example rows) of a report with its history key
+     * (see FeatureScenarioIndex), so results stay with the scenario when the feature file is edited
+     * @return false if the report could not be read
+     */
+    public static boolean forEachScenario(File report, FeatureScenarioIndex index, BiConsumer<String, JsonNode> consumer) {
+        try {
+            for (JsonNode feature : objectMapper.readTree(report)) {
+                String uri = feature.path("uri").asText();
+                for (JsonNode element : feature.path("elements")) {
+                    if ("background".equals(element.path("type").asText())) {
+                        continue;
+                    }
+                    String historyKey = index.resolveHistoryKey(uri, element.path("line").asInt(),
+                                                                element.path("name").asText());
+                    if (historyKey != null) {
+                        consumer.accept(historyKey, element);
+                    }
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            logger.warn("Skipping unreadable Cucumber report {}: {}", report, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Results of the before hooks, steps and after hooks of a scenario element
+     */
+    public static List<JsonNode> getResults(JsonNode element) {
+        List<JsonNode> results = new ArrayList<>();
+        for (String section : new String[] {"before", "steps", "after"}) {
+            for (JsonNode step : element.path(section)) {
+                results.add(step.path("result"));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,219 @@
+package runners.scheduling;
+
+import exceptions.FrameworkException;
+import org.slf4j.Logger;
+import utils.LoggingUtil;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index of scenario header lines in the feature files on the test classpath
+ * Scenarios are identified as "features/path/file.feature:line", the form used in cucumber.features
+ * Histories kept across runs use the history key "features/path/file.feature::Scenario name" instead,
+ * which survives edits that shift line numbers (repeated names in a feature get a " #2", " #3" suffix)
+ */
+public class FeatureScenarioIndex {
+
+    private static final Logger logger = LoggingUtil.getLogger(FeatureScenarioIndex.class);
+    private static final String FEATURES_ROOT = "features";
+    private static final Pattern SCENARIO_HEADER =
+        Pattern.compile("^\\s*(Scenario|Scenario Outline|Scenario Template|Example):.*");
+    private static final Pattern FEATURE_HEADER = Pattern.compile("^\\s*Feature:.*");
+    private static final String NAME_SEPARATOR = "::";
+
+    // feature path -> ascending scenario header lines
+    private final Map<String, List<Integer>> scenarioLines;
+    // scenario id -> feature and scenario tags
+    private final Map<String, Set<String>> scenarioTags;
+    // scenario id -> history key
+    private final Map<String, String> historyKeys;
+    private final Set<String> knownHistoryKeys;
+
+    private FeatureScenarioIndex(Map<String, List<Integer>> scenarioLines, Map<String, Set<String>> scenarioTags,
+                                 Map<String, String> historyKeys) {
+        this.scenarioLines = scenarioLines;
+        this.scenarioTags = scenarioTags;
+        this.historyKeys = historyKeys;
+        this.knownHistoryKeys = new HashSet<>(historyKeys.values());
+    }
+
+    /**
+     * Scan all .feature files under the classpath "features" directory
+     */
+    public static FeatureScenarioIndex load() {
+        URL root = FeatureScenarioIndex.class.getClassLoader().getResource(FEATURES_ROOT);
+        if (root == null || !"file".equals(root.getProtocol())) {
+            logger.warn("Feature directory not found on the file system classpath: {}", root);
+            return new FeatureScenarioIndex(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        try {
+            Path rootPath = Paths.get(root.toURI());
+            Map<String, List<Integer>> index = new TreeMap<>();
+            Map<String, Set<String>> tags = new HashMap<>();
+            Map<String, String> historyKeys = new HashMap<>();
+            try (Stream<Path> files = Files.walk(rootPath)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".feature")).collect(Collectors.toList())) {
+                    String featurePath = FEATURES_ROOT + "/" + rootPath.relativize(file).toString().replace('\\', '/');
+                    index.put(featurePath, readScenarioLines(file, featurePath, tags, historyKeys));
+                }
+            }
+            logger.debug("Indexed {} feature files", index.size());
+            return new FeatureScenarioIndex(index, tags, historyKeys);
+        } catch (IOException | URISyntaxException e) {
+            throw new FrameworkException("Failed to index feature files", e);
+        }
+    }
+
+    private static List<Integer> readScenarioLines(Path file, String featurePath, Map<String, Set<String>> tags,
+                                                   Map<String, String> historyKeys) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        List<Integer> headers = new ArrayList<>();
+        Set<String> featureTags = new LinkedHashSet<>();
+        Set<String> pendingTags = new LinkedHashSet<>();
+        Map<String, Integer> nameCounts = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.startsWith("@")) {
+                // Tags may be followed by a comment on the same line
+                for (String tag : line.split("#")[0].trim().split("\\s+")) {
+                    pendingTags.add(tag);
+                }
+            } else if (FEATURE_HEADER.matcher(line).matches()) {
+                featureTags.addAll(pendingTags);
+                pendingTags.clear();
+            } else if (SCENARIO_HEADER.matcher(line).matches()) {
+                headers.add(i + 1);
+                Set<String> scenario = new LinkedHashSet<>(featureTags);
+                scenario.addAll(pendingTags);
+                tags.put(featurePath + ":" + (i + 1), scenario);
+                String name = line.substring(line.indexOf(':') + 1).trim();
+                int occurrence = nameCounts.merge(name, 1, Integer::sum);
+                historyKeys.put(featurePath + ":" + (i + 1), toHistoryKey(featurePath, name)
+                    + (occurrence > 1 ? " #" + occurrence : ""));
+                pendingTags.clear();
+            } else if (!line.isEmpty() && !line.startsWith("#")) {
+                pendingTags.clear();
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * All scenarios as "feature:line" ids, in file order
+     */
+    public List<String> getScenarioIds() {
+        List<String> ids = new ArrayList<>();
+        scenarioLines.forEach((feature, lines) -> lines.forEach(line -> ids.add(feature + ":" + line)));
+        return ids;
+    }
+
+    /**
+     * Scenario ids whose scenario or feature carries the given tag (e.g. "@smoke")
+     */
+    public List<String> getScenarioIdsWithTag(String tag) {
+        List<String> ids = new ArrayList<>();
+        for (String scenarioId : getScenarioIds()) {
+            if (scenarioTags.getOrDefault(scenarioId, Collections.emptySet()).contains(tag)) {
+                ids.add(scenarioId);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Scenario ids of one feature file (path as "features/...")
+     */
+    public List<String> getScenarioIds(String featurePath) {
+        List<String> ids = new ArrayList<>();
+        scenarioLines.getOrDefault(featurePath, Collections.emptyList()).forEach(line -> ids.add(featurePath + ":" + line));
+        return ids;
+    }
+
+    /**
+     * Value for cucumber.features selecting exactly the given scenarios, in the given order
+     */
+    public static String toFeaturesProperty(Collection<String> scenarioIds) {
+        return scenarioIds.stream()
+                .map(scenarioId -> "classpath:" + scenarioId)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Map any line inside a feature (e.g. an Examples row) to the id of the scenario containing it
+     */
+    public String resolveScenarioId(String uri, int line) {
+        String featurePath = normalizeUri(uri);
+        List<Integer> lines = scenarioLines.get(featurePath);
+        if (lines == null) {
+            return null;
+        }
+
+        int header = -1;
+        for (int scenarioLine : lines) {
+            if (scenarioLine > line) {
+                break;
+            }
+            header = scenarioLine;
+        }
+        return header > 0 ? featurePath + ":" + header : null;
+    }
+
+    /**
+     * History key of a scenario id; the id itself for scenarios not in the index
+     */
+    public String getHistoryKey(String scenarioId) {
+        return historyKeys.getOrDefault(scenarioId, scenarioId);
+    }
+
+    /**
+     * History key of a scenario reported at the given line with the given name
+     * The name is looked up first, since the feature may have been edited since the report was written;
+     * the line is used for names that are repeated or not in the file (e.g. outline rows with &lt;placeholders&gt;)
+     */
+    public String resolveHistoryKey(String uri, int line, String name) {
+        String featurePath = normalizeUri(uri);
+        String byName = toHistoryKey(featurePath, name.trim());
+        if (knownHistoryKeys.contains(byName) && !knownHistoryKeys.contains(byName + " #2")) {
+            return byName;
+        }
+        String scenarioId = resolveScenarioId(uri, line);
+        return scenarioId != null ? getHistoryKey(scenarioId) : null;
+    }
+
+    private static String toHistoryKey(String featurePath, String name) {
+        return featurePath + NAME_SEPARATOR + name;
+    }
+
+    /**
+     * Reduce classpath:, file: and absolute URIs to the "features/..." path
+     */
+    public static String normalizeUri(String uri) {
+        String normalized = uri.replace('\\', '/');
+        int index = normalized.lastIndexOf(FEATURES_ROOT + "/");
+        return index >= 0 ? normalized.substring(index) : normalized;
+    }
+
+    public int size() {
+        return scenarioLines.values().stream().mapToInt(List::size).sum();
+    }
+}
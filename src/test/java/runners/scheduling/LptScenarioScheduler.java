@@ -0,0 +1,133 @@
+package runners.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Longest-processing-time-first scheduling of scenarios across parallel workers
+ * Scenarios are sorted by predicted duration (longest first) and each one is assigned to the
+ * currently least-loaded worker; the resulting order is what gets handed to Cucumber
+ *
+ * Limitation: the Cucumber engine groups the selected lines by feature file again and runs features
+ * (in order of first appearance) rather than single scenarios as parallel units. Within one JVM the
+ * longest-first order and the worker bin-packing therefore only take effect at feature level: a feature
+ * starts as early as its longest scenario, but its scenarios run together. Shards are exact, since each
+ * shard selects only its own scenarios; keep long scenarios in separate features to balance workers.
+ */
+public class LptScenarioScheduler {
+
+    private LptScenarioScheduler() {
+    }
+
+    /**
+     * Build a schedule for the given scenarios; unknown durations use the history median
+     */
+    public static Schedule schedule(List<String> scenarioIds, FeatureScenarioIndex index,
+                                    ScenarioDurationHistory history, int workers, double defaultMillis) {
+        double unknownEstimate = history.getMedianMillis(defaultMillis);
+
+        List<ScheduledScenario> scenarios = new ArrayList<>();
+        for (String scenarioId : scenarioIds) {
+            Double predicted = history.getPredictedMillis(index.getHistoryKey(scenarioId));
+            scenarios.add(new ScheduledScenario(scenarioId, predicted != null ? predicted : unknownEstimate, predicted != null));
+        }
+        scenarios.sort(Comparator.comparingDouble(ScheduledScenario::getPredictedMillis).reversed());
+
+        int workerCount = Math.max(1, workers);
+        double[] loads = new double[workerCount];
+        PriorityQueue<Integer> leastLoaded = new PriorityQueue<>(
+            Comparator.<Integer>comparingDouble(worker -> loads[worker]).thenComparingInt(worker -> worker));
+        for (int worker = 0; worker < workerCount; worker++) {
+            leastLoaded.add(worker);
+        }
+
+        for (ScheduledScenario scenario : scenarios) {
+            int worker = leastLoaded.poll();
+            scenario.worker = worker;
+            loads[worker] += scenario.getPredictedMillis();
+            leastLoaded.add(worker);
+        }
+
+        return new Schedule(scenarios, loads);
+    }
+
+    /**
+     * Scenario with its predicted duration and assigned worker
+     */
+    public static class ScheduledScenario {
+        private final String scenarioId;
+        private final double predictedMillis;
+        private final boolean fromHistory;
+        private int worker;
+
+        ScheduledScenario(String scenarioId, double predictedMillis, boolean fromHistory) {
+            this.scenarioId = scenarioId;
+            this.predictedMillis = predictedMillis;
+            this.fromHistory = fromHistory;
+        }
+
+        public String getScenarioId() { return scenarioId; }
+        public double getPredictedMillis() { return predictedMillis; }
+        public boolean isFromHistory() { return fromHistory; }
+        public int getWorker() { return worker; }
+    }
+
+    /**
+     * Ordered scenarios plus predicted per-worker load
+     */
+    public static class Schedule {
+        private final List<ScheduledScenario> scenarios;
+        private final double[] workerLoads;
+
+        Schedule(List<ScheduledScenario> scenarios, double[] workerLoads) {
+            this.scenarios = Collections.unmodifiableList(scenarios);
+            this.workerLoads = workerLoads;
+        }
+
+        public List<ScheduledScenario> getScenarios() {
+            return scenarios;
+        }
+
+        public int getWorkerCount() {
+            return workerLoads.length;
+        }
+
+        public double getWorkerLoadMillis(int worker) {
+            return workerLoads[worker];
+        }
+
+        /**
+         * Predicted wall-clock time: the load of the busiest worker
+         */
+        public double getPredictedMakespanMillis() {
+            double makespan = 0;
+            for (double load : workerLoads) {
+                makespan = Math.max(makespan, load);
+            }
+            return makespan;
+        }
+
+        /**
+         * Scenario ids assigned to one worker, longest first
+         */
+        public List<String> getScenarioIds(int worker) {
+            return scenarios.stream()
+                    .filter(scenario -> scenario.getWorker() == worker)
+                    .map(ScheduledScenario::getScenarioId)
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Value for cucumber.features listing scenarios longest first
+         */
+        public String toFeaturesProperty() {
+            return FeatureScenarioIndex.toFeaturesProperty(scenarios.stream()
+                    .map(ScheduledScenario::getScenarioId)
+                    .collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package runners.scheduling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import utils.ConfigReader;
+import utils.LoggingUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-scenario durations from previous runs, persisted outside target/ so they survive mvn clean
+ * New samples are imported from the Cucumber JSON reports and blended into a moving average
+ * Durations are keyed by history key (feature path and scenario name, see FeatureScenarioIndex)
+ */
+public class ScenarioDurationHistory {
+
+    private static final Logger logger = LoggingUtil.getLogger(ScenarioDurationHistory.class);
+    private static final String REPORTS_DIR = "target/cucumber-reports";
+    private static final double SMOOTHING = 0.3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path historyFile;
+    private final Map<String, Double> averageMillis = new HashMap<>();
+    private long reportsImportedAt;
+
+    private ScenarioDurationHistory(Path historyFile) {
+        this.historyFile = historyFile;
+    }
+
+    /**
+     * Load the history file configured by scheduler.history.file
+     */
+    public static ScenarioDurationHistory load() {
+        String file = ConfigReader.getSetting("scheduler.history.file", "test-history/scenario-durations.json");
+        ScenarioDurationHistory history = new ScenarioDurationHistory(Paths.get(file));
+        history.read();
+        return history;
+    }
+
+    private void read() {
+        if (!Files.exists(historyFile)) {
+            logger.info("No scenario duration history yet at: {}", historyFile);
+            return;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(historyFile.toFile());
+            reportsImportedAt = root.path("reportsImportedAt").asLong(0);
+            Iterator<Map.Entry<String, JsonNode>> scenarios = root.path("scenarios").fields();
+            while (scenarios.hasNext()) {
+                Map.Entry<String, JsonNode> entry = scenarios.next();
+                averageMillis.put(entry.getKey(), entry.getValue().asDouble());
+            }
+            logger.debug("Loaded durations for {} scenarios from: {}", averageMillis.size(), historyFile);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable scenario duration history {}: {}", historyFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Import Cucumber JSON reports written since the last import
+     */
+    public int importReports(FeatureScenarioIndex index) {
+        return importReports(index, Paths.get(REPORTS_DIR));
+    }
+
+    /**
+     * Import Cucumber JSON reports from the given directory written since the last import
+     */
+    public int importReports(FeatureScenarioIndex index, Path reportsDir) {
+        List<Path> reports = CucumberReports.listReports(reportsDir, reportsImportedAt);
+        int imported = 0;
+        for (Path report : reports) {
+            imported += importReport(report.toFile(), index);
+            reportsImportedAt = Math.max(reportsImportedAt, report.toFile().lastModified());
+        }
+        if (!reports.isEmpty()) {
+            logger.info("Imported {} scenario durations from {} Cucumber reports", imported, reports.size());
+        }
+        return imported;
+    }
+
+    private int importReport(File report, FeatureScenarioIndex index) {
+        Map<String, Long> reportDurations = new HashMap<>();
+        // Outline example rows add up to the duration of the outline
+        boolean readable = CucumberReports.forEachScenario(report, index, (historyKey, element) ->
+            reportDurations.merge(historyKey, elementDurationNanos(element), Long::sum));
+        if (!readable) {
+            return 0;
+        }
+
+        reportDurations.forEach((historyKey, nanos) -> record(historyKey, nanos / 1_000_000.0));
+        return reportDurations.size();
+    }
+
+    private static long elementDurationNanos(JsonNode element) {
+        long total = 0;
+        for (JsonNode result : CucumberReports.getResults(element)) {
+            total += result.path("duration").asLong(0);
+        }
+        return total;
+    }
+
+    /**
+     * Blend a new sample into the moving average of a scenario
+     */
+    public void record(String historyKey, double durationMillis) {
+        averageMillis.merge(historyKey, durationMillis,
+            (previous, sample) -> previous + SMOOTHING * (sample - previous));
+    }
+
+    /**
+     * Predicted duration of a scenario, or null if it has never run
+     */
+    public Double getPredictedMillis(String historyKey) {
+        return averageMillis.get(historyKey);
+    }
+
+    /**
+     * Median of all known durations, used for scenarios without history
+     */
+    public double getMedianMillis(double fallback) {
+        if (averageMillis.isEmpty()) {
+            return fallback;
+        }
+        List<Double> values = new ArrayList<>(averageMillis.values());
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    public int size() {
+        return averageMillis.size();
+    }
+
+    /**
+     * Write the history file
+     */
+    public void save() {
+        try {
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("reportsImportedAt", reportsImportedAt);
+            ObjectNode scenarios = root.putObject("scenarios");
+            averageMillis.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> scenarios.put(entry.getKey(), Math.round(entry.getValue())));
+
+            if (historyFile.getParent() != null) {
+                Files.createDirectories(historyFile.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(historyFile.toFile(), root);
+            logger.debug("Saved durations for {} scenarios to: {}", averageMillis.size(), historyFile);
+        } catch (IOException e) {
+            logger.warn("Failed to save scenario duration history to {}: {}", historyFile, e.getMessage());
+        }
+    }
+}
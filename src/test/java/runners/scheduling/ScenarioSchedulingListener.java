@@ -0,0 +1,220 @@
+package runners.scheduling;
+
+import exceptions.FrameworkException;
+import org.junit.platform.engine.discovery.ClassSelector;
+import org.junit.platform.engine.discovery.ClasspathResourceSelector;
+import org.junit.platform.engine.discovery.FileSelector;
+import org.junit.platform.engine.discovery.UriSelector;
+import org.junit.platform.launcher.LauncherDiscoveryListener;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.slf4j.Logger;
+import runners.flake.FlakeHistory;
+import runners.flake.FlakeMode;
+import runners.impact.ImpactSelector;
+import utils.ConfigReader;
+import utils.LoggingUtil;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Launcher session listener that updates the scenario duration history from the previous run's
+ * Cucumber JSON reports and, with -Dscheduler.order=lpt, orders scenarios longest first
+ * With -Dshard.index/-Dshard.total only the scenarios of one duration-balanced shard are run
+ * With -Dimpact.base=&lt;git ref&gt; only scenarios impacted by changes since that ref (plus smoke) are run
+ * With -Dflake.mode=main|quarantine flaky scenarios are left out of, or run only in, the quarantine run
+ * Registered through META-INF/services; the selection is passed to Cucumber as cucumber.features
+ * Sessions that do not select Cucumber scenarios (unit tests, IDE runs of a JUnit class) are left alone
+ */
+public class ScenarioSchedulingListener implements LauncherSessionListener {
+
+    private static final Logger logger = LoggingUtil.getLogger(ScenarioSchedulingListener.class);
+    private static final String FEATURES_PROPERTY = "cucumber.features";
+    private static final String NAME_FILTER_PROPERTY = "cucumber.filter.name";
+    private static final String PARALLELISM_PROPERTY = "cucumber.execution.parallel.config.fixed.parallelism";
+    private static final String SHARD_INDEX_PROPERTY = "shard.index";
+    private static final String SHARD_TOTAL_PROPERTY = "shard.total";
+    private static final String IMPACT_BASE_PROPERTY = "impact.base";
+    private static final String FLAKE_REPORT_PATH = "target/reports/flake-index.csv";
+    private static final String CUCUMBER_ENGINE_ID = "cucumber";
+    private static final String FEATURE_EXTENSION = ".feature";
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        // Discovery is where Cucumber reads cucumber.features, so the selection is made just before it
+        AtomicBoolean scheduled = new AtomicBoolean();
+        session.getLauncher().registerLauncherDiscoveryListeners(new LauncherDiscoveryListener() {
+            @Override
+            public void launcherDiscoveryStarted(LauncherDiscoveryRequest request) {
+                if (selectsCucumber(request) && scheduled.compareAndSet(false, true)) {
+                    scheduleScenarios();
+                }
+            }
+        });
+    }
+
+    /**
+     * Whether the request runs Cucumber: a suite class including the Cucumber engine, or feature files
+     * selected directly
+     */
+    private static boolean selectsCucumber(LauncherDiscoveryRequest request) {
+        for (ClassSelector selector : request.getSelectorsByType(ClassSelector.class)) {
+            try {
+                IncludeEngines engines = selector.getJavaClass().getAnnotation(IncludeEngines.class);
+                if (engines != null && Arrays.asList(engines.value()).contains(CUCUMBER_ENGINE_ID)) {
+                    return true;
+                }
+            } catch (Exception e) {
+                logger.debug("Cannot load selected class {}: {}", selector.getClassName(), e.getMessage());
+            }
+        }
+        return request.getSelectorsByType(ClasspathResourceSelector.class).stream()
+                       .anyMatch(selector -> selector.getClasspathResourceName().endsWith(FEATURE_EXTENSION))
+            || request.getSelectorsByType(FileSelector.class).stream()
+                       .anyMatch(selector -> selector.getRawPath().endsWith(FEATURE_EXTENSION))
+            || request.getSelectorsByType(UriSelector.class).stream()
+                       .anyMatch(selector -> selector.getUri().getPath() != null
+                                             && selector.getUri().getPath().endsWith(FEATURE_EXTENSION));
+    }
+
+    private void scheduleScenarios() {
+        int shardTotal = Integer.parseInt(System.getProperty(SHARD_TOTAL_PROPERTY, "1"));
+        int shardIndex = Integer.parseInt(System.getProperty(SHARD_INDEX_PROPERTY, "0"));
+        if (shardTotal < 1 || shardIndex < 0 || shardIndex >= shardTotal) {
+            throw new FrameworkException(String.format(
+                "Invalid shard %d of %d: expected 0 <= %s < %s", shardIndex, shardTotal, SHARD_INDEX_PROPERTY, SHARD_TOTAL_PROPERTY));
+        }
+        if (shardTotal > 1) {
+            // A shard that silently ran everything would duplicate the whole suite, so no fallback here
+            selectShard(shardIndex, shardTotal);
+            return;
+        }
+
+        try {
+            FeatureScenarioIndex index = FeatureScenarioIndex.load();
+            ScenarioDurationHistory history = ScenarioDurationHistory.load();
+            if (history.importReports(index) > 0) {
+                history.save();
+            }
+            FlakeHistory flakes = FlakeHistory.load();
+            if (flakes.importReports(index) > 0) {
+                flakes.save();
+            }
+            flakes.writeReport(FLAKE_REPORT_PATH);
+
+            boolean lpt = "lpt".equalsIgnoreCase(System.getProperty("scheduler.order", "none"));
+            if (!lpt && System.getProperty(IMPACT_BASE_PROPERTY) == null && FlakeMode.current() == FlakeMode.OFF) {
+                return;
+            }
+            if (System.getProperty(FEATURES_PROPERTY) != null) {
+                logger.info("{} set explicitly, skipping scenario selection", FEATURES_PROPERTY);
+                return;
+            }
+
+            List<String> scenarioIds = selectScenarios(index, flakes);
+            if (scenarioIds.isEmpty()) {
+                selectNothing();
+                return;
+            }
+            if (!lpt) {
+                System.setProperty(FEATURES_PROPERTY, FeatureScenarioIndex.toFeaturesProperty(scenarioIds));
+                return;
+            }
+
+            LptScenarioScheduler.Schedule schedule = scheduleWorkers(scenarioIds, index, history);
+            System.setProperty(FEATURES_PROPERTY, schedule.toFeaturesProperty());
+            ScheduleReport.setPredictedSchedule(schedule);
+            logger.info("LPT schedule: {} scenarios on {} workers, predicted makespan {}s",
+                       scenarioIds.size(), schedule.getWorkerCount(), Math.round(schedule.getPredictedMakespanMillis() / 1000));
+        } catch (Exception e) {
+            // Scheduling is an optimization - never block the run
+            logger.warn("Scenario scheduling skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Partition all scenarios into duration-balanced shards and select the scenarios of this shard
+     * Every shard must compute the same partition, so the history file is used as checked out
+     * (no import of local reports) - the merge step updates it once for the next run
+     */
+    private void selectShard(int shardIndex, int shardTotal) {
+        if (System.getProperty(FEATURES_PROPERTY) != null) {
+            throw new FrameworkException(FEATURES_PROPERTY + " cannot be combined with " + SHARD_TOTAL_PROPERTY);
+        }
+
+        FeatureScenarioIndex index = FeatureScenarioIndex.load();
+        if (index.size() == 0) {
+            throw new FrameworkException("No scenarios found to shard");
+        }
+        List<String> scenarioIds = selectScenarios(index, FlakeHistory.load());
+
+        ScenarioDurationHistory history = ScenarioDurationHistory.load();
+        LptScenarioScheduler.Schedule partition = LptScenarioScheduler.schedule(
+            scenarioIds, index, history, shardTotal, getDefaultMillis());
+        List<String> shardIds = partition.getScenarioIds(shardIndex);
+        ScheduleReport.setShard(shardIndex, shardTotal);
+
+        if (shardIds.isEmpty()) {
+            logger.warn("Shard {}/{} has no scenarios ({} scenarios in total)", shardIndex + 1, shardTotal, scenarioIds.size());
+            selectNothing();
+            return;
+        }
+
+        LptScenarioScheduler.Schedule schedule = scheduleWorkers(shardIds, index, history);
+        System.setProperty(FEATURES_PROPERTY, schedule.toFeaturesProperty());
+        ScheduleReport.setPredictedSchedule(schedule);
+        logger.info("Shard {}/{}: {} of {} scenarios, predicted load {}s (largest shard {}s), {} scenarios with history",
+                   shardIndex + 1, shardTotal, shardIds.size(), scenarioIds.size(),
+                   Math.round(partition.getWorkerLoadMillis(shardIndex) / 1000),
+                   Math.round(partition.getPredictedMakespanMillis() / 1000), history.size());
+    }
+
+    /**
+     * All scenarios, or only the impacted ones when -Dimpact.base is set, routed by flake mode
+     * Every shard runs the same selection against the same checkout, so the partition stays consistent
+     */
+    private List<String> selectScenarios(FeatureScenarioIndex index, FlakeHistory flakes) {
+        List<String> scenarioIds = null;
+        String impactBase = System.getProperty(IMPACT_BASE_PROPERTY);
+        if (impactBase != null) {
+            scenarioIds = ImpactSelector.select(index, impactBase);
+        }
+        if (scenarioIds == null) {
+            scenarioIds = index.getScenarioIds();
+        }
+
+        FlakeMode mode = FlakeMode.current();
+        if (mode == FlakeMode.OFF) {
+            return scenarioIds;
+        }
+        boolean quarantineRun = mode == FlakeMode.QUARANTINE;
+        List<String> routed = scenarioIds.stream()
+                .filter(scenarioId -> flakes.isQuarantined(index.getHistoryKey(scenarioId)) == quarantineRun)
+                .collect(Collectors.toList());
+        logger.info("Flake mode {}: running {} of {} scenarios ({} quarantined)", mode, routed.size(), scenarioIds.size(),
+                   quarantineRun ? routed.size() : scenarioIds.size() - routed.size());
+        return routed;
+    }
+
+    /**
+     * An empty cucumber.features selects everything - filter on a name no scenario has instead
+     */
+    private static void selectNothing() {
+        System.setProperty(NAME_FILTER_PROPERTY, "^$");
+    }
+
+    private LptScenarioScheduler.Schedule scheduleWorkers(List<String> scenarioIds, FeatureScenarioIndex index,
+                                                          ScenarioDurationHistory history) {
+        int workers = Integer.parseInt(System.getProperty(PARALLELISM_PROPERTY, "4"));
+        return LptScenarioScheduler.schedule(scenarioIds, index, history, workers, getDefaultMillis());
+    }
+
+    private static double getDefaultMillis() {
+        return Double.parseDouble(ConfigReader.getAppProperty("scheduler.default.duration.ms", "30000"));
+    }
+}
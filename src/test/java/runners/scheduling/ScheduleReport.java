@@ -0,0 +1,125 @@
+package runners.scheduling;
+
+import org.slf4j.Logger;
+import utils.LoggingUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects actual scenario timings during the run and compares them with the predicted schedule
+ */
+public class ScheduleReport {
+
+    private static final Logger logger = LoggingUtil.getLogger(ScheduleReport.class);
+    private static final String REPORT_PATH = "target/reports/schedule-report.txt";
+
+    private static volatile LptScenarioScheduler.Schedule predictedSchedule;
+    private static volatile String shardLabel;
+    private static final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+    private static final AtomicLong lastEnd = new AtomicLong(0);
+    private static final Map<String, AtomicLong> workerBusyMillis = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Long> scenarioStart = new ThreadLocal<>();
+
+    private ScheduleReport() {
+    }
+
+    /**
+     * Remember the schedule handed to Cucumber
+     */
+    public static void setPredictedSchedule(LptScenarioScheduler.Schedule schedule) {
+        predictedSchedule = schedule;
+    }
+
+    /**
+     * Remember which shard this JVM runs
+     */
+    public static void setShard(int shardIndex, int shardTotal) {
+        shardLabel = (shardIndex + 1) + "/" + shardTotal;
+    }
+
+    /**
+     * Mark the start of a scenario on the current worker thread
+     */
+    public static void scenarioStarted() {
+        long now = System.currentTimeMillis();
+        scenarioStart.set(now);
+        firstStart.accumulateAndGet(now, Math::min);
+    }
+
+    /**
+     * Mark the end of the current worker thread's scenario
+     */
+    public static void scenarioFinished() {
+        Long start = scenarioStart.get();
+        scenarioStart.remove();
+        if (start == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastEnd.accumulateAndGet(now, Math::max);
+        workerBusyMillis.computeIfAbsent(Thread.currentThread().getName(), k -> new AtomicLong())
+                        .addAndGet(now - start);
+    }
+
+    /**
+     * Actual wall-clock time from the first scenario start to the last scenario end
+     */
+    public static long getActualMakespanMillis() {
+        long start = firstStart.get();
+        return start == Long.MAX_VALUE ? 0 : lastEnd.get() - start;
+    }
+
+    /**
+     * Log predicted vs actual makespan and write target/reports/schedule-report.txt
+     */
+    public static void write() {
+        if (workerBusyMillis.isEmpty()) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>();
+        if (shardLabel != null) {
+            lines.add("Shard: " + shardLabel);
+        }
+        LptScenarioScheduler.Schedule schedule = predictedSchedule;
+        if (schedule != null) {
+            lines.add(String.format("Predicted makespan: %.1fs (%d scenarios, %d workers, %d with history)",
+                schedule.getPredictedMakespanMillis() / 1000, schedule.getScenarios().size(), schedule.getWorkerCount(),
+                schedule.getScenarios().stream().filter(LptScenarioScheduler.ScheduledScenario::isFromHistory).count()));
+        } else {
+            lines.add("Predicted makespan: n/a (LPT scheduling not enabled, use -Dscheduler.order=lpt)");
+        }
+        lines.add(String.format("Actual makespan: %.1fs", getActualMakespanMillis() / 1000.0));
+
+        if (schedule != null) {
+            lines.add("Predicted worker load:");
+            for (int worker = 0; worker < schedule.getWorkerCount(); worker++) {
+                lines.add(String.format("- worker %d: %.1fs", worker, schedule.getWorkerLoadMillis(worker) / 1000));
+            }
+        }
+        lines.add("Actual worker busy time:");
+        new TreeMap<>(workerBusyMillis).forEach((worker, busy) ->
+            lines.add(String.format("- %s: %.1fs", worker, busy.get() / 1000.0)));
+
+        lines.forEach(logger::info);
+        try {
+            Path reportPath = Paths.get(REPORT_PATH);
+            Files.createDirectories(reportPath.getParent());
+            Files.write(reportPath, lines, StandardCharsets.UTF_8);
+            LoggingUtil.logReportGeneration("schedule", REPORT_PATH, true);
+        } catch (IOException e) {
+            logger.warn("Failed to write schedule report: {}", e.getMessage());
+            LoggingUtil.logReportGeneration("schedule", REPORT_PATH, false);
+        }
+    }
+}
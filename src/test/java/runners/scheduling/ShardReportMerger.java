@@ -0,0 +1,239 @@
+package runners.scheduling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import exceptions.FrameworkException;
+import org.slf4j.Logger;
+import runners.flake.FlakeHistory;
+import runners.impact.ImpactIndex;
+import utils.LoggingUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines the Cucumber JSON and Allure results of all shards into one report and updates the
+ * scenario duration and outcome histories from the merged Cucumber reports for the next run
+ * The impact index is updated with the mappings each shard recorded in its copy
+ *
+ * Usage: ShardReportMerger &lt;outputDir&gt; &lt;shardDir&gt;... [--history-only &lt;dir&gt;...] where each shard
+ * directory holds the shard's target/cucumber-reports, target/allure-results and test-history/impact-index.json.
+ * Directories after --history-only (e.g. the quarantine run) only feed the histories and stay out of the merged report
+ */
+public class ShardReportMerger {
+
+    private static final Logger logger = LoggingUtil.getLogger(ShardReportMerger.class);
+    private static final String CUCUMBER_REPORTS = "cucumber-reports";
+    private static final String ALLURE_RESULTS = "allure-results";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path outputDir;
+
+    public ShardReportMerger(Path outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            throw new FrameworkException("Usage: ShardReportMerger <outputDir> <shardDir>... [--history-only <dir>...]");
+        }
+        List<Path> shardDirs = new ArrayList<>();
+        List<Path> historyOnlyDirs = new ArrayList<>();
+        List<Path> current = shardDirs;
+        for (int i = 1; i < args.length; i++) {
+            if ("--history-only".equals(args[i])) {
+                current = historyOnlyDirs;
+            } else {
+                current.add(Paths.get(args[i]));
+            }
+        }
+
+        ShardReportMerger merger = new ShardReportMerger(Paths.get(args[0]));
+        merger.mergeCucumberReports(shardDirs);
+        merger.mergeAllureResults(shardDirs);
+        merger.updateHistory(historyOnlyDirs);
+
+        List<Path> runDirs = new ArrayList<>(shardDirs);
+        runDirs.addAll(historyOnlyDirs);
+        merger.mergeImpactIndexes(runDirs);
+    }
+
+    /**
+     * Merge Cucumber JSON reports with the same relative path; features split across shards are joined
+     */
+    public void mergeCucumberReports(List<Path> shardDirs) {
+        long startTime = System.currentTimeMillis();
+        // report path -> feature uri -> merged feature
+        Map<String, Map<String, ObjectNode>> reports = new TreeMap<>();
+
+        for (Path shardDir : shardDirs) {
+            Path reportsDir = shardDir.resolve("target").resolve(CUCUMBER_REPORTS);
+            long shardNanos = 0;
+            for (Path report : listFiles(reportsDir, ".json")) {
+                Map<String, ObjectNode> features = reports.computeIfAbsent(
+                    reportsDir.relativize(report).toString().replace('\\', '/'), k -> new TreeMap<>());
+                shardNanos += mergeReport(report, features);
+            }
+            logger.info("Shard {}: scenario time {}s", shardDir.getFileName(), Math.round(shardNanos / 1e9));
+        }
+
+        for (Map.Entry<String, Map<String, ObjectNode>> report : reports.entrySet()) {
+            ArrayNode merged = objectMapper.createArrayNode();
+            for (ObjectNode feature : report.getValue().values()) {
+                sortScenarios(feature);
+                merged.add(feature);
+            }
+            Path target = outputDir.resolve(CUCUMBER_REPORTS).resolve(report.getKey());
+            try {
+                Files.createDirectories(target.getParent());
+                objectMapper.writeValue(target.toFile(), merged);
+                LoggingUtil.logReportGeneration("merged cucumber", target.toString(), true);
+            } catch (IOException e) {
+                LoggingUtil.logReportGeneration("merged cucumber", target.toString(), false);
+                throw new FrameworkException("Failed to write merged Cucumber report: " + target, e);
+            }
+        }
+        LoggingUtil.logPerformance("Merge Cucumber reports", System.currentTimeMillis() - startTime);
+    }
+
+    private long mergeReport(Path report, Map<String, ObjectNode> features) {
+        long nanos = 0;
+        try {
+            for (JsonNode feature : objectMapper.readTree(report.toFile())) {
+                String uri = FeatureScenarioIndex.normalizeUri(feature.path("uri").asText());
+                ObjectNode merged = features.get(uri);
+                if (merged == null) {
+                    features.put(uri, ((ObjectNode) feature).deepCopy());
+                } else {
+                    merged.withArray("elements").addAll((ArrayNode) feature.path("elements"));
+                }
+                for (JsonNode element : feature.path("elements")) {
+                    for (JsonNode step : element.path("steps")) {
+                        nanos += step.path("result").path("duration").asLong(0);
+                    }
+                }
+            }
+        } catch (IOException | ClassCastException e) {
+            throw new FrameworkException("Failed to read Cucumber report: " + report, e);
+        }
+        return nanos;
+    }
+
+    /**
+     * Restore file order of scenarios; a background entry stays in front of the scenario it belongs to
+     */
+    private void sortScenarios(ObjectNode feature) {
+        List<List<JsonNode>> groups = new ArrayList<>();
+        List<JsonNode> current = new ArrayList<>();
+        for (JsonNode element : feature.path("elements")) {
+            current.add(element);
+            if (!"background".equals(element.path("type").asText())) {
+                groups.add(current);
+                current = new ArrayList<>();
+            }
+        }
+        if (!current.isEmpty()) {
+            groups.add(current);
+        }
+        groups.sort(Comparator.comparingInt(group -> group.get(group.size() - 1).path("line").asInt()));
+
+        ArrayNode elements = feature.putArray("elements");
+        groups.forEach(elements::addAll);
+    }
+
+    /**
+     * Copy all Allure result files; result files are uniquely named, shared files are taken from the first shard
+     */
+    public void mergeAllureResults(List<Path> shardDirs) {
+        Path targetDir = outputDir.resolve(ALLURE_RESULTS);
+        int copied = 0;
+        int skipped = 0;
+        try {
+            Files.createDirectories(targetDir);
+            for (Path shardDir : shardDirs) {
+                for (Path result : listFiles(shardDir.resolve("target").resolve(ALLURE_RESULTS), "")) {
+                    Path target = targetDir.resolve(result.getFileName().toString());
+                    if (Files.exists(target)) {
+                        skipped++;
+                        continue;
+                    }
+                    Files.copy(result, target);
+                    copied++;
+                }
+            }
+        } catch (IOException e) {
+            throw new FrameworkException("Failed to merge Allure results into: " + targetDir, e);
+        }
+        logger.info("Merged {} Allure result files from {} shards into {} ({} duplicates skipped)",
+                   copied, shardDirs.size(), targetDir, skipped);
+    }
+
+    /**
+     * Feed the merged reports (and any history-only runs) into the duration and outcome histories
+     * History-only reports are imported first: imports skip reports older than the newest one already seen
+     */
+    public void updateHistory(List<Path> historyOnlyDirs) {
+        List<Path> reportDirs = new ArrayList<>();
+        historyOnlyDirs.forEach(dir -> reportDirs.add(dir.resolve("target").resolve(CUCUMBER_REPORTS)));
+        reportDirs.add(outputDir.resolve(CUCUMBER_REPORTS));
+
+        FeatureScenarioIndex index = FeatureScenarioIndex.load();
+        ScenarioDurationHistory durations = ScenarioDurationHistory.load();
+        FlakeHistory flakes = FlakeHistory.load();
+        int durationsImported = 0;
+        int outcomesImported = 0;
+        for (Path reportDir : reportDirs) {
+            durationsImported += durations.importReports(index, reportDir);
+            outcomesImported += flakes.importReports(index, reportDir);
+        }
+        if (durationsImported > 0) {
+            durations.save();
+        }
+        if (outcomesImported > 0) {
+            flakes.save();
+        }
+        flakes.writeReport(outputDir.resolve("reports").resolve("flake-index.csv").toString());
+    }
+
+    /**
+     * Combine the impact index copies of all runs into the project's impact index
+     * Every run started from the project's index, so a mapping that differs from it was recorded by that run
+     */
+    public void mergeImpactIndexes(List<Path> runDirs) {
+        Path indexPath = ImpactIndex.getIndexPath();
+        ImpactIndex baseline = ImpactIndex.load();
+        ImpactIndex merged = ImpactIndex.load();
+        int updated = 0;
+        for (Path runDir : runDirs) {
+            updated += merged.mergeUpdates(ImpactIndex.load(runDir.resolve(indexPath)), baseline);
+        }
+        merged.save();
+        logger.info("Merged {} impact index updates from {} runs", updated, runDirs.size());
+    }
+
+    private static List<Path> listFiles(Path dir, String suffix) {
+        if (!Files.isDirectory(dir)) {
+            logger.warn("No results found in: {}", dir);
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(f -> f.toString().endsWith(suffix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new FrameworkException("Failed to list files in: " + dir, e);
+        }
+    }
+}
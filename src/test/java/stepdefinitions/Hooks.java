@@ -2,22 +2,45 @@ package stepdefinitions;
 
 import exceptions.FrameworkException;
 import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeStep;
 import io.cucumber.java.Scenario;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import org.opentest4j.TestAbortedException;
 import org.slf4j.Logger;
+import runners.flake.FailFastGuard;
+import runners.scheduling.FeatureScenarioIndex;
+import runners.scheduling.ScheduleReport;
+import testdata.factories.TestDataFactory;
+import testdata.providers.TestDataLeasing;
+import testdata.providers.TestDataManager;
+import utils.ConfigReader;
 import utils.ErrorHandler;
+import utils.EvidenceCollector;
+import utils.HttpExchangeRecorder;
+import utils.InteractionPipeline;
+import utils.LocatorStatistics;
 import utils.LoggingUtil;
 import utils.WebDriverUtil;
 
 public class Hooks {
     private static final Logger logger = LoggingUtil.getLogger(Hooks.class);
 
+    @Before(order = 0)
+    public void failFast(Scenario scenario) {
+        // Runs before the browser is started, so skipped scenarios cost nothing
+        if (FailFastGuard.isTripped()) {
+            throw new TestAbortedException("Fail-fast: " + FailFastGuard.getHardFailures()
+                + " scenarios already failed, skipping: " + scenario.getName());
+        }
+    }
+
     @Before
     public void setUp(Scenario scenario) {
         String scenarioName = scenario.getName();
         logger.info("Starting test setup for scenario: {}", scenarioName);
+        ScheduleReport.scenarioStarted();
         
         try {
             String browser = WebDriverUtil.getCurrentBrowser();
@@ -25,10 +48,16 @@ public class Hooks {
             
             // Set up logging context with error handling
             ErrorHandler.executeVoidWithRetry(() -> {
-                LoggingUtil.setTestContext(scenarioName, browser, language);
+                LoggingUtil.setTestContext(scenarioName, getLocation(scenario), browser, language);
                 LoggingUtil.logScenarioStart(scenarioName);
             }, "setupLoggingContext");
             
+            // Give this scenario its own copy-on-write view of the test data, discarded at teardown
+            TestDataManager.getInstance().beginScenario();
+            // Generated data depends on the seed and the scenario only, not on the worker or run order
+            TestDataFactory.beginScenario(FeatureScenarioIndex.normalizeUri(scenario.getUri().toString())
+                + ":" + scenario.getLine());
+            
             // Ensure WebDriver is initialized
             ErrorHandler.executeWithRetry(() -> {
                 return WebDriverUtil.getDriver();
@@ -59,7 +88,8 @@ public class Hooks {
         try {
             if (scenario.isFailed()) {
                 logger.error("Scenario failed: {}", scenarioName);
-                handleFailureScreenshot(scenario, scenarioName);
+                FailFastGuard.recordFailure(scenarioName);
+                handleFailureEvidence(scenario, scenarioName);
             } else {
                 logger.info("Scenario passed: {}", scenarioName);
             }
@@ -76,32 +106,70 @@ public class Hooks {
         
         // Always attempt cleanup regardless of previous errors
         performTeardownCleanup(scenarioName);
+        ScheduleReport.scenarioFinished();
         
         logger.info("Test teardown completed for scenario: {}", scenarioName);
     }
 
-    private void handleFailureScreenshot(Scenario scenario, String scenarioName) {
+    @BeforeStep
+    public void beforeStep() {
+        // All element interactions in a step share one bounded budget
+        InteractionPipeline.startStep();
+    }
+
+    @AfterStep
+    public void afterStep() {
+        InteractionPipeline.endStep();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        ErrorHandler.performGracefulCleanup("Schedule report", ScheduleReport::write);
+        ErrorHandler.performGracefulCleanup("Evidence writer flush", () -> {
+            long flushTimeout = Long.parseLong(ConfigReader.getAppProperty("evidence.flush.timeout.ms", "30000"));
+            if (!EvidenceCollector.awaitPendingWrites(flushTimeout)) {
+                logger.warn("Some failure evidence was not written within {}ms", flushTimeout);
+            }
+        });
+        ErrorHandler.performGracefulCleanup("Test data lease report",
+            () -> logger.info("Test data leases: {}", TestDataLeasing.getInstance().getStatistics()));
+        ErrorHandler.performGracefulCleanup("Locator timing report", () -> {
+            int topCount = Integer.parseInt(ConfigReader.getAppProperty("locator.report.top.count", "10"));
+            LocatorStatistics.writeReport(topCount);
+        });
+    }
+
+    private void handleFailureEvidence(Scenario scenario, String scenarioName) {
         try {
             if (WebDriverUtil.isDriverInitialized()) {
-                ErrorHandler.executeVoidWithRetry(() -> {
-                    final byte[] screenshot = ((TakesScreenshot) WebDriverUtil.getDriver())
-                        .getScreenshotAs(OutputType.BYTES);
-                    String screenshotName = scenarioName + "_failure_screenshot";
-                    scenario.attach(screenshot, "image/png", screenshotName);
-                    LoggingUtil.logScreenshot("scenario failure", screenshotName);
-                }, "captureFailureScreenshot", 2, 1000);
-                
-                logger.info("Failure screenshot captured for scenario: {}", scenarioName);
+                // Grab raw evidence now; compression and writing run in the background so the driver is released right away
+                EvidenceCollector.Evidence evidence =
+                    EvidenceCollector.capture(WebDriverUtil.getDriver(), scenarioName + "_failure", true);
+                // scenario.attach reaches the Cucumber reports and Allure, so Allure gets the rest of the evidence only
+                if (evidence.getScreenshot() != null) {
+                    scenario.attach(evidence.getScreenshot(), "image/png", scenarioName + "_failure_screenshot");
+                }
+                EvidenceCollector.submit(evidence, true, false);
+                logger.info("Failure evidence captured for scenario: {}", scenarioName);
             } else {
-                logger.warn("Cannot capture screenshot - WebDriver not initialized for scenario: {}", scenarioName);
+                logger.warn("Cannot capture evidence - WebDriver not initialized for scenario: {}", scenarioName);
             }
         } catch (Exception e) {
-            logger.error("Failed to capture failure screenshot for scenario: {}", scenarioName, e);
-            LoggingUtil.logError("screenshot capture", 
-                "Failed to capture screenshot for scenario: " + scenarioName, e);
+            logger.error("Failed to capture failure evidence for scenario: {}", scenarioName, e);
+            LoggingUtil.logError("evidence capture", 
+                "Failed to capture evidence for scenario: " + scenarioName, e);
         }
     }
 
+    /**
+     * Feature file name and line of the scenario (for outlines, the example row)
+     */
+    private static String getLocation(Scenario scenario) {
+        String path = scenario.getUri().getPath();
+        String featureFile = path == null ? String.valueOf(scenario.getUri()) : path.substring(path.lastIndexOf('/') + 1);
+        return featureFile + ":" + scenario.getLine();
+    }
+
     private void performTeardownCleanup(String scenarioName) {
         // Quit driver with error handling
         ErrorHandler.performGracefulCleanup("WebDriver cleanup", () -> {
@@ -109,6 +177,12 @@ public class Hooks {
             logger.debug("WebDriver cleaned up for scenario: {}", scenarioName);
         });
         
+        ErrorHandler.performGracefulCleanup("Test data lease release", () -> TestDataLeasing.getInstance().releaseAll());
+        ErrorHandler.performGracefulCleanup("Scenario test data cleanup", () -> TestDataManager.getInstance().endScenario());
+        TestDataFactory.endScenario();
+        
+        ErrorHandler.performGracefulCleanup("HTTP exchange buffer cleanup", HttpExchangeRecorder::clear);
+        
         // Clear logging context with error handling
         ErrorHandler.performGracefulCleanup("Logging context cleanup", () -> {
             LoggingUtil.clearContext();
@@ -0,0 +1,179 @@
+package testdata.providers;
+
+import exceptions.TestDataException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import testdata.factories.TestDataFactory;
+import testdata.models.PolicyModel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip of PolicyColumnStore snapshots, and rejection of corrupt or outdated snapshot files
+ */
+class PolicyColumnStoreSnapshotTest {
+
+    // Header layout written by PolicyColumnStore.writeSnapshot
+    private static final int VERSION_OFFSET = 4;
+    private static final int HEADER_SIZE = 40;
+
+    @TempDir
+    Path tempDir;
+
+    private PolicyColumnStore store;
+    private List<PolicyModel> policies;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() {
+        policies = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            policies.add(TestDataFactory.generateRandomPolicy());
+        }
+        PolicyModel withLists = policies.get(0);
+        withLists.addClaimId("CLM-001");
+        withLists.addClaimId("CLM-002");
+        withLists.addDocumentId("DOC-001");
+        withLists.addBeneficiary("Jane Doe");
+
+        store = new PolicyColumnStore();
+        store.addAll(policies);
+        snapshot = tempDir.resolve("policies.snapshot");
+    }
+
+    @Test
+    void loadSnapshotRestoresEveryPolicy() {
+        store.writeSnapshot(snapshot);
+
+        PolicyColumnStore loaded = new PolicyColumnStore();
+        assertEquals(policies.size(), loaded.loadSnapshot(snapshot, true));
+        assertEquals(policies.size(), PolicyColumnStore.snapshotSize(snapshot));
+        assertEquals(policies.size(), loaded.size());
+        for (PolicyModel expected : policies) {
+            assertSamePolicy(expected, loaded.get(expected.getId()));
+        }
+    }
+
+    @Test
+    void removedPoliciesAreNotWritten() {
+        PolicyModel removed = policies.get(1);
+        assertTrue(store.remove(removed.getId()));
+        store.writeSnapshot(snapshot);
+
+        PolicyColumnStore loaded = new PolicyColumnStore();
+        assertEquals(policies.size() - 1, loaded.loadSnapshot(snapshot, true));
+        assertFalse(loaded.contains(removed.getId()));
+        assertSamePolicy(policies.get(2), loaded.get(policies.get(2).getId()));
+    }
+
+    @Test
+    void lookupsAfterLoadFollowChanges() {
+        store.writeSnapshot(snapshot);
+        PolicyColumnStore loaded = new PolicyColumnStore();
+        loaded.loadSnapshot(snapshot, true);
+
+        assertNull(loaded.get("POL_UNKNOWN"));
+        assertFalse(loaded.contains(null));
+
+        PolicyModel removed = policies.get(3);
+        assertTrue(loaded.remove(removed.getId()));
+        assertFalse(loaded.contains(removed.getId()));
+        assertFalse(loaded.remove(removed.getId()));
+        loaded.add(removed);
+        assertSamePolicy(removed, loaded.get(removed.getId()));
+
+        PolicyModel updated = loaded.get(policies.get(4).getId());
+        updated.setInsuredName("Updated Name");
+        assertTrue(loaded.update(updated));
+        assertEquals("Updated Name", loaded.get(updated.getId()).getInsuredName());
+
+        PolicyModel added = TestDataFactory.generateRandomPolicy();
+        loaded.add(added);
+        assertSamePolicy(added, loaded.get(added.getId()));
+        assertEquals(policies.size() + 1, loaded.size());
+    }
+
+    @Test
+    void corruptPayloadFailsChecksum() throws IOException {
+        store.writeSnapshot(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(snapshot, bytes);
+
+        PolicyColumnStore loaded = new PolicyColumnStore();
+        loaded.add(policies.get(0));
+        TestDataException error = assertThrows(TestDataException.class, () -> loaded.loadSnapshot(snapshot, true));
+        assertTrue(error.getMessage().contains("Checksum mismatch"), error.getMessage());
+        // The store is left as it was
+        assertEquals(1, loaded.size());
+        assertNotNull(loaded.get(policies.get(0).getId()));
+    }
+
+    @Test
+    void otherFormatVersionIsRejected() throws IOException {
+        store.writeSnapshot(snapshot);
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer version = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(version, VERSION_OFFSET);
+            int written = version.getInt(0);
+            version.clear();
+            version.putInt(written + 1).flip();
+            channel.write(version, VERSION_OFFSET);
+        }
+
+        PolicyColumnStore loaded = new PolicyColumnStore();
+        TestDataException error = assertThrows(TestDataException.class, () -> loaded.loadSnapshot(snapshot, false));
+        assertTrue(error.getMessage().contains("format version"), error.getMessage());
+        assertThrows(TestDataException.class, () -> PolicyColumnStore.snapshotSize(snapshot));
+        assertEquals(0, loaded.size());
+    }
+
+    @Test
+    void truncatedSnapshotIsRejected() throws IOException {
+        store.writeSnapshot(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        byte[] truncated = new byte[HEADER_SIZE + (bytes.length - HEADER_SIZE) / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(snapshot, truncated);
+
+        TestDataException error = assertThrows(TestDataException.class,
+                                               () -> new PolicyColumnStore().loadSnapshot(snapshot, false));
+        assertTrue(error.getMessage().contains("truncated"), error.getMessage());
+    }
+
+    private static void assertSamePolicy(PolicyModel expected, PolicyModel actual) {
+        assertNotNull(actual, "missing " + expected.getId());
+        assertEquals(expected.getPolicyNumber(), actual.getPolicyNumber());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getCategory(), actual.getCategory());
+        assertEquals(0, expected.getPremiumAmount().compareTo(actual.getPremiumAmount()));
+        assertEquals(0, expected.getCoverageAmount().compareTo(actual.getCoverageAmount()));
+        assertEquals(0, expected.getDeductible().compareTo(actual.getDeductible()));
+        assertEquals(expected.getEffectiveDate(), actual.getEffectiveDate());
+        assertEquals(expected.getExpirationDate(), actual.getExpirationDate());
+        assertEquals(expected.getInsuredName(), actual.getInsuredName());
+        assertEquals(expected.getAgentId(), actual.getAgentId());
+        assertEquals(expected.getClaimIds(), actual.getClaimIds());
+        assertEquals(expected.getDocumentIds(), actual.getDocumentIds());
+        assertEquals(expected.getBeneficiaries(), actual.getBeneficiaries());
+        assertEquals(expected.isAutoRenewal(), actual.isAutoRenewal());
+        assertEquals(expected.hasExpiryWarning(), actual.hasExpiryWarning());
+    }
+}
@@ -0,0 +1,153 @@
+package testdata.providers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import testdata.factories.TestDataFactory;
+import testdata.models.PolicyModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exclusive, reentrant test data leases: one holder per item under contention, the same lease when a
+ * thread asks again, release at teardown, and a generated item when every match stays leased
+ */
+class TestDataLeasingTest {
+
+    private final TestDataManager dataManager = TestDataManager.getInstance();
+    private final TestDataLeasing leasing = TestDataLeasing.getInstance();
+    private final ExecutorService threads = Executors.newFixedThreadPool(8);
+    private String dataType;
+    private List<PolicyModel> policies;
+
+    @BeforeEach
+    void setUp() {
+        // A type of its own, since the manager and the leases are singletons
+        dataType = "lease-test-" + UUID.randomUUID();
+        policies = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            policies.add(TestDataFactory.generateRandomPolicy());
+        }
+        dataManager.addAllTestData(dataType, policies);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leasing.releaseAll();
+        dataManager.clearTestData(dataType);
+        threads.shutdownNow();
+    }
+
+    @Test
+    void eachItemHasOneHolderUnderContention() throws Exception {
+        Map<String, AtomicInteger> holders = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int worker = 0; worker < 8; worker++) {
+            workers.add(threads.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    TestDataLeasing.Lease<PolicyModel> lease = leasing.lease(dataType, this::candidates, policy -> true, null);
+                    AtomicInteger count = holders.computeIfAbsent(lease.getItem().getId(), id -> new AtomicInteger());
+                    if (count.incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    Thread.yield();
+                    count.decrementAndGet();
+                    assertTrue(lease.release());
+                }
+                return leasing.releaseAll();
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+
+        assertEquals(0, overlaps.get());
+        for (PolicyModel policy : policies) {
+            assertFalse(leasing.isLeased(dataType, policy.getId()));
+        }
+    }
+
+    @Test
+    void leaseIsReentrantAndReleasedWithReleaseAll() throws Exception {
+        TestDataLeasing.Lease<PolicyModel> first = leasing.lease(dataType, this::candidates, policy -> true, null);
+        TestDataLeasing.Lease<PolicyModel> again = leasing.lease(dataType, this::candidates, policy -> true, null);
+        assertSame(first, again);
+
+        // A filter the held item does not match gives a second lease
+        String heldId = first.getItem().getId();
+        TestDataLeasing.Lease<PolicyModel> other = leasing.lease(dataType, this::candidates,
+                                                                 policy -> !policy.getId().equals(heldId), null);
+        assertNotEquals(heldId, other.getItem().getId());
+
+        assertEquals(2, leasing.releaseAll());
+        assertFalse(first.isHeld());
+        assertFalse(leasing.isLeased(dataType, heldId));
+        assertFalse(leasing.isLeased(dataType, other.getItem().getId()));
+        assertEquals(0, leasing.releaseAll());
+
+        // Released items can be leased by another thread
+        String leasedElsewhere = threads.submit(() -> {
+            try {
+                return leasing.lease(dataType, () -> Collections.singletonList(first.getItem()), policy -> true, null)
+                              .getItem().getId();
+            } finally {
+                leasing.releaseAll();
+            }
+        }).get();
+        assertEquals(heldId, leasedElsewhere);
+    }
+
+    @Test
+    void generatesAnItemWhenEveryMatchStaysLeased() throws Exception {
+        PolicyModel only = policies.get(0);
+        Supplier<List<PolicyModel>> onlyCandidate = () -> Collections.singletonList(only);
+        CountDownLatch leased = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Future<?> holder = threads.submit(() -> {
+            leasing.lease(dataType, onlyCandidate, policy -> true, null);
+            leased.countDown();
+            done.await();
+            return leasing.releaseAll();
+        });
+        assertTrue(leased.await(10, TimeUnit.SECONDS));
+
+        try {
+            TestDataLeasing.Lease<PolicyModel> lease = leasing.lease(dataType, onlyCandidate, policy -> true,
+                                                                     TestDataFactory::generateRandomPolicy);
+            assertTrue(lease.isGenerated());
+            assertNotEquals(only.getId(), lease.getItem().getId());
+            assertNotNull(dataManager.getTestData(dataType, lease.getItem().getId(), PolicyModel.class));
+            assertTrue(leasing.isLeased(dataType, lease.getItem().getId()));
+        } finally {
+            done.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private List<PolicyModel> candidates() {
+        return dataManager.getAllTestData(dataType, PolicyModel.class);
+    }
+}
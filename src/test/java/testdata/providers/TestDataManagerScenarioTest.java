@@ -0,0 +1,191 @@
+package testdata.providers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import testdata.factories.TestDataFactory;
+import testdata.models.PolicyModel;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scenario overlays in TestDataManager: a scenario's adds, updates, removes and clears, and in-place
+ * changes to what it reads, are seen by that scenario only, never by a scenario on another thread or
+ * the shared data
+ */
+class TestDataManagerScenarioTest {
+
+    private static final String STATISTICS = "active-premiums";
+
+    private final TestDataManager dataManager = TestDataManager.getInstance();
+    private final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+    private String dataType;
+    private List<PolicyModel> policies;
+
+    @BeforeEach
+    void setUp() {
+        // A type of its own, since the manager is a singleton
+        dataType = "scenario-test-" + UUID.randomUUID();
+        policies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            PolicyModel policy = TestDataFactory.generateRandomPolicy();
+            policy.setStatus(i % 2 == 0 ? "ACTIVE" : "PENDING");
+            policy.setPremiumAmount(BigDecimal.valueOf(100L * (i + 1)));
+            policies.add(policy);
+        }
+        dataManager.addAllTestData(dataType, policies);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataManager.endScenario();
+        dataManager.clearTestData(dataType);
+        otherThread.shutdownNow();
+    }
+
+    @Test
+    void writesStayInTheScenario() throws Exception {
+        PolicyModel updated = policies.get(0);
+        PolicyModel removed = policies.get(1);
+        PolicyModel added = TestDataFactory.generateRandomPolicy();
+
+        dataManager.beginScenario();
+        PolicyModel change = dataManager.getTestData(dataType, updated.getId(), PolicyModel.class);
+        change.setStatus("CANCELLED");
+        dataManager.updateTestData(dataType, change);
+        dataManager.removeTestData(dataType, removed.getId());
+        dataManager.addTestData(dataType, added);
+
+        assertEquals("CANCELLED", status(updated.getId()));
+        assertNull(dataManager.getTestData(dataType, removed.getId(), PolicyModel.class));
+        assertNotNull(dataManager.getTestData(dataType, added.getId(), PolicyModel.class));
+        assertEquals(10, dataManager.getAllTestData(dataType, PolicyModel.class).size());
+
+        // Another scenario running at the same time sees the shared data
+        assertEquals("ACTIVE", onOtherThread(() -> {
+            dataManager.beginScenario();
+            try {
+                assertNotNull(dataManager.getTestData(dataType, removed.getId(), PolicyModel.class));
+                assertNull(dataManager.getTestData(dataType, added.getId(), PolicyModel.class));
+                return status(updated.getId());
+            } finally {
+                dataManager.endScenario();
+            }
+        }));
+
+        dataManager.endScenario();
+        assertEquals("ACTIVE", status(updated.getId()));
+        assertNotNull(dataManager.getTestData(dataType, removed.getId(), PolicyModel.class));
+        assertNull(dataManager.getTestData(dataType, added.getId(), PolicyModel.class));
+    }
+
+    @Test
+    void inPlaceChangesToReadsDoNotReachSharedData() throws Exception {
+        String id = policies.get(2).getId();
+
+        dataManager.beginScenario();
+        dataManager.getTestData(dataType, id, PolicyModel.class).setStatus("CANCELLED");
+        dataManager.getTestDataWhere(dataType, PolicyModel.class, policy -> id.equals(policy.getId()))
+                   .forEach(policy -> policy.setStatus("EXPIRED"));
+        dataManager.getRandomTestData(dataType, PolicyModel.class).setInsuredName("Changed In Place");
+
+        assertEquals("ACTIVE", status(id));
+        assertEquals("ACTIVE", onOtherThread(() -> status(id)));
+        assertTrue(dataManager.getAllTestData(dataType, PolicyModel.class).stream()
+                              .noneMatch(policy -> "Changed In Place".equals(policy.getInsuredName())));
+    }
+
+    @Test
+    void clearHidesSharedDataOnlyInTheScenario() throws Exception {
+        PolicyModel added = TestDataFactory.generateRandomPolicy();
+
+        dataManager.beginScenario();
+        dataManager.clearTestData(dataType);
+        assertTrue(dataManager.getAllTestData(dataType, PolicyModel.class).isEmpty());
+        dataManager.addTestData(dataType, added);
+
+        assertEquals(Collections.singletonList(added.getId()), ids(dataManager.getAllTestData(dataType, PolicyModel.class)));
+        assertEquals(10, (int) onOtherThread(() -> dataManager.getAllTestData(dataType, PolicyModel.class).size()));
+
+        dataManager.endScenario();
+        assertEquals(10, dataManager.getAllTestData(dataType, PolicyModel.class).size());
+    }
+
+    @Test
+    void statisticsFollowTheScenario() throws Exception {
+        dataManager.defineStatistics(dataType, PolicyModel.class, STATISTICS, 1,
+            policy -> "ACTIVE".equals(policy.getStatus()) ? 1L : 0L,
+            Collections.singletonList(PolicyModel::getPremiumAmount));
+        TestDataStatistics.Totals shared = dataManager.getStatistics(dataType, STATISTICS);
+        assertEquals(10, shared.getItems());
+        assertEquals(5, shared.getCount(0));
+        assertEquals(0, new BigDecimal("5500").compareTo(shared.getSum(0)));
+
+        dataManager.beginScenario();
+        PolicyModel change = dataManager.getTestData(dataType, policies.get(0).getId(), PolicyModel.class);
+        change.setStatus("CANCELLED");
+        change.setPremiumAmount(BigDecimal.valueOf(1000));
+        dataManager.updateTestData(dataType, change);
+        dataManager.removeTestData(dataType, policies.get(2).getId());
+
+        TestDataStatistics.Totals scenario = dataManager.getStatistics(dataType, STATISTICS);
+        assertEquals(9, scenario.getItems());
+        assertEquals(3, scenario.getCount(0));
+        // 5500 - 100 + 1000 - 300
+        assertEquals(0, new BigDecimal("6100").compareTo(scenario.getSum(0)));
+
+        TestDataStatistics.Totals other = onOtherThread(() -> dataManager.getStatistics(dataType, STATISTICS));
+        assertEquals(10, other.getItems());
+        assertEquals(5, other.getCount(0));
+    }
+
+    @Test
+    void rangeLookupMergesScenarioItemsInKeyOrder() throws Exception {
+        dataManager.defineSortedIndex(dataType, PolicyModel.class, "premium", PolicyModel::getPremiumAmount);
+        PolicyModel added = TestDataFactory.generateRandomPolicy();
+        added.setPremiumAmount(BigDecimal.valueOf(450));
+
+        dataManager.beginScenario();
+        dataManager.addTestData(dataType, added);
+        PolicyModel moved = dataManager.getTestData(dataType, policies.get(9).getId(), PolicyModel.class);
+        moved.setPremiumAmount(BigDecimal.valueOf(250));
+        dataManager.updateTestData(dataType, moved);
+        dataManager.removeTestData(dataType, policies.get(3).getId());
+
+        List<PolicyModel> inRange = dataManager.getTestDataInRange(dataType, PolicyModel.class, "premium",
+                                                                   BigDecimal.valueOf(200), BigDecimal.valueOf(600));
+        assertEquals(Arrays.asList(policies.get(1).getId(), moved.getId(), policies.get(2).getId(), added.getId(),
+                                   policies.get(4).getId(), policies.get(5).getId()), ids(inRange));
+
+        List<PolicyModel> sharedRange = onOtherThread(() -> dataManager.getTestDataInRange(
+            dataType, PolicyModel.class, "premium", BigDecimal.valueOf(200), BigDecimal.valueOf(600)));
+        assertEquals(Arrays.asList(policies.get(1).getId(), policies.get(2).getId(), policies.get(3).getId(),
+                                   policies.get(4).getId(), policies.get(5).getId()), ids(sharedRange));
+    }
+
+    private String status(String id) {
+        return dataManager.getTestData(dataType, id, PolicyModel.class).getStatus();
+    }
+
+    private <T> T onOtherThread(Callable<T> action) throws Exception {
+        return otherThread.submit(action).get();
+    }
+
+    private static List<String> ids(List<PolicyModel> items) {
+        return items.stream().map(PolicyModel::getId).collect(Collectors.toList());
+    }
+}